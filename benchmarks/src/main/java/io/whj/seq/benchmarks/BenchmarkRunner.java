@@ -0,0 +1,31 @@
+package io.whj.seq.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 运行全部 benchmark 并开启 GC profiler，报告吞吐量和 gc.alloc.rate.norm（每次调用分配的字节数）
+ * <p>
+ * 用法：java -jar target/benchmarks.jar [JMH 命令行参数]，例如只跑 map 相关且只测 10000 个元素：
+ * java -jar target/benchmarks.jar "map.*" -p size=10000
+ */
+public class BenchmarkRunner {
+    
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include("io\\.whj\\.seq\\.benchmarks\\..*");
+        }
+        options.addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json");
+        new Runner(options.build()).run();
+    }
+}
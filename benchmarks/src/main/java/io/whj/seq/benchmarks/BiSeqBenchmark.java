@@ -0,0 +1,52 @@
+package io.whj.seq.benchmarks;
+
+import io.whj.seq.seqs.BiSeq;
+import io.whj.seq.seqs.Seq;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * BiSeq 键值对流水线与 Stream + 中间对象、vavr Tuple2 的对比
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BiSeqBenchmark {
+    
+    // 带索引遍历
+    @Benchmark
+    public void mapWithIndexSeq(SeqState s, Blackhole bh) {
+        Seq.of(s.words).mapWithIndex(String::length).consume((i, len) -> bh.consume(i + len));
+    }
+    
+    @Benchmark
+    public void mapWithIndexStream(SeqState s, Blackhole bh) {
+        IntStream.range(0, s.words.size()).forEach(i -> bh.consume(i + s.words.get(i).length()));
+    }
+    
+    @Benchmark
+    public void mapWithIndexVavr(SeqState s, Blackhole bh) {
+        io.vavr.collection.Stream.ofAll(s.words).map(String::length).zipWithIndex()
+                .forEach(t -> bh.consume(t._2 + t._1));
+    }
+    
+    // 键值对逐个转换后再消费
+    @Benchmark
+    public void zipWithMapSeq(SeqState s, Blackhole bh) {
+        BiSeq<Integer, String> pairs = Seq.of(s.list).zipWith(s.words);
+        pairs.<String, Integer>map((k, v) -> c -> c.accept(v, k + 1))
+                .consume((v, k) -> bh.consume(k + v.length()));
+    }
+    
+    @Benchmark
+    public void zipWithMapVavr(SeqState s, Blackhole bh) {
+        io.vavr.collection.Stream.ofAll(s.list).zip(s.words)
+                .map(t -> io.vavr.Tuple.of(t._2, t._1 + 1))
+                .forEach(t -> bh.consume(t._2 + t._1.length()));
+    }
+}
@@ -0,0 +1,176 @@
+package io.whj.seq.benchmarks;
+
+import io.whj.seq.seqs.Seq;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Seq 核心操作与 java.util.stream.Stream、io.vavr.collection.Stream 的对比，
+ * 每组三个方法执行同一条流水线，终止操作统一为 toList/toMap/length 以保证流被完整求值
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeqBenchmark {
+    
+    // map
+    @Benchmark
+    public List<Integer> mapSeq(SeqState s) {
+        return Seq.of(s.list).map(v -> v + 1).toList();
+    }
+    
+    @Benchmark
+    public List<Integer> mapStream(SeqState s) {
+        return s.list.stream().map(v -> v + 1).collect(Collectors.toList());
+    }
+    
+    @Benchmark
+    public List<Integer> mapVavr(SeqState s) {
+        return io.vavr.collection.Stream.ofAll(s.list).map(v -> v + 1).toJavaList();
+    }
+    
+    // filter
+    @Benchmark
+    public List<Integer> filterSeq(SeqState s) {
+        return Seq.of(s.list).filter(v -> (v & 1) == 0).toList();
+    }
+    
+    @Benchmark
+    public List<Integer> filterStream(SeqState s) {
+        return s.list.stream().filter(v -> (v & 1) == 0).collect(Collectors.toList());
+    }
+    
+    @Benchmark
+    public List<Integer> filterVavr(SeqState s) {
+        return io.vavr.collection.Stream.ofAll(s.list).filter(v -> (v & 1) == 0).toJavaList();
+    }
+    
+    // flatMap
+    @Benchmark
+    public List<Integer> flatMapSeq(SeqState s) {
+        return Seq.of(s.list).flatMap(v -> Seq.of(v, -v)).toList();
+    }
+    
+    @Benchmark
+    public List<Integer> flatMapStream(SeqState s) {
+        return s.list.stream().flatMap(v -> Stream.of(v, -v)).collect(Collectors.toList());
+    }
+    
+    @Benchmark
+    public List<Integer> flatMapVavr(SeqState s) {
+        return io.vavr.collection.Stream.ofAll(s.list).flatMap(v -> io.vavr.collection.List.of(v, -v)).toJavaList();
+    }
+    
+    // take：只取前 10 个元素，衡量提前终止的开销
+    @Benchmark
+    public List<Integer> takeSeq(SeqState s) {
+        return Seq.of(s.list).map(v -> v + 1).take(10).toList();
+    }
+    
+    @Benchmark
+    public List<Integer> takeStream(SeqState s) {
+        return s.list.stream().map(v -> v + 1).limit(10).collect(Collectors.toList());
+    }
+    
+    @Benchmark
+    public List<Integer> takeVavr(SeqState s) {
+        return io.vavr.collection.Stream.ofAll(s.list).map(v -> v + 1).take(10).toJavaList();
+    }
+    
+    // zipWith
+    @Benchmark
+    public int zipWithSeq(SeqState s) {
+        int[] sum = {0};
+        Seq.of(s.list).zipWith(s.words).consume((v, w) -> sum[0] += v + w.length());
+        return sum[0];
+    }
+    
+    @Benchmark
+    public int zipWithStream(SeqState s) {
+        List<String> words = s.words;
+        return java.util.stream.IntStream.range(0, Math.min(s.list.size(), words.size()))
+                .map(i -> s.list.get(i) + words.get(i).length())
+                .sum();
+    }
+    
+    @Benchmark
+    public int zipWithVavr(SeqState s) {
+        return io.vavr.collection.Stream.ofAll(s.list)
+                .zipWith(s.words, (v, w) -> v + w.length())
+                .foldLeft(0, Integer::sum);
+    }
+    
+    // distinct
+    @Benchmark
+    public List<Integer> distinctSeq(SeqState s) {
+        return Seq.of(s.duplicated).distinct().toList();
+    }
+    
+    @Benchmark
+    public List<Integer> distinctStream(SeqState s) {
+        return s.duplicated.stream().distinct().collect(Collectors.toList());
+    }
+    
+    @Benchmark
+    public List<Integer> distinctVavr(SeqState s) {
+        return io.vavr.collection.Stream.ofAll(s.duplicated).distinct().toJavaList();
+    }
+    
+    // sort
+    @Benchmark
+    public List<Integer> sortSeq(SeqState s) {
+        return Seq.of(s.list).sort(Comparator.naturalOrder()).toList();
+    }
+    
+    @Benchmark
+    public List<Integer> sortStream(SeqState s) {
+        return s.list.stream().sorted().collect(Collectors.toList());
+    }
+    
+    @Benchmark
+    public List<Integer> sortVavr(SeqState s) {
+        return io.vavr.collection.Stream.ofAll(s.list).sorted().toJavaList();
+    }
+    
+    // toList：数组数据源直接收集
+    @Benchmark
+    public List<Integer> toListSeq(SeqState s) {
+        return Seq.of(s.array).toList();
+    }
+    
+    @Benchmark
+    public List<Integer> toListStream(SeqState s) {
+        return Stream.of(s.array).collect(Collectors.toList());
+    }
+    
+    @Benchmark
+    public List<Integer> toListVavr(SeqState s) {
+        return io.vavr.collection.Stream.of(s.array).toJavaList();
+    }
+    
+    // toMap：存在重复 key，后出现的值覆盖先出现的值
+    @Benchmark
+    public Map<Integer, Integer> toMapSeq(SeqState s) {
+        return Seq.of(s.duplicated).toMap(Function.identity(), v -> v + 1);
+    }
+    
+    @Benchmark
+    public Map<Integer, Integer> toMapStream(SeqState s) {
+        return s.duplicated.stream().collect(Collectors.toMap(Function.identity(), v -> v + 1, (a, b) -> b));
+    }
+    
+    @Benchmark
+    public Map<Integer, Integer> toMapVavr(SeqState s) {
+        return io.vavr.collection.Stream.ofAll(s.duplicated)
+                .toJavaMap(java.util.HashMap::new, Function.identity(), v -> v + 1);
+    }
+}
@@ -0,0 +1,42 @@
+package io.whj.seq.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 各个 benchmark 共用的输入数据，按 size 参数生成
+ */
+@State(Scope.Benchmark)
+public class SeqState {
+    
+    @Param({"100", "10000", "1000000"})
+    public int size;
+    
+    // 打乱顺序的 [0, size) 整数，用于 sort/distinct 等依赖数据分布的操作
+    public List<Integer> list;
+    
+    // 取值范围较小的整数，保证 distinct 和 toMap 有重复 key
+    public List<Integer> duplicated;
+    
+    public Integer[] array;
+    
+    public List<String> words;
+    
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        list = new ArrayList<>(size);
+        duplicated = new ArrayList<>(size);
+        words = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+            duplicated.add(random.nextInt(Math.max(size / 10, 1)));
+            words.add("w" + i);
+        }
+        java.util.Collections.shuffle(list, random);
+        array = list.toArray(new Integer[0]);
+    }
+}
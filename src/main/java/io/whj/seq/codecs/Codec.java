@@ -0,0 +1,194 @@
+package io.whj.seq.codecs;
+
+import io.whj.seq.tuples.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 元素的二进制编解码，供溢写到磁盘的操作（join、外部排序）和 Seq 的持久化使用。
+ * 内置的编码都不接受 null，需要时使用 {@link #nullable()}
+ *
+ * @param <T> 元素类型
+ */
+public interface Codec<T> {
+    
+    void encode(T value, DataOutput out) throws IOException;
+    
+    T decode(DataInput in) throws IOException;
+    
+    @FunctionalInterface
+    interface Encoder<T> {
+        void encode(T value, DataOutput out) throws IOException;
+    }
+    
+    @FunctionalInterface
+    interface Decoder<T> {
+        T decode(DataInput in) throws IOException;
+    }
+    
+    static <T> Codec<T> of(Encoder<T> encoder, Decoder<T> decoder) {
+        return new Codec<T>() {
+            @Override
+            public void encode(T value, DataOutput out) throws IOException {
+                encoder.encode(value, out);
+            }
+            
+            @Override
+            public T decode(DataInput in) throws IOException {
+                return decoder.decode(in);
+            }
+        };
+    }
+    
+    // UTF-8 编码，长度不受 DataOutput.writeUTF 的 64KB 限制
+    static Codec<String> strings() {
+        return of((s, out) -> {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }, in -> {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        });
+    }
+    
+    static Codec<Integer> ints() {
+        return of((v, out) -> out.writeInt(v), DataInput::readInt);
+    }
+    
+    static Codec<Long> longs() {
+        return of((v, out) -> out.writeLong(v), DataInput::readLong);
+    }
+    
+    static Codec<Double> doubles() {
+        return of((v, out) -> out.writeDouble(v), DataInput::readDouble);
+    }
+    
+    static Codec<Boolean> booleans() {
+        return of((v, out) -> out.writeBoolean(v), DataInput::readBoolean);
+    }
+    
+    static Codec<Byte> bytes() {
+        return of((v, out) -> out.writeByte(v), DataInput::readByte);
+    }
+    
+    static Codec<Short> shorts() {
+        return of((v, out) -> out.writeShort(v), DataInput::readShort);
+    }
+    
+    static Codec<Character> chars() {
+        return of((v, out) -> out.writeChar(v), DataInput::readChar);
+    }
+    
+    static Codec<Float> floats() {
+        return of((v, out) -> out.writeFloat(v), DataInput::readFloat);
+    }
+    
+    // Java 序列化，每个元素单独序列化，通用但是慢，适合没有专门编码的类型
+    @SuppressWarnings("unchecked")
+    static <T extends Serializable> Codec<T> serializable() {
+        return of((v, out) -> {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+                oos.writeObject(v);
+            }
+            out.writeInt(bytes.size());
+            out.write(bytes.toByteArray());
+        }, in -> {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                return (T) ois.readObject();
+            } catch (ClassNotFoundException e) {
+                throw new InvalidClassException(e.getMessage());
+            }
+        });
+    }
+    
+    static <A> Codec<Tuple1<A>> tuple1(Codec<A> first) {
+        return of((t, out) -> first.encode(t._1(), out), in -> Tuple.of(first.decode(in)));
+    }
+    
+    static <A, B> Codec<Tuple2<A, B>> tuple2(Codec<A> first, Codec<B> second) {
+        return of((t, out) -> {
+            first.encode(t._1(), out);
+            second.encode(t._2(), out);
+        }, in -> Tuple.of(first.decode(in), second.decode(in)));
+    }
+    
+    static <A, B, C> Codec<Tuple3<A, B, C>> tuple3(Codec<A> first, Codec<B> second, Codec<C> third) {
+        return of((t, out) -> {
+            first.encode(t.first(), out);
+            second.encode(t.second(), out);
+            third.encode(t.third(), out);
+        }, in -> Tuple.of(first.decode(in), second.decode(in), third.decode(in)));
+    }
+    
+    static <A, B, C, D> Codec<Tuple4<A, B, C, D>> tuple4(Codec<A> first, Codec<B> second, Codec<C> third, Codec<D> fourth) {
+        return of((t, out) -> {
+            first.encode(t._1(), out);
+            second.encode(t._2(), out);
+            third.encode(t._3(), out);
+            fourth.encode(t._4(), out);
+        }, in -> Tuple.of(first.decode(in), second.decode(in), third.decode(in), fourth.decode(in)));
+    }
+    
+    static <A, B, C, D, E> Codec<Tuple5<A, B, C, D, E>> tuple5(Codec<A> first, Codec<B> second, Codec<C> third, Codec<D> fourth, Codec<E> fifth) {
+        return of((t, out) -> {
+            first.encode(t._1(), out);
+            second.encode(t._2(), out);
+            third.encode(t._3(), out);
+            fourth.encode(t._4(), out);
+            fifth.encode(t._5(), out);
+        }, in -> Tuple.of(first.decode(in), second.decode(in), third.decode(in), fourth.decode(in), fifth.decode(in)));
+    }
+    
+    static <A, B, C, D, E, F> Codec<Tuple6<A, B, C, D, E, F>> tuple6(Codec<A> first, Codec<B> second, Codec<C> third, Codec<D> fourth, Codec<E> fifth, Codec<F> sixth) {
+        return of((t, out) -> {
+            first.encode(t._1(), out);
+            second.encode(t._2(), out);
+            third.encode(t._3(), out);
+            fourth.encode(t._4(), out);
+            fifth.encode(t._5(), out);
+            sixth.encode(t._6(), out);
+        }, in -> Tuple.of(first.decode(in), second.decode(in), third.decode(in), fourth.decode(in), fifth.decode(in), sixth.decode(in)));
+    }
+    
+    static <A, B, C, D, E, F, G> Codec<Tuple7<A, B, C, D, E, F, G>> tuple7(Codec<A> first, Codec<B> second, Codec<C> third, Codec<D> fourth, Codec<E> fifth, Codec<F> sixth, Codec<G> seventh) {
+        return of((t, out) -> {
+            first.encode(t._1(), out);
+            second.encode(t._2(), out);
+            third.encode(t._3(), out);
+            fourth.encode(t._4(), out);
+            fifth.encode(t._5(), out);
+            sixth.encode(t._6(), out);
+            seventh.encode(t._7(), out);
+        }, in -> Tuple.of(first.decode(in), second.decode(in), third.decode(in), fourth.decode(in), fifth.decode(in), sixth.decode(in), seventh.decode(in)));
+    }
+    
+    static <A, B, C, D, E, F, G, H> Codec<Tuple8<A, B, C, D, E, F, G, H>> tuple8(Codec<A> first, Codec<B> second, Codec<C> third, Codec<D> fourth, Codec<E> fifth, Codec<F> sixth, Codec<G> seventh, Codec<H> eighth) {
+        return of((t, out) -> {
+            first.encode(t._1(), out);
+            second.encode(t._2(), out);
+            third.encode(t._3(), out);
+            fourth.encode(t._4(), out);
+            fifth.encode(t._5(), out);
+            sixth.encode(t._6(), out);
+            seventh.encode(t._7(), out);
+            eighth.encode(t._8(), out);
+        }, in -> Tuple.of(first.decode(in), second.decode(in), third.decode(in), fourth.decode(in), fifth.decode(in), sixth.decode(in), seventh.decode(in), eighth.decode(in)));
+    }
+    
+    // 先写一个字节标记是否为 null
+    default Codec<T> nullable() {
+        Codec<T> codec = this;
+        return of((v, out) -> {
+            out.writeBoolean(v != null);
+            if (v != null) {
+                codec.encode(v, out);
+            }
+        }, in -> in.readBoolean() ? codec.decode(in) : null);
+    }
+}
@@ -0,0 +1,122 @@
+package io.whj.seq.collections;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 布隆过滤器：位数组分配在堆外（direct buffer），按预计的元素个数和误判率确定大小，之后内存固定。
+ * {@link #mightContain(Object)} 返回 false 时元素一定没有加入过，返回 true 时有 fpp 的概率误判。
+ * <p>
+ * 位数和哈希函数个数都相同的两个实例可以 {@link #merge(BloomFilter)}（按位或），用于合并各个分区的结果。
+ * 堆外内存随对象被回收时释放；除了 {@link #putConcurrently(Object)} 之外不是线程安全的
+ */
+public final class BloomFilter {
+    
+    // 一个 direct buffer 最多 2GB
+    private static final long MAX_BITS = (long) Integer.MAX_VALUE / Long.BYTES * Long.SIZE;
+    // putConcurrently 按字分段加锁的段数
+    private static final int STRIPES = 64;
+    
+    private final long bits;
+    private final int hashes;
+    private final ByteBuffer words;
+    private final Object[] locks = new Object[STRIPES];
+    
+    public BloomFilter(long expectedInsertions, double fpp) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive: " + expectedInsertions);
+        }
+        if (!(fpp > 0 && fpp < 1)) {
+            throw new IllegalArgumentException("fpp must be in (0, 1): " + fpp);
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        if (bits > MAX_BITS) {
+            throw new IllegalArgumentException("bloom filter too large: " + bits + " bits");
+        }
+        // 按 long 对齐
+        this.bits = Math.max((bits + Long.SIZE - 1) / Long.SIZE, 1) * Long.SIZE;
+        this.hashes = Math.max((int) Math.round((double) this.bits / expectedInsertions * Math.log(2)), 1);
+        this.words = ByteBuffer.allocateDirect((int) (this.bits / Byte.SIZE));
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+    
+    public long bitSize() {
+        return bits;
+    }
+    
+    public int hashCount() {
+        return hashes;
+    }
+    
+    // 加入元素，返回 true 表示至少有一位从 0 变成 1，即这个元素一定是第一次加入
+    public boolean put(Object o) {
+        long h1 = Hashing.hash(o);
+        long h2 = second(h1);
+        boolean changed = false;
+        for (int i = 0; i < hashes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bits;
+            int offset = (int) (bit >>> 6) << 3;
+            long word = words.getLong(offset);
+            long mask = 1L << bit;
+            if ((word & mask) == 0) {
+                words.putLong(offset, word | mask);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+    
+    // 与 put 相同，可以被多个线程同时调用：每个字在所属的段锁内读改写，并行构建时共用同一个过滤器
+    public boolean putConcurrently(Object o) {
+        long h1 = Hashing.hash(o);
+        long h2 = second(h1);
+        boolean changed = false;
+        for (int i = 0; i < hashes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bits;
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            synchronized (locks[index & (STRIPES - 1)]) {
+                long word = words.getLong(index << 3);
+                if ((word & mask) == 0) {
+                    words.putLong(index << 3, word | mask);
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+    
+    public boolean mightContain(Object o) {
+        long h1 = Hashing.hash(o);
+        long h2 = second(h1);
+        for (int i = 0; i < hashes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bits;
+            if ((words.getLong((int) (bit >>> 6) << 3) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // 双重哈希：第 i 个位置取 h1 + i * h2，h2 为奇数
+    private static long second(long hash) {
+        return Hashing.fmix64(hash ^ 0x9E3779B97F4A7C15L) | 1;
+    }
+    
+    // 按位或，把 other 合并进来并返回自身
+    public BloomFilter merge(BloomFilter other) {
+        if (other.bits != bits || other.hashes != hashes) {
+            throw new IllegalArgumentException("incompatible bloom filters: " + this + " vs " + other);
+        }
+        for (int offset = 0; offset < words.capacity(); offset += Long.BYTES) {
+            words.putLong(offset, words.getLong(offset) | other.words.getLong(offset));
+        }
+        return this;
+    }
+    
+    @Override
+    public String toString() {
+        return "BloomFilter(bits=" + bits + ", hashes=" + hashes + ")";
+    }
+}
@@ -0,0 +1,42 @@
+package io.whj.seq.collections;
+
+/**
+ * 概率数据结构使用的 64 位哈希。
+ * <p>
+ * 整数直接用 fmix64 打散（双射，不会碰撞）；字符串按字符计算 64 位哈希；其余对象只有 32 位的 hashCode 可用，
+ * 打散之后仍然最多只有 2^32 种取值，不同元素超过数亿时碰撞会使估计偏小
+ */
+final class Hashing {
+    
+    private Hashing() {
+    }
+    
+    static long hash(Object o) {
+        if (o == null) {
+            return fmix64(0x9E3779B97F4A7C15L);
+        }
+        if (o instanceof Long || o instanceof Integer || o instanceof Short || o instanceof Byte) {
+            return fmix64(((Number) o).longValue());
+        }
+        if (o instanceof CharSequence) {
+            CharSequence s = (CharSequence) o;
+            // FNV-1a，逐个字符
+            long h = 0xCBF29CE484222325L;
+            for (int i = 0; i < s.length(); i++) {
+                h = (h ^ s.charAt(i)) * 0x100000001B3L;
+            }
+            return fmix64(h ^ s.length());
+        }
+        return fmix64(o.hashCode());
+    }
+    
+    // MurmurHash3 的 64 位终结函数
+    static long fmix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,109 @@
+package io.whj.seq.collections;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog 基数估计：用 2^precision 个寄存器（每个一个字节）估计不同元素的个数，内存固定，与元素个数无关。
+ * 相对标准误差约为 1.04 / sqrt(2^precision)，默认 precision 14 时约 0.8%，占用 16KB。
+ * <p>
+ * 同一 precision 的两个实例可以 {@link #merge(HyperLogLog)}，结果与把两边的元素加入同一个实例完全相同，
+ * 因此可以在各个分区分别统计再合并。不是线程安全的
+ */
+public final class HyperLogLog {
+    
+    public static final int DEFAULT_PRECISION = 14;
+    
+    private final int precision;
+    private final byte[] registers;
+    
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+    
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("precision must be in [4, 18]: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+    
+    public int precision() {
+        return precision;
+    }
+    
+    public void add(Object o) {
+        addHash(Hashing.hash(o));
+    }
+    
+    // 直接加入一个已经充分打散的 64 位哈希值
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        long rest = hash << precision;
+        int rank = rest == 0 ? 64 - precision + 1 : Long.numberOfLeadingZeros(rest) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+    
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte r : registers) {
+            sum += 1.0 / (1L << r);
+            if (r == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        // 小基数时改用线性计数，误差更小
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+    
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+    
+    // 每个寄存器取较大值，把 other 合并进来并返回自身
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("precision mismatch: " + precision + " vs " + other.precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof HyperLogLog)) return false;
+        return Arrays.equals(registers, ((HyperLogLog) o).registers);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(registers);
+    }
+    
+    @Override
+    public String toString() {
+        return "HyperLogLog(precision=" + precision + ", estimate=" + estimate() + ")";
+    }
+}
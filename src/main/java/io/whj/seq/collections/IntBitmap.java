@@ -0,0 +1,519 @@
+package io.whj.seq.collections;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * int 集合的压缩位图（Roaring 的结构）：按高 16 位分块，每块 65536 个值，
+ * 元素不超过 4096 个的块用有序 char 数组保存（每个元素 2 字节），更多时改用 8KB 的位图。
+ * 与 HashSet&lt;Integer&gt; 相比内存通常小一个数量级以上，查找只是一次二分加一次数组访问。
+ * <p>
+ * 遍历按 int 的大小升序。union/intersect/difference 返回新的集合，不修改参与运算的集合。不是线程安全的
+ */
+public final class IntBitmap {
+    
+    // 数组块最多保存的元素个数，超过时位图更省内存
+    private static final int ARRAY_MAX = 4096;
+    
+    // 块的 key 是高 16 位翻转符号位之后的值，按无符号顺序排列时与 int 的大小顺序一致
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+    
+    public IntBitmap() {
+        this.keys = new char[4];
+        this.containers = new Container[4];
+    }
+    
+    private IntBitmap(char[] keys, Container[] containers, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+    
+    public static IntBitmap of(int... values) {
+        IntBitmap bitmap = new IntBitmap();
+        for (int v : values) {
+            bitmap.add(v);
+        }
+        return bitmap;
+    }
+    
+    private static char key(int v) {
+        return (char) ((v >>> 16) ^ 0x8000);
+    }
+    
+    private static int base(char key) {
+        return (key ^ 0x8000) << 16;
+    }
+    
+    private int find(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+    
+    // 加入一个值，返回 true 表示之前不存在
+    public boolean add(int v) {
+        char key = key(v);
+        int i = find(key);
+        if (i < 0) {
+            i = -i - 1;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, Math.max(size << 1, 4));
+                containers = Arrays.copyOf(containers, keys.length);
+            }
+            System.arraycopy(keys, i, keys, i + 1, size - i);
+            System.arraycopy(containers, i, containers, i + 1, size - i);
+            keys[i] = key;
+            containers[i] = new ArrayContainer();
+            size++;
+        }
+        Container container = containers[i];
+        int before = container.cardinality();
+        containers[i] = container.add((char) v);
+        return containers[i].cardinality() > before;
+    }
+    
+    public boolean contains(int v) {
+        int i = find(key(v));
+        return i >= 0 && containers[i].contains((char) v);
+    }
+    
+    public long cardinality() {
+        long n = 0;
+        for (int i = 0; i < size; i++) {
+            n += containers[i].cardinality();
+        }
+        return n;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public boolean containsAll(IntBitmap other) {
+        for (int j = 0; j < other.size; j++) {
+            int i = find(other.keys[j]);
+            if (i < 0) {
+                return false;
+            }
+            Container container = containers[i];
+            if (!other.containers[j].forEachWhile(0, v -> container.contains((char) v))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // 升序遍历，consumer 返回 false 时停止；完整遍历时返回 true
+    public boolean forEachWhile(IntPredicate consumer) {
+        for (int i = 0; i < size; i++) {
+            if (!containers[i].forEachWhile(base(keys[i]), consumer)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public void forEach(IntConsumer consumer) {
+        forEachWhile(v -> {
+            consumer.accept(v);
+            return true;
+        });
+    }
+    
+    public int[] toArray() {
+        int[] array = new int[Math.toIntExact(cardinality())];
+        int[] n = {0};
+        forEach(v -> array[n[0]++] = v);
+        return array;
+    }
+    
+    public IntBitmap union(IntBitmap other) {
+        char[] k = new char[size + other.size];
+        Container[] c = new Container[size + other.size];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || i < size && keys[i] < other.keys[j]) {
+                k[n] = keys[i];
+                c[n++] = containers[i++].copy();
+            } else if (i == size || other.keys[j] < keys[i]) {
+                k[n] = other.keys[j];
+                c[n++] = other.containers[j++].copy();
+            } else {
+                k[n] = keys[i];
+                c[n++] = containers[i++].or(other.containers[j++]);
+            }
+        }
+        return new IntBitmap(k, c, n);
+    }
+    
+    public IntBitmap intersect(IntBitmap other) {
+        char[] k = new char[Math.min(size, other.size)];
+        Container[] c = new Container[k.length];
+        int n = 0;
+        for (int i = 0, j = 0; i < size && j < other.size; ) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (other.keys[j] < keys[i]) {
+                j++;
+            } else {
+                Container r = containers[i++].and(other.containers[j++]);
+                if (r.cardinality() > 0) {
+                    k[n] = keys[i - 1];
+                    c[n++] = r;
+                }
+            }
+        }
+        return new IntBitmap(k, c, n);
+    }
+    
+    // 在 this 中但不在 other 中的值
+    public IntBitmap difference(IntBitmap other) {
+        char[] k = new char[size];
+        Container[] c = new Container[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            int j = other.find(keys[i]);
+            Container r = j < 0 ? containers[i].copy() : containers[i].andNot(other.containers[j]);
+            if (r.cardinality() > 0) {
+                k[n] = keys[i];
+                c[n++] = r;
+            }
+        }
+        return new IntBitmap(k, c, n);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IntBitmap)) return false;
+        IntBitmap other = (IntBitmap) o;
+        if (size != other.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (keys[i] != other.keys[i] || !containers[i].equals(other.containers[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (int i = 0; i < size; i++) {
+            h = 31 * (31 * h + keys[i]) + containers[i].hashCode();
+        }
+        return h;
+    }
+    
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        forEach(v -> joiner.add(String.valueOf(v)));
+        return joiner.toString();
+    }
+    
+    /**
+     * 一个块内的低 16 位。元素不超过 ARRAY_MAX 个时总是数组块，否则总是位图块，
+     * 因此相同内容的块表示也相同。运算都返回新的块，只有 add 会原地修改
+     */
+    private abstract static class Container {
+        abstract int cardinality();
+        
+        abstract boolean contains(char low);
+        
+        abstract Container add(char low);
+        
+        abstract boolean forEachWhile(int base, IntPredicate consumer);
+        
+        abstract Container copy();
+        
+        abstract Container or(Container other);
+        
+        abstract Container and(Container other);
+        
+        abstract Container andNot(Container other);
+    }
+    
+    private static final class ArrayContainer extends Container {
+        private char[] content;
+        private int size;
+        
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+        
+        ArrayContainer(char[] content, int size) {
+            this.content = content;
+            this.size = size;
+        }
+        
+        @Override
+        int cardinality() {
+            return size;
+        }
+        
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(content, 0, size, low) >= 0;
+        }
+        
+        @Override
+        Container add(char low) {
+            int i = Arrays.binarySearch(content, 0, size, low);
+            if (i >= 0) {
+                return this;
+            }
+            if (size == ARRAY_MAX) {
+                return toBitmap().add(low);
+            }
+            i = -i - 1;
+            if (size == content.length) {
+                content = Arrays.copyOf(content, Math.min(size << 1, ARRAY_MAX));
+            }
+            System.arraycopy(content, i, content, i + 1, size - i);
+            content[i] = low;
+            size++;
+            return this;
+        }
+        
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer(new long[1 << 10], 0);
+            for (int i = 0; i < size; i++) {
+                bitmap.set(content[i]);
+            }
+            return bitmap;
+        }
+        
+        @Override
+        boolean forEachWhile(int base, IntPredicate consumer) {
+            for (int i = 0; i < size; i++) {
+                if (!consumer.test(base | content[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(content, Math.max(size, 1)), size);
+        }
+        
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+            ArrayContainer that = (ArrayContainer) other;
+            char[] merged = new char[size + that.size];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size && j < that.size) {
+                char a = content[i];
+                char b = that.content[j];
+                merged[n++] = a <= b ? a : b;
+                if (a <= b) {
+                    i++;
+                }
+                if (b <= a) {
+                    j++;
+                }
+            }
+            while (i < size) {
+                merged[n++] = content[i++];
+            }
+            while (j < that.size) {
+                merged[n++] = that.content[j++];
+            }
+            ArrayContainer result = new ArrayContainer(merged, n);
+            return n > ARRAY_MAX ? result.toBitmap() : result;
+        }
+        
+        @Override
+        Container and(Container other) {
+            char[] kept = new char[size];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (other.contains(content[i])) {
+                    kept[n++] = content[i];
+                }
+            }
+            return new ArrayContainer(kept, n);
+        }
+        
+        @Override
+        Container andNot(Container other) {
+            char[] kept = new char[size];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (!other.contains(content[i])) {
+                    kept[n++] = content[i];
+                }
+            }
+            return new ArrayContainer(kept, n);
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ArrayContainer)) return false;
+            ArrayContainer other = (ArrayContainer) o;
+            if (size != other.size) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (content[i] != other.content[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        @Override
+        public int hashCode() {
+            int h = 1;
+            for (int i = 0; i < size; i++) {
+                h = 31 * h + content[i];
+            }
+            return h;
+        }
+    }
+    
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+        
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+        
+        // 由位图直接构造，元素较少时转回数组块
+        static Container of(long[] words) {
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            BitmapContainer bitmap = new BitmapContainer(words, cardinality);
+            return cardinality > ARRAY_MAX ? bitmap : bitmap.toArray();
+        }
+        
+        private ArrayContainer toArray() {
+            char[] content = new char[Math.max(cardinality, 1)];
+            int[] n = {0};
+            forEachWhile(0, v -> {
+                content[n[0]++] = (char) v;
+                return true;
+            });
+            return new ArrayContainer(content, cardinality);
+        }
+        
+        void set(char low) {
+            long mask = 1L << low;
+            int i = low >>> 6;
+            if ((words[i] & mask) == 0) {
+                words[i] |= mask;
+                cardinality++;
+            }
+        }
+        
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+        
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+        
+        @Override
+        Container add(char low) {
+            set(low);
+            return this;
+        }
+        
+        @Override
+        boolean forEachWhile(int base, IntPredicate consumer) {
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    if (!consumer.test(base | i << 6 | Long.numberOfTrailingZeros(word))) {
+                        return false;
+                    }
+                    word &= word - 1;
+                }
+            }
+            return true;
+        }
+        
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+        
+        @Override
+        Container or(Container other) {
+            BitmapContainer result = new BitmapContainer(words.clone(), cardinality);
+            if (other instanceof ArrayContainer) {
+                other.forEachWhile(0, v -> {
+                    result.set((char) v);
+                    return true;
+                });
+                return result;
+            }
+            long[] that = ((BitmapContainer) other).words;
+            for (int i = 0; i < words.length; i++) {
+                result.words[i] |= that[i];
+            }
+            return of(result.words);
+        }
+        
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] that = ((BitmapContainer) other).words;
+            long[] result = new long[words.length];
+            for (int i = 0; i < words.length; i++) {
+                result[i] = words[i] & that[i];
+            }
+            return of(result);
+        }
+        
+        @Override
+        Container andNot(Container other) {
+            long[] result = words.clone();
+            if (other instanceof ArrayContainer) {
+                other.forEachWhile(0, v -> {
+                    result[v >>> 6] &= ~(1L << v);
+                    return true;
+                });
+            } else {
+                long[] that = ((BitmapContainer) other).words;
+                for (int i = 0; i < words.length; i++) {
+                    result[i] &= ~that[i];
+                }
+            }
+            return of(result);
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof BitmapContainer && Arrays.equals(words, ((BitmapContainer) o).words);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(words);
+        }
+    }
+}
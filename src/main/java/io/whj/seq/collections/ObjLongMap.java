@@ -0,0 +1,164 @@
+package io.whj.seq.collections;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * key 为对象、value 为 long 的开放寻址哈希表（线性探测），用于 countBy/sumBy 等按 key 累加的操作：
+ * value 直接保存在 long[] 中，累加时不产生装箱对象，每个元素只探测一次。
+ * <p>
+ * 允许 null 作为 key；不支持删除；不是线程安全的
+ *
+ * @param <K> key 类型
+ */
+@SuppressWarnings("unchecked")
+public final class ObjLongMap<K> {
+    
+    // 代替 null key 保存在 keys 中，keys 中的 null 表示空槽
+    private static final Object NULL_KEY = new Object();
+    
+    private Object[] keys;
+    private long[] values;
+    private int size;
+    private int mask;
+    
+    public ObjLongMap() {
+        this(8);
+    }
+    
+    public ObjLongMap(int expectedSize) {
+        // 负载因子不超过 0.5，探测序列足够短
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 4) * 2 - 1) << 1;
+        this.keys = new Object[capacity];
+        this.values = new long[capacity];
+        this.mask = capacity - 1;
+    }
+    
+    // 在 key 对应的值上加 delta，key 不存在时从 0 开始，返回相加之后的值
+    public long addTo(K key, long delta) {
+        Object k = key == null ? NULL_KEY : key;
+        int i = index(k);
+        if (keys[i] == null) {
+            keys[i] = k;
+            values[i] = delta;
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+            return delta;
+        }
+        return values[i] += delta;
+    }
+    
+    public void put(K key, long value) {
+        Object k = key == null ? NULL_KEY : key;
+        int i = index(k);
+        values[i] = value;
+        if (keys[i] == null) {
+            keys[i] = k;
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+        }
+    }
+    
+    // key 不存在时返回 0
+    public long get(K key) {
+        return getOrDefault(key, 0L);
+    }
+    
+    public long getOrDefault(K key, long defaultValue) {
+        int i = index(key == null ? NULL_KEY : key);
+        return keys[i] == null ? defaultValue : values[i];
+    }
+    
+    public boolean containsKey(K key) {
+        return keys[index(key == null ? NULL_KEY : key)] != null;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public void forEach(ObjLongConsumer<K> consumer) {
+        Object[] ks = keys;
+        long[] vs = values;
+        for (int i = 0; i < ks.length; i++) {
+            Object k = ks[i];
+            if (k != null) {
+                consumer.accept(k == NULL_KEY ? null : (K) k, vs[i]);
+            }
+        }
+    }
+    
+    // 把 other 中的值累加到当前表，返回当前表
+    public ObjLongMap<K> merge(ObjLongMap<K> other) {
+        other.forEach(this::addTo);
+        return this;
+    }
+    
+    public Map<K, Long> toMap() {
+        Map<K, Long> map = new HashMap<>(size * 4 / 3 + 1);
+        forEach(map::put);
+        return map;
+    }
+    
+    private int index(Object k) {
+        Object[] ks = keys;
+        int i = mix(k.hashCode()) & mask;
+        while (true) {
+            Object existing = ks[i];
+            if (existing == null || existing == k || existing.equals(k)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+    
+    private void resize() {
+        Object[] oldKeys = keys;
+        long[] oldValues = values;
+        int capacity = oldKeys.length << 1;
+        keys = new Object[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            Object k = oldKeys[j];
+            if (k != null) {
+                int i = mix(k.hashCode()) & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = k;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+    
+    // 打散低位，避免连续的 hashCode（例如 Integer）聚集在一起
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ObjLongMap)) return false;
+        return toMap().equals(((ObjLongMap<?>) o).toMap());
+    }
+    
+    @Override
+    public int hashCode() {
+        return toMap().hashCode();
+    }
+    
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
@@ -9,6 +9,8 @@ import java.util.function.Supplier;
 
 /**
  * 定义 More 接口, 表示容器是否还有值, 传递存在信号，用于无限流的终止控制
+ * <p>
+ * 每个 some 都需要分配一个对象，新的数据源请使用 Seq.generate/iterate/unfold，终止信号由 tryConsume 协议直接传递
  * @param <T>
  */
 
@@ -16,7 +18,6 @@ public class More<T> {
     
     // 不允许其他包的类继承该类
     More() {
-        throw new IllegalStateException("can not new More class");
     }
     
     T get() {
@@ -116,12 +117,8 @@ public class More<T> {
     // Implementation of None
     private static final class None<T> extends More<T> {
         
+        // 私有构造器，只有 NONE 一个实例
         private None() {
-            // Get the caller class name
-            String callerClassName = new Throwable().getStackTrace()[1].getClassName();
-            if (!None.class.getName().equals(callerClassName)) {
-                throw new UnsupportedOperationException("Not allowed to new this class");
-            }
         }
         
         static final None<Object> NONE = new None<>();
@@ -1,7 +1,6 @@
 package io.whj.seq.predicates;
 
-import java.util.function.Predicate;
-
-public interface Predicate4<T1, T2, T3, T4> extends Predicate<T1> {
+@FunctionalInterface
+public interface Predicate4<T1, T2, T3, T4> {
     boolean test(T1 var1, T2 var2, T3 var3, T4 var4);
 }
@@ -1,35 +1,268 @@
 package io.whj.seq.seqs;
 
+import io.whj.seq.collections.ObjLongMap;
 import io.whj.seq.functions.Function2;
+import io.whj.seq.tuples.Tuple;
+import io.whj.seq.tuples.Tuple2;
 
-import java.util.function.BiConsumer;
-import java.util.function.Function;
+import java.util.*;
+import java.util.function.*;
 
 public interface BiSeq<T1, T2> {
     void consume(BiConsumer<T1, T2> consumer);
     
+    // 可以提前终止的消费，约定与 {@link Seq#tryConsume(java.util.function.Predicate)} 相同
+    default boolean tryConsume(BiPredicate<T1, T2> sink) {
+        Stop stop = new Stop();
+        try {
+            consume((t1, t2) -> {
+                if (!sink.test(t1, t2)) {
+                    throw stop;
+                }
+            });
+            return true;
+        } catch (Stop e) {
+            if (e != stop) {
+                throw e;
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * 通过 {@link Map#forEach} 遍历，不会创建 Map.Entry 或者 Tuple2；每次遍历都读取 map 当前的内容。
+     * length/toMap 直接使用 map 的大小
+     */
+    static <K, V> BiSeq<K, V> of(Map<K, V> map) {
+        return new MapBiSeq<>(map);
+    }
+    
+    // 解构元组
+    static <K, V> BiSeq<K, V> of(Seq<Tuple2<K, V>> seq) {
+        return (CancellableBiSeq<K, V>) sink -> seq.tryConsume(t -> sink.test(t._1(), t._2()));
+    }
+    
+    /**
+     * 按 key 归并若干已经按 key 排好序的 BiSeq，key 相等时按输入的先后输出。
+     * <p>
+     * BiSeq 没有拉取式游标，这里先用 toTuples 把每一对包装成 Tuple2，再交给 {@link Seq#mergeSorted(Comparator, Iterable)}，
+     * 因此每个元素都会分配一个 Tuple2，每个输入各自占用一个后台线程，见 {@link Seq#iterator()}；
+     * 输出时再拆回 (k, v)，不会再分配。对分配敏感时请先把各个输入物化成有序的数组
+     */
+    @SafeVarargs
+    static <K, V> BiSeq<K, V> mergeSorted(Comparator<K> keyComparator, BiSeq<K, V>... seqs) {
+        List<Seq<Tuple2<K, V>>> tuples = new ArrayList<>(seqs.length);
+        for (BiSeq<K, V> seq : seqs) {
+            tuples.add(seq.toTuples());
+        }
+        return of(Seq.mergeSorted((a, b) -> keyComparator.compare(a._1(), b._1()), tuples));
+    }
+    
+    // 以第一个 Seq 为主推送，另一个通过 iterator 拉取，任意一方耗尽时结束；
+    // values 不是数组、列表或者它们之上的 map 时，每次遍历占用一个后台线程，见 {@link Seq#iterator()}
+    static <K, V> BiSeq<K, V> zip(Seq<K> keys, Seq<V> values) {
+        return (CancellableBiSeq<K, V>) sink -> {
+            try (SeqIterator<V> iterator = values.iterator()) {
+                boolean[] stopped = {false};
+                keys.tryConsume(k -> {
+                    if (!iterator.hasNext()) {
+                        return false;
+                    }
+                    if (!sink.test(k, iterator.next())) {
+                        stopped[0] = true;
+                        return false;
+                    }
+                    return true;
+                });
+                return !stopped[0];
+            }
+        };
+    }
+    
     default BiSeq<T1, T2> unit(T1 t1, T2 t2) {
-        return c -> c.accept(t1, t2);
+        return (CancellableBiSeq<T1, T2>) sink -> sink.test(t1, t2);
     }
     
     default <E1, E2> BiSeq<E1, E2> flatMap(Function2<T1, T2, Seq<BiSeq<E1, E2>>> mapper) {
-        return c -> this.consume((t1, t2) -> mapper.apply(t1, t2).consume(s -> s.consume(c)));
+        return (CancellableBiSeq<E1, E2>) sink -> this.tryConsume((t1, t2) -> mapper.apply(t1, t2).tryConsume(s -> s.tryConsume(sink)));
     }
     
     default <E1, E2> BiSeq<E1, E2> flatMapIterable(Function2<T1, T2, Iterable<BiSeq<E1, E2>>> mapper) {
-        return c -> this.consume((t1, t2) -> mapper.apply(t1, t2).forEach(s -> s.consume(c)));
+        return (CancellableBiSeq<E1, E2>) sink -> this.tryConsume((t1, t2) -> {
+            for (BiSeq<E1, E2> s : mapper.apply(t1, t2)) {
+                if (!s.tryConsume(sink)) {
+                    return false;
+                }
+            }
+            return true;
+        });
     }
     
     default <E1, E2> BiSeq<E1, E2> map(Function2<T1, T2, BiSeq<E1, E2>> mapper) {
-        return c -> this.consume((t1, t2) -> mapper.apply(t1, t2).consume(c));
+        return (CancellableBiSeq<E1, E2>) sink -> this.tryConsume((t1, t2) -> mapper.apply(t1, t2).tryConsume(sink));
     }
     
+    /**
+     * 名字有误：实际上是同时映射 key 和 value，不做任何过滤
+     *
+     * @deprecated 请使用 {@link #mapKeys(Function)}、{@link #mapValues(Function)}，过滤请使用 {@link #filter(BiPredicate)}
+     */
+    @Deprecated
     default <E1, E2> BiSeq<E1, E2> filter(Function<T1, E1> keyMapper, Function<T2, E2> valueMapper) {
-        return c -> this.consume((t1, t2) -> c.accept(keyMapper.apply(t1), valueMapper.apply(t2)));
+        return (CancellableBiSeq<E1, E2>) sink -> this.tryConsume((t1, t2) -> sink.test(keyMapper.apply(t1), valueMapper.apply(t2)));
+    }
+    
+    default BiSeq<T1, T2> filter(BiPredicate<T1, T2> predicate) {
+        return (CancellableBiSeq<T1, T2>) sink -> this.tryConsume((t1, t2) -> !predicate.test(t1, t2) || sink.test(t1, t2));
+    }
+    
+    default <E> BiSeq<E, T2> mapKeys(Function<T1, E> mapper) {
+        return (CancellableBiSeq<E, T2>) sink -> this.tryConsume((t1, t2) -> sink.test(mapper.apply(t1), t2));
+    }
+    
+    default <E> BiSeq<T1, E> mapValues(Function<T2, E> mapper) {
+        return (CancellableBiSeq<T1, E>) sink -> this.tryConsume((t1, t2) -> sink.test(t1, mapper.apply(t2)));
+    }
+    
+    default BiSeq<T1, T2> peek(BiConsumer<T1, T2> peeker) {
+        return (CancellableBiSeq<T1, T2>) sink -> this.tryConsume((t1, t2) -> {
+            peeker.accept(t1, t2);
+            return sink.test(t1, t2);
+        });
+    }
+    
+    default BiSeq<T1, T2> take(int n) {
+        return (CancellableBiSeq<T1, T2>) sink -> {
+            if (n <= 0) {
+                return true;
+            }
+            int[] i = {0};
+            boolean[] stopped = {false};
+            this.tryConsume((t1, t2) -> {
+                if (!sink.test(t1, t2)) {
+                    stopped[0] = true;
+                    return false;
+                }
+                return ++i[0] < n;
+            });
+            return !stopped[0];
+        };
+    }
+    
+    default BiSeq<T1, T2> drop(int n) {
+        return (CancellableBiSeq<T1, T2>) sink -> {
+            int[] i = {0};
+            return this.tryConsume((t1, t2) -> {
+                if (i[0] < n) {
+                    i[0]++;
+                    return true;
+                }
+                return sink.test(t1, t2);
+            });
+        };
+    }
+    
+    default Seq<T1> keys() {
+        return (CancellableSeq<T1>) sink -> this.tryConsume((t1, t2) -> sink.test(t1));
+    }
+    
+    default Seq<T2> values() {
+        return (CancellableSeq<T2>) sink -> this.tryConsume((t1, t2) -> sink.test(t2));
+    }
+    
+    // 只在需要元组的边界上调用
+    default Seq<Tuple2<T1, T2>> toTuples() {
+        return (CancellableSeq<Tuple2<T1, T2>>) sink -> this.tryConsume((t1, t2) -> sink.test(Tuple.of(t1, t2)));
+    }
+    
+    default int length() {
+        int[] i = {0};
+        consume((t1, t2) -> i[0]++);
+        return i[0];
+    }
+    
+    default boolean isEmpty() {
+        return tryConsume((t1, t2) -> false);
+    }
+    
+    // key 重复时保留靠后的值
+    default Map<T1, T2> toMap() {
+        return toMap(0);
+    }
+    
+    // 按预计的元素个数预先分配容量，避免扩容时反复 rehash
+    default Map<T1, T2> toMap(int expectedSize) {
+        Map<T1, T2> map = new HashMap<>(expectedSize < 3 ? 4 : (int) (expectedSize / 0.75f) + 1);
+        consume(map::put);
+        return map;
+    }
+    
+    // 按 key 分组，组内保持遭遇顺序
+    default Map<T1, List<T2>> groupByKey() {
+        Map<T1, List<T2>> map = new HashMap<>();
+        consume((k, v) -> map.computeIfAbsent(k, key -> new ArrayList<>()).add(v));
+        return map;
+    }
+    
+    // 每个 key 出现的次数，计数保存在开放寻址表中，不装箱
+    default ObjLongMap<T1> countByKey() {
+        ObjLongMap<T1> map = new ObjLongMap<>();
+        consume((k, v) -> map.addTo(k, 1));
+        return map;
+    }
+    
+    default ObjLongMap<T1> sumByKey(ToLongFunction<T2> valueFn) {
+        ObjLongMap<T1> map = new ObjLongMap<>();
+        consume((k, v) -> map.addTo(k, valueFn.applyAsLong(v)));
+        return map;
+    }
+    
+    // 约定与 Seq#reduceByKey 相同
+    default Map<T1, T2> reduceByKey(BinaryOperator<T2> reducer) {
+        Map<T1, T2> map = new HashMap<>();
+        consume((k, v) -> map.compute(k, (key, old) -> old == null ? v : reducer.apply(old, v)));
+        return map;
+    }
+    
+    // 约定与 Seq#aggregateByKey 相同
+    default <A> Map<T1, A> aggregateByKey(Supplier<A> zero, BiFunction<A, T2, A> accumulator) {
+        Map<T1, A> map = new HashMap<>();
+        consume((k, v) -> map.compute(k, (key, acc) -> accumulator.apply(acc == null ? zero.get() : acc, v)));
+        return map;
+    }
+    
+    // key 最小的 k 对，按 key 升序排列，key 相等时保持遭遇顺序
+    @SuppressWarnings("unchecked")
+    default List<Tuple2<T1, T2>> bottomK(int k, Comparator<T1> keyComparator) {
+        BoundedHeap<T1> heap = new BoundedHeap<>(k, keyComparator);
+        if (k > 0) {
+            this.consume(heap::offer);
+        }
+        int n = heap.drain();
+        List<Tuple2<T1, T2>> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            list.add(Tuple.of(heap.element(i), (T2) heap.payload(i)));
+        }
+        return list;
+    }
+    
+    // key 最大的 k 对，按 key 降序排列，key 相等时保持遭遇顺序
+    default List<Tuple2<T1, T2>> topK(int k, Comparator<T1> keyComparator) {
+        return bottomK(k, keyComparator.reversed());
+    }
+    
+    // 每一对写成 (key, value)，与 Tuple2 的 toString 一致，例如 "(1, 2), (2, 3)"；
+    // 需要 "1_a,2_b" 这样的格式时用 toJoinString(delimiter, separator) 指定 key 和 value 之间的分隔符
+    default String toJoinString(String delimiter) {
+        StringJoiner joiner = new StringJoiner(delimiter);
+        consume((t1, t2) -> joiner.add("(" + t1 + ", " + t2 + ")"));
+        return joiner.toString();
     }
     
-    default String toJoinString(String s) {
-        // todo
-        return "";
+    // 每一对写成 key + separator + value
+    default String toJoinString(String delimiter, String separator) {
+        StringJoiner joiner = new StringJoiner(delimiter);
+        consume((t1, t2) -> joiner.add(t1 + separator + t2));
+        return joiner.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,282 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.codecs.Codec;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * {@link Seq#writeTo(Path, Codec, boolean)} 的文件格式：
+ * <pre>
+ * 文件头    int MAGIC, byte VERSION
+ * 数据块    byte flags, int count, int rawLength, int storedLength, byte[storedLength]
+ * 块索引    每块一项：long offset, long first, int count
+ * 文件尾    long indexOffset, int blocks, long total, int MAGIC
+ * </pre>
+ * 块内的记录是 varint 长度加上 codec 编码的字节，跳过记录不需要解码。
+ * 压缩的块用 Deflate（LZ77 + Huffman）压缩，只在压缩后更小时才保存压缩结果。
+ * 块索引记录每块第一条记录的序号，读取时据此直接定位到第 n 条记录，也据此把文件拆给多个线程
+ */
+final class BlockFile {
+    
+    static final int MAGIC = 0x53455131;
+    static final byte VERSION = 1;
+    static final int FILE_HEADER = 5;
+    static final int BLOCK_HEADER = 13;
+    static final int TRAILER = 24;
+    static final byte COMPRESSED = 1;
+    // 块内未压缩字节数达到这个值时写出一块
+    static final int BLOCK_SIZE = 1 << 16;
+    
+    private BlockFile() {
+    }
+    
+    static <T> long write(Seq<T> seq, Path path, Codec<T> codec, boolean compress) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             Writer<T> writer = new Writer<>(new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BLOCK_SIZE)), codec, compress)) {
+            seq.consume(writer::add);
+            writer.finish();
+            return writer.total;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static final class Writer<T> implements Closeable {
+        private final DataOutputStream out;
+        private final Codec<T> codec;
+        private final Deflater deflater;
+        // 当前块的记录，以及单条记录的编码缓冲
+        private final Bytes block = new Bytes();
+        private final Bytes record = new Bytes();
+        private final DataOutputStream recordOut = new DataOutputStream(record);
+        private byte[] compressed = new byte[0];
+        private long position;
+        private int count;
+        private long total;
+        private long[] offsets = new long[16];
+        private long[] firsts = new long[16];
+        private int[] counts = new int[16];
+        private int blocks;
+        
+        Writer(DataOutputStream out, Codec<T> codec, boolean compress) throws IOException {
+            this.out = out;
+            this.codec = codec;
+            this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            position = FILE_HEADER;
+        }
+        
+        void add(T t) {
+            try {
+                record.reset();
+                codec.encode(t, recordOut);
+                recordOut.flush();
+                int length = record.size();
+                while ((length & ~0x7F) != 0) {
+                    block.write((length & 0x7F) | 0x80);
+                    length >>>= 7;
+                }
+                block.write(length);
+                block.write(record.array(), 0, record.size());
+                count++;
+                if (block.size() >= BLOCK_SIZE) {
+                    flushBlock();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        private void flushBlock() throws IOException {
+            if (count == 0) {
+                return;
+            }
+            byte[] payload = block.array();
+            int rawLength = block.size();
+            int storedLength = rawLength;
+            byte flags = 0;
+            if (deflater != null) {
+                if (compressed.length < rawLength) {
+                    compressed = new byte[rawLength];
+                }
+                deflater.reset();
+                deflater.setInput(payload, 0, rawLength);
+                deflater.finish();
+                int n = deflater.deflate(compressed, 0, compressed.length);
+                // 压缩后没有变小时原样保存
+                if (deflater.finished() && n < rawLength) {
+                    payload = compressed;
+                    storedLength = n;
+                    flags = COMPRESSED;
+                }
+            }
+            if (blocks == offsets.length) {
+                offsets = Arrays.copyOf(offsets, blocks << 1);
+                firsts = Arrays.copyOf(firsts, blocks << 1);
+                counts = Arrays.copyOf(counts, blocks << 1);
+            }
+            offsets[blocks] = position;
+            firsts[blocks] = total;
+            counts[blocks] = count;
+            blocks++;
+            out.writeByte(flags);
+            out.writeInt(count);
+            out.writeInt(rawLength);
+            out.writeInt(storedLength);
+            out.write(payload, 0, storedLength);
+            position += BLOCK_HEADER + storedLength;
+            total += count;
+            count = 0;
+            block.reset();
+        }
+        
+        void finish() throws IOException {
+            flushBlock();
+            long indexOffset = position;
+            for (int i = 0; i < blocks; i++) {
+                out.writeLong(offsets[i]);
+                out.writeLong(firsts[i]);
+                out.writeInt(counts[i]);
+            }
+            out.writeLong(indexOffset);
+            out.writeInt(blocks);
+            out.writeLong(total);
+            out.writeInt(MAGIC);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (deflater != null) {
+                deflater.end();
+            }
+            out.close();
+        }
+    }
+    
+    // 可以直接访问内部数组的 ByteArrayOutputStream
+    private static final class Bytes extends ByteArrayOutputStream {
+        byte[] array() {
+            return buf;
+        }
+    }
+    
+    /**
+     * 块索引：offsets[i] 是第 i 块的文件位置，firsts[i] 是它第一条记录的序号，
+     * 第 i 块的结束位置是 offsets[i + 1]（最后一块是索引的位置）
+     */
+    static final class Index {
+        final long[] offsets;
+        final long[] firsts;
+        final int[] counts;
+        final long indexOffset;
+        final long total;
+        
+        private Index(long[] offsets, long[] firsts, int[] counts, long indexOffset, long total) {
+            this.offsets = offsets;
+            this.firsts = firsts;
+            this.counts = counts;
+            this.indexOffset = indexOffset;
+            this.total = total;
+        }
+        
+        static Index read(Path path) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < FILE_HEADER + TRAILER) {
+                    throw new IOException("not a seq block file: " + path);
+                }
+                ByteBuffer header = read(channel, 0, FILE_HEADER);
+                ByteBuffer trailer = read(channel, size - TRAILER, TRAILER);
+                long indexOffset = trailer.getLong();
+                int blocks = trailer.getInt();
+                long total = trailer.getLong();
+                if (header.getInt() != MAGIC || trailer.getInt() != MAGIC) {
+                    throw new IOException("not a seq block file: " + path);
+                }
+                if (header.get() != VERSION) {
+                    throw new IOException("unsupported seq block file version: " + path);
+                }
+                ByteBuffer index = read(channel, indexOffset, blocks * 20);
+                long[] offsets = new long[blocks];
+                long[] firsts = new long[blocks];
+                int[] counts = new int[blocks];
+                for (int i = 0; i < blocks; i++) {
+                    offsets[i] = index.getLong();
+                    firsts[i] = index.getLong();
+                    counts[i] = index.getInt();
+                }
+                return new Index(offsets, firsts, counts, indexOffset, total);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new EOFException();
+                }
+            }
+            buffer.flip();
+            return buffer;
+        }
+        
+        int blocks() {
+            return offsets.length;
+        }
+        
+        long end(int block) {
+            return block + 1 < offsets.length ? offsets[block + 1] : indexOffset;
+        }
+        
+        // 包含第 record 条记录的块
+        int blockOf(long record) {
+            int i = Arrays.binarySearch(firsts, record);
+            return i >= 0 ? i : -i - 2;
+        }
+    }
+    
+    // 从 ByteBuffer 的当前位置读取，供 DataInputStream 包装后交给 codec
+    static final class ByteBufferInput extends InputStream {
+        ByteBuffer buffer;
+        
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+        
+        @Override
+        public long skip(long n) {
+            int k = (int) Math.max(Math.min(n, buffer.remaining()), 0);
+            buffer.position(buffer.position() + k);
+            return k;
+        }
+        
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
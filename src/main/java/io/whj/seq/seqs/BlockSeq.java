@@ -0,0 +1,184 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.codecs.Codec;
+import io.whj.seq.tuples.Tuple;
+import io.whj.seq.tuples.Tuple2;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * 读取 {@link BlockFile} 格式的文件中第 [from, to) 条记录。
+ * <p>
+ * 数据块通过内存映射读取，连续的块合并成一次映射（每次最多 {@link LineSeq#SEGMENT} 字节）。
+ * drop/take/length 只根据块索引计算区间，drop 之后从目标记录所在的块开始读取，块内用长度前缀跳过前面的记录；
+ * 拆分时在块的边界切开，供 parallel() 使用
+ *
+ * @param <T> 元素类型
+ */
+final class BlockSeq<T> implements SplittableSeq<T>, CancellableSeq<T> {
+    
+    private final Path path;
+    private final Codec<T> codec;
+    private final BlockFile.Index index;
+    private final long from;
+    private final long to;
+    
+    private BlockSeq(Path path, Codec<T> codec, BlockFile.Index index, long from, long to) {
+        this.path = path;
+        this.codec = codec;
+        this.index = index;
+        this.from = from;
+        this.to = to;
+    }
+    
+    static <T> BlockSeq<T> open(Path path, Codec<T> codec) {
+        BlockFile.Index index = BlockFile.Index.read(path);
+        return new BlockSeq<>(path, codec, index, 0, index.total);
+    }
+    
+    @Override
+    public boolean tryConsume(Predicate<T> sink) {
+        if (from >= to) {
+            return true;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            BlockFile.ByteBufferInput input = new BlockFile.ByteBufferInput();
+            DataInputStream in = new DataInputStream(input);
+            Inflater inflater = null;
+            byte[] stored = new byte[0];
+            byte[] raw = new byte[0];
+            ByteBuffer region = null;
+            long regionStart = 0;
+            long regionEnd = 0;
+            long record;
+            int b = index.blockOf(from);
+            try {
+                for (record = index.firsts[b]; b < index.blocks() && record < to; b++) {
+                    long start = index.offsets[b];
+                    if (index.end(b) > regionEnd) {
+                        // 从这一块开始重新映射，尽量多包含后面的块
+                        int last = b;
+                        while (last + 1 < index.blocks() && index.end(last + 1) - start <= LineSeq.SEGMENT) {
+                            last++;
+                        }
+                        regionStart = start;
+                        regionEnd = index.end(last);
+                        region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, regionEnd - regionStart);
+                    }
+                    int position = (int) (start - regionStart);
+                    byte flags = region.get(position);
+                    int count = region.getInt(position + 1);
+                    int rawLength = region.getInt(position + 5);
+                    int storedLength = region.getInt(position + 9);
+                    ByteBuffer block = region.duplicate();
+                    block.limit(position + BlockFile.BLOCK_HEADER + storedLength).position(position + BlockFile.BLOCK_HEADER);
+                    if ((flags & BlockFile.COMPRESSED) != 0) {
+                        if (inflater == null) {
+                            inflater = new Inflater();
+                        }
+                        if (stored.length < storedLength) {
+                            stored = new byte[storedLength];
+                        }
+                        if (raw.length < rawLength) {
+                            raw = new byte[rawLength];
+                        }
+                        block.get(stored, 0, storedLength);
+                        inflater.reset();
+                        inflater.setInput(stored, 0, storedLength);
+                        if (inflater.inflate(raw, 0, rawLength) != rawLength) {
+                            throw new IOException("corrupted block at offset " + start + " in " + path);
+                        }
+                        block = ByteBuffer.wrap(raw, 0, rawLength);
+                    }
+                    input.buffer = block;
+                    for (int i = 0; i < count && record < to; i++, record++) {
+                        int length = readLength(block);
+                        int end = block.position() + length;
+                        if (record >= from) {
+                            T t = codec.decode(in);
+                            if (!sink.test(t)) {
+                                return false;
+                            }
+                        }
+                        block.position(end);
+                    }
+                }
+                return true;
+            } finally {
+                if (inflater != null) {
+                    inflater.end();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException(new IOException("corrupted block in " + path, e));
+        }
+    }
+    
+    private static int readLength(ByteBuffer block) {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = block.get();
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return length;
+            }
+        }
+    }
+    
+    private BlockSeq<T> range(long from, long to) {
+        return new BlockSeq<>(path, codec, index, from, to);
+    }
+    
+    @Override
+    public long sizeEstimate() {
+        return to - from;
+    }
+    
+    // 在中点所在块的边界处切开
+    @Override
+    public Tuple2<SplittableSeq<T>, SplittableSeq<T>> split() {
+        long mid = from + (to - from) / 2;
+        int b = index.blockOf(mid);
+        long boundary = index.firsts[b] > from ? index.firsts[b] : b + 1 < index.blocks() ? index.firsts[b + 1] : to;
+        if (boundary <= from || boundary >= to) {
+            return null;
+        }
+        return Tuple.of(range(from, boundary), range(boundary, to));
+    }
+    
+    @Override
+    public int length() {
+        return (int) Math.min(to - from, Integer.MAX_VALUE);
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return from >= to;
+    }
+    
+    @Override
+    public Seq<T> drop(int n) {
+        return n <= 0 ? this : range(Math.min(from + n, to), to);
+    }
+    
+    @Override
+    public Seq<T> take(int n) {
+        return range(from, Math.max(Math.min(from + n, to), from));
+    }
+    
+    @Override
+    public String explain() {
+        return "Blocks[" + from + ", " + to + ") " + path.getFileName();
+    }
+}
@@ -0,0 +1,154 @@
+package io.whj.seq.seqs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 只保留最小的 k 个元素的堆，用于 sort + take(k)、bottomK/topK：O(n log k) 时间、O(k) 空间。
+ * <p>
+ * 比较结果相等时按遭遇顺序决定先后，因此结果与稳定排序后取前 k 个完全一致。
+ * 每个元素可以附带一个不参与比较的 payload（BiSeq 按 key 比较时保存 value），避免为每个元素创建 Tuple。
+ * 并行执行时每个块各自维护一个堆，再用 {@link #merge(BoundedHeap)} 按遭遇顺序合并
+ *
+ * @param <T> 元素类型
+ */
+@SuppressWarnings("unchecked")
+final class BoundedHeap<T> {
+    
+    private final int k;
+    private final Comparator<? super T> comparator;
+    // 以 (comparator, 遭遇顺序) 排列的大顶堆，堆顶是当前保留的元素中最靠后的一个
+    private Object[] elements;
+    private Object[] payloads;
+    private long[] orders;
+    private int size;
+    // 已经 offer 过的元素个数，也是下一个元素的遭遇顺序
+    private long counter;
+    
+    BoundedHeap(int k, Comparator<? super T> comparator) {
+        this.k = Math.max(k, 0);
+        this.comparator = comparator;
+        int capacity = Math.min(this.k, 16);
+        this.elements = new Object[capacity];
+        this.payloads = new Object[capacity];
+        this.orders = new long[capacity];
+    }
+    
+    void offer(T t) {
+        offer(t, null, counter++);
+    }
+    
+    void offer(T t, Object payload) {
+        offer(t, payload, counter++);
+    }
+    
+    private void offer(T t, Object payload, long order) {
+        if (size < k) {
+            if (size == elements.length) {
+                int capacity = (int) Math.min((long) size << 1, k);
+                elements = Arrays.copyOf(elements, capacity);
+                payloads = Arrays.copyOf(payloads, capacity);
+                orders = Arrays.copyOf(orders, capacity);
+            }
+            elements[size] = t;
+            payloads[size] = payload;
+            orders[size] = order;
+            siftUp(size++);
+        } else if (k > 0 && compare(t, order, 0) < 0) {
+            elements[0] = t;
+            payloads[0] = payload;
+            orders[0] = order;
+            siftDown(0, size);
+        }
+    }
+    
+    // other 中的元素都排在当前堆见过的元素之后，合并后 other 不能再使用
+    BoundedHeap<T> merge(BoundedHeap<T> other) {
+        long offset = counter;
+        for (int i = 0; i < other.size; i++) {
+            offer((T) other.elements[i], other.payloads[i], offset + other.orders[i]);
+        }
+        counter = offset + other.counter;
+        return this;
+    }
+    
+    /**
+     * 按升序原地排列保留的元素并返回个数，之后用 {@link #element(int)}、{@link #payload(int)} 读取，不能再 offer
+     */
+    int drain() {
+        for (int n = size; n > 1; ) {
+            swap(0, --n);
+            siftDown(0, n);
+        }
+        return size;
+    }
+    
+    // drain 之后按升序返回保留的元素
+    List<T> toList() {
+        int n = drain();
+        List<T> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            list.add((T) elements[i]);
+        }
+        return list;
+    }
+    
+    T element(int i) {
+        return (T) elements[i];
+    }
+    
+    Object payload(int i) {
+        return payloads[i];
+    }
+    
+    private int compare(T t, long order, int j) {
+        int c = comparator.compare(t, (T) elements[j]);
+        return c != 0 ? c : Long.compare(order, orders[j]);
+    }
+    
+    private int compare(int i, int j) {
+        return compare((T) elements[i], orders[i], j);
+    }
+    
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (compare(i, parent) <= 0) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+    
+    private void siftDown(int i, int n) {
+        while (true) {
+            int child = (i << 1) + 1;
+            if (child >= n) {
+                return;
+            }
+            if (child + 1 < n && compare(child + 1, child) > 0) {
+                child++;
+            }
+            if (compare(i, child) >= 0) {
+                return;
+            }
+            swap(i, child);
+            i = child;
+        }
+    }
+    
+    private void swap(int i, int j) {
+        Object e = elements[i];
+        elements[i] = elements[j];
+        elements[j] = e;
+        Object p = payloads[i];
+        payloads[i] = payloads[j];
+        payloads[j] = p;
+        long o = orders[i];
+        orders[i] = orders[j];
+        orders[j] = o;
+    }
+}
@@ -0,0 +1,238 @@
+package io.whj.seq.seqs;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * {@link Seq#cache()} 的实现：第一次遍历时把元素记录到分块缓冲区，之后的遍历直接回放。
+ * <p>
+ * 上游在调用线程中执行：需要缓冲区之外元素的遍历成为唯一的填充者，一边记录一边把元素交给自己的下游，
+ * 下游停止时上游也随之停止，不会多计算元素。被提前终止之后，再次需要更多元素时
+ * 用 {@code drop(size)} 重新执行上游并跳过已经记录的前缀，数组、RandomAccess 列表和 map 可以直接跳过，
+ * 其余上游会把前缀重新计算一遍。
+ * <p>
+ * 只能遍历一次的数据源（{@link Seq#of(java.util.Iterator)}，以及在它之上的 PlanSeq 节点）不能用 drop 重新执行：
+ * 填充者改为从同一个上游游标（{@link Seq#iterator()}）继续拉取，游标在上游耗尽时关闭；
+ * 迭代器和 map 在调用线程中拉取，其余节点的游标会在后台线程预读。这种上游被放弃缓存之后无法再次遍历，
+ * 同一个线程在填充过程中再次遍历也无法继续，两种情况都抛出 {@link IllegalStateException}，不会返回错位的元素。
+ * 用 lambda 直接包装的一次性数据源无法识别，仍然按可以重新执行处理
+ * <p>
+ * 多个线程可以同时遍历：回放不加锁，其余线程需要更多元素时等待填充者发布。
+ * 记录的总权重超过上限，或者上游抛出异常时放弃缓存，之后每次遍历都重新执行上游
+ *
+ * @param <T> 元素类型
+ */
+@SuppressWarnings("unchecked")
+final class CachedSeq<T> extends PlanSeq<T> {
+    
+    private static final int CHUNK_SHIFT = 8;
+    private static final int CHUNK = 1 << CHUNK_SHIFT;
+    
+    private final long maxWeight;
+    private final ToLongFunction<T> weigher;
+    // 上游只能遍历一次
+    private final boolean once;
+    private final Object lock = new Object();
+    
+    // chunks 为 null 表示已经放弃缓存；写入元素之后再发布 size，读取时先读 size 再读 chunks
+    private volatile Object[][] chunks = new Object[4][];
+    private volatile int size;
+    private volatile boolean complete;
+    // 正在执行上游的线程，修改时持有 lock
+    private volatile Thread filler;
+    private volatile int waiters;
+    // 只由填充者访问
+    private long weight;
+    private SeqIterator<T> cursor;
+    
+    CachedSeq(Seq<T> upstream, long maxWeight, ToLongFunction<T> weigher) {
+        super(upstream);
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.once = isOnce(upstream);
+    }
+    
+    // 沿 PlanSeq 节点找到数据源；CachedSeq 本身可以反复遍历
+    private static boolean isOnce(Seq<?> seq) {
+        while (seq instanceof PlanSeq && !(seq instanceof CachedSeq)) {
+            seq = ((PlanSeq<?>) seq).upstream;
+        }
+        return seq instanceof IteratorSeq;
+    }
+    
+    private Seq<T> source() {
+        return (Seq<T>) upstream;
+    }
+    
+    @Override
+    String label() {
+        Object[][] c = chunks;
+        return c == null ? "Cache(disabled)" : "Cache(size=" + size + (complete ? ", complete)" : ")");
+    }
+    
+    @Override
+    public boolean tryConsume(Predicate<T> sink) {
+        int i = 0;
+        while (true) {
+            int n = size;
+            Object[][] c = chunks;
+            if (c == null) {
+                if (once) {
+                    throw new IllegalStateException("cache of a one-shot source was abandoned, it cannot be traversed again");
+                }
+                return source().drop(i).tryConsume(sink);
+            }
+            for (; i < n; i++) {
+                if (!sink.test((T) c[i >>> CHUNK_SHIFT][i & (CHUNK - 1)])) {
+                    return false;
+                }
+            }
+            if (complete && i == size) {
+                return true;
+            }
+            // 下游在填充过程中再次遍历同一个缓存时不能等待自己
+            if (filler == Thread.currentThread()) {
+                if (once) {
+                    throw new IllegalStateException("one-shot source is being cached by this thread");
+                }
+                return source().drop(i).tryConsume(sink);
+            }
+            if (acquire(i)) {
+                return once ? pull(sink) : fill(i, sink);
+            }
+        }
+    }
+    
+    @Override
+    public int length() {
+        if (complete) {
+            return size;
+        }
+        return super.length();
+    }
+    
+    @Override
+    public Seq<T> cache() {
+        return weigher == null ? this : super.cache();
+    }
+    
+    // 缓冲区中没有第 from 个元素并且没有其他填充者时成为填充者，否则等到有新元素发布
+    private boolean acquire(int from) {
+        synchronized (lock) {
+            waiters++;
+            try {
+                while (size <= from && !complete && chunks != null) {
+                    if (filler == null) {
+                        filler = Thread.currentThread();
+                        return true;
+                    }
+                    lock.wait();
+                }
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while waiting for cache", e);
+            } finally {
+                waiters--;
+            }
+        }
+    }
+    
+    // 从第 from 个元素开始执行上游，记录每个元素之后再交给 sink
+    private boolean fill(int from, Predicate<T> sink) {
+        boolean[] inSink = {false};
+        boolean[] stopped = {false};
+        boolean completed = false;
+        try {
+            Seq<T> rest = from == 0 ? source() : source().drop(from);
+            completed = rest.tryConsume(t -> {
+                if (chunks != null) {
+                    record(t);
+                }
+                inSink[0] = true;
+                boolean more = sink.test(t);
+                inSink[0] = false;
+                stopped[0] = !more;
+                return more;
+            });
+            return !stopped[0];
+        } catch (RuntimeException | Error e) {
+            // 下游抛出的异常不影响已经记录的元素
+            if (!inSink[0]) {
+                chunks = null;
+            }
+            throw e;
+        } finally {
+            release(completed);
+        }
+    }
+    
+    // 一次性上游：从上次停下的位置继续拉取，游标位置始终等于 size
+    private boolean pull(Predicate<T> sink) {
+        boolean inSink = false;
+        boolean completed = false;
+        try {
+            if (cursor == null) {
+                cursor = source().iterator();
+            }
+            while (cursor.hasNext()) {
+                T t = cursor.next();
+                if (chunks != null) {
+                    record(t);
+                }
+                inSink = true;
+                if (!sink.test(t)) {
+                    return false;
+                }
+                inSink = false;
+            }
+            completed = true;
+            return true;
+        } catch (RuntimeException | Error e) {
+            if (!inSink) {
+                chunks = null;
+            }
+            throw e;
+        } finally {
+            if ((completed || chunks == null) && cursor != null) {
+                cursor.close();
+            }
+            release(completed);
+        }
+    }
+    
+    private void release(boolean completed) {
+        synchronized (lock) {
+            if (completed && chunks != null) {
+                complete = true;
+            }
+            filler = null;
+            lock.notifyAll();
+        }
+    }
+    
+    private void record(T t) {
+        if (weigher != null && (weight += weigher.applyAsLong(t)) > maxWeight) {
+            chunks = null;
+        } else {
+            int n = size;
+            Object[][] c = chunks;
+            int chunk = n >>> CHUNK_SHIFT;
+            if (chunk == c.length) {
+                c = Arrays.copyOf(c, chunk << 1);
+            }
+            if (c[chunk] == null) {
+                c[chunk] = new Object[CHUNK];
+            }
+            c[chunk][n & (CHUNK - 1)] = t;
+            chunks = c;
+            size = n + 1;
+        }
+        if (waiters > 0) {
+            synchronized (lock) {
+                lock.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package io.whj.seq.seqs;
+
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+
+/**
+ * BiSeq 版本的 {@link CancellableSeq}
+ */
+@FunctionalInterface
+interface CancellableBiSeq<T1, T2> extends BiSeq<T1, T2> {
+    
+    @Override
+    boolean tryConsume(BiPredicate<T1, T2> sink);
+    
+    @Override
+    default void consume(BiConsumer<T1, T2> consumer) {
+        tryConsume((t1, t2) -> {
+            consumer.accept(t1, t2);
+            return true;
+        });
+    }
+}
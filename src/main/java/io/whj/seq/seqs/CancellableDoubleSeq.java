@@ -0,0 +1,22 @@
+package io.whj.seq.seqs;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+
+/**
+ * DoubleSeq 版本的 {@link CancellableSeq}
+ */
+@FunctionalInterface
+interface CancellableDoubleSeq extends DoubleSeq {
+    
+    @Override
+    boolean tryConsume(DoublePredicate sink);
+    
+    @Override
+    default void consume(DoubleConsumer consumer) {
+        tryConsume(t -> {
+            consumer.accept(t);
+            return true;
+        });
+    }
+}
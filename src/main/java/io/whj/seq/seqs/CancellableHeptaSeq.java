@@ -0,0 +1,22 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.consumers.Consumer7;
+import io.whj.seq.predicates.Predicate7;
+
+/**
+ * HeptaSeq 版本的 {@link CancellableSeq}
+ */
+@FunctionalInterface
+interface CancellableHeptaSeq<T1, T2, T3, T4, T5, T6, T7> extends HeptaSeq<T1, T2, T3, T4, T5, T6, T7> {
+    
+    @Override
+    boolean tryConsume(Predicate7<T1, T2, T3, T4, T5, T6, T7> sink);
+    
+    @Override
+    default void consume(Consumer7<T1, T2, T3, T4, T5, T6, T7> consumer) {
+        tryConsume((t1, t2, t3, t4, t5, t6, t7) -> {
+            consumer.accept(t1, t2, t3, t4, t5, t6, t7);
+            return true;
+        });
+    }
+}
@@ -0,0 +1,22 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.consumers.Consumer6;
+import io.whj.seq.predicates.Predicate6;
+
+/**
+ * HexaSeq 版本的 {@link CancellableSeq}
+ */
+@FunctionalInterface
+interface CancellableHexaSeq<T1, T2, T3, T4, T5, T6> extends HexaSeq<T1, T2, T3, T4, T5, T6> {
+    
+    @Override
+    boolean tryConsume(Predicate6<T1, T2, T3, T4, T5, T6> sink);
+    
+    @Override
+    default void consume(Consumer6<T1, T2, T3, T4, T5, T6> consumer) {
+        tryConsume((t1, t2, t3, t4, t5, t6) -> {
+            consumer.accept(t1, t2, t3, t4, t5, t6);
+            return true;
+        });
+    }
+}
@@ -0,0 +1,22 @@
+package io.whj.seq.seqs;
+
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * IntSeq 版本的 {@link CancellableSeq}
+ */
+@FunctionalInterface
+interface CancellableIntSeq extends IntSeq {
+    
+    @Override
+    boolean tryConsume(IntPredicate sink);
+    
+    @Override
+    default void consume(IntConsumer consumer) {
+        tryConsume(t -> {
+            consumer.accept(t);
+            return true;
+        });
+    }
+}
@@ -0,0 +1,22 @@
+package io.whj.seq.seqs;
+
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * LongSeq 版本的 {@link CancellableSeq}
+ */
+@FunctionalInterface
+interface CancellableLongSeq extends LongSeq {
+    
+    @Override
+    boolean tryConsume(LongPredicate sink);
+    
+    @Override
+    default void consume(LongConsumer consumer) {
+        tryConsume(t -> {
+            consumer.accept(t);
+            return true;
+        });
+    }
+}
@@ -0,0 +1,22 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.consumers.Consumer8;
+import io.whj.seq.predicates.Predicate8;
+
+/**
+ * OctSeq 版本的 {@link CancellableSeq}
+ */
+@FunctionalInterface
+interface CancellableOctSeq<T1, T2, T3, T4, T5, T6, T7, T8> extends OctSeq<T1, T2, T3, T4, T5, T6, T7, T8> {
+    
+    @Override
+    boolean tryConsume(Predicate8<T1, T2, T3, T4, T5, T6, T7, T8> sink);
+    
+    @Override
+    default void consume(Consumer8<T1, T2, T3, T4, T5, T6, T7, T8> consumer) {
+        tryConsume((t1, t2, t3, t4, t5, t6, t7, t8) -> {
+            consumer.accept(t1, t2, t3, t4, t5, t6, t7, t8);
+            return true;
+        });
+    }
+}
@@ -0,0 +1,22 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.consumers.Consumer5;
+import io.whj.seq.predicates.Predicate5;
+
+/**
+ * PentaSeq 版本的 {@link CancellableSeq}
+ */
+@FunctionalInterface
+interface CancellablePentaSeq<T1, T2, T3, T4, T5> extends PentaSeq<T1, T2, T3, T4, T5> {
+    
+    @Override
+    boolean tryConsume(Predicate5<T1, T2, T3, T4, T5> sink);
+    
+    @Override
+    default void consume(Consumer5<T1, T2, T3, T4, T5> consumer) {
+        tryConsume((t1, t2, t3, t4, t5) -> {
+            consumer.accept(t1, t2, t3, t4, t5);
+            return true;
+        });
+    }
+}
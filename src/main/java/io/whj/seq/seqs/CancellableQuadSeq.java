@@ -0,0 +1,22 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.consumers.Consumer4;
+import io.whj.seq.predicates.Predicate4;
+
+/**
+ * QuadSeq 版本的 {@link CancellableSeq}
+ */
+@FunctionalInterface
+interface CancellableQuadSeq<T1, T2, T3, T4> extends QuadSeq<T1, T2, T3, T4> {
+    
+    @Override
+    boolean tryConsume(Predicate4<T1, T2, T3, T4> sink);
+    
+    @Override
+    default void consume(Consumer4<T1, T2, T3, T4> consumer) {
+        tryConsume((t1, t2, t3, t4) -> {
+            consumer.accept(t1, t2, t3, t4);
+            return true;
+        });
+    }
+}
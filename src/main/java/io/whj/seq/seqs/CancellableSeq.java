@@ -0,0 +1,25 @@
+package io.whj.seq.seqs;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 以 tryConsume 为唯一抽象方法的 Seq，内置数据源和操作都基于它实现：
+ * 提前终止只是 sink 返回 false，每个元素只多一次分支判断，不需要抛异常展开调用栈
+ *
+ * @param <T> 元素类型
+ */
+@FunctionalInterface
+interface CancellableSeq<T> extends Seq<T> {
+    
+    @Override
+    boolean tryConsume(Predicate<T> sink);
+    
+    @Override
+    default void consume(Consumer<T> consumer) {
+        tryConsume(t -> {
+            consumer.accept(t);
+            return true;
+        });
+    }
+}
@@ -0,0 +1,22 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.consumers.Consumer3;
+import io.whj.seq.predicates.Predicate3;
+
+/**
+ * TriSeq 版本的 {@link CancellableSeq}
+ */
+@FunctionalInterface
+interface CancellableTriSeq<T1, T2, T3> extends TriSeq<T1, T2, T3> {
+    
+    @Override
+    boolean tryConsume(Predicate3<T1, T2, T3> sink);
+    
+    @Override
+    default void consume(Consumer3<T1, T2, T3> consumer) {
+        tryConsume((t1, t2, t3) -> {
+            consumer.accept(t1, t2, t3);
+            return true;
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package io.whj.seq.seqs;
+
+/**
+ * 分隔符文件中的一列：列的下标（从 0 开始）和解析方式。
+ * 没有被引用的列只会被跳过，不会被解码；数值列直接从字节解析，不经过 String。空字段解析为 null
+ *
+ * @param <T> 解析结果的类型
+ * @see Delimited
+ */
+public final class Column<T> {
+    
+    enum Kind {
+        INT, LONG, DOUBLE, STRING
+    }
+    
+    final int index;
+    final Kind kind;
+    
+    private Column(int index, Kind kind) {
+        if (index < 0) {
+            throw new IllegalArgumentException("index must not be negative: " + index);
+        }
+        this.index = index;
+        this.kind = kind;
+    }
+    
+    public static Column<Integer> intAt(int index) {
+        return new Column<>(index, Kind.INT);
+    }
+    
+    public static Column<Long> longAt(int index) {
+        return new Column<>(index, Kind.LONG);
+    }
+    
+    public static Column<Double> doubleAt(int index) {
+        return new Column<>(index, Kind.DOUBLE);
+    }
+    
+    // 用 Delimited 的字符集解码，去掉外层引号并把 "" 还原成 "
+    public static Column<String> stringAt(int index) {
+        return new Column<>(index, Kind.STRING);
+    }
+    
+    public int index() {
+        return index;
+    }
+    
+    @Override
+    public String toString() {
+        return kind.name().toLowerCase() + "@" + index;
+    }
+}
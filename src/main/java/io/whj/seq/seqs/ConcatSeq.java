@@ -0,0 +1,111 @@
+package io.whj.seq.seqs;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * 扁平的拼接节点：各个片段保存在一个数组里，遍历时按顺序逐个推送，调用深度与片段个数无关。
+ * <p>
+ * 连续的 append 不再层层包装闭包：在最新的节点上 append 时，如果数组还有空位，
+ * 就在锁内写入下一个槽位并创建只看到前 size + 1 个片段的新节点，均摊 O(1)；
+ * 数组已满或者在旧节点上 append 时复制出新的数组。数组中前 size 个槽位在节点创建之后不再修改，
+ * 通过 final 字段发布，遍历不需要加锁。嵌套的 ConcatSeq 会被展开
+ */
+final class ConcatSeq<T> implements CancellableSeq<T> {
+    
+    // 共享同一个数组的节点之间，记录已经被占用的槽位个数
+    private static final class Owner {
+        int claimed;
+        
+        Owner(int claimed) {
+            this.claimed = claimed;
+        }
+    }
+    
+    private final Seq<?>[] array;
+    private final int size;
+    private final Owner owner;
+    
+    private ConcatSeq(Seq<?>[] array, int size, Owner owner) {
+        this.array = array;
+        this.size = size;
+        this.owner = owner;
+    }
+    
+    static <T> ConcatSeq<T> of(Iterable<? extends Seq<T>> seqs) {
+        Seq<?>[] array = new Seq<?>[8];
+        int size = 0;
+        for (Seq<T> seq : seqs) {
+            array = add(array, size, seq);
+            size += count(seq);
+        }
+        return new ConcatSeq<>(array, size, new Owner(size));
+    }
+    
+    private static int count(Seq<?> seq) {
+        return seq instanceof ConcatSeq ? ((ConcatSeq<?>) seq).size : 1;
+    }
+    
+    // 把 seq 的片段写到 array[size] 开始的位置，空间不够时返回扩容之后的新数组
+    private static Seq<?>[] add(Seq<?>[] array, int size, Seq<?> seq) {
+        int n = count(seq);
+        if (size + n > array.length) {
+            array = Arrays.copyOf(array, Math.max(array.length << 1, size + n));
+        }
+        if (seq instanceof ConcatSeq) {
+            System.arraycopy(((ConcatSeq<?>) seq).array, 0, array, size, n);
+        } else {
+            array[size] = seq;
+        }
+        return array;
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean tryConsume(Predicate<T> sink) {
+        for (int i = 0; i < size; i++) {
+            if (!((Seq<T>) array[i]).tryConsume(sink)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public Seq<T> append(Seq<T> other) {
+        int n = count(other);
+        synchronized (owner) {
+            if (owner.claimed == size && size + n <= array.length) {
+                add(array, size, other);
+                owner.claimed += n;
+                return new ConcatSeq<>(array, size + n, owner);
+            }
+        }
+        Seq<?>[] copy = add(Arrays.copyOf(array, Math.max(array.length << 1, size + n)), size, other);
+        return new ConcatSeq<>(copy, size + n, new Owner(size + n));
+    }
+    
+    @Override
+    public int length() {
+        int length = 0;
+        for (int i = 0; i < size; i++) {
+            length += array[i].length();
+        }
+        return length;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        for (int i = 0; i < size; i++) {
+            if (!array[i].isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public String explain() {
+        return "Concat(parts=" + size + ")";
+    }
+}
@@ -0,0 +1,215 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.consumers.Consumer2;
+import io.whj.seq.consumers.Consumer3;
+import io.whj.seq.consumers.Consumer4;
+import io.whj.seq.consumers.Consumer5;
+import io.whj.seq.consumers.Consumer6;
+import io.whj.seq.consumers.Consumer7;
+import io.whj.seq.consumers.Consumer8;
+import io.whj.seq.tuples.Tuple;
+import io.whj.seq.tuples.Tuple2;
+import io.whj.seq.tuples.Tuple3;
+import io.whj.seq.tuples.Tuple4;
+import io.whj.seq.tuples.Tuple5;
+import io.whj.seq.tuples.Tuple6;
+import io.whj.seq.tuples.Tuple7;
+import io.whj.seq.tuples.Tuple8;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 按列模式读取分隔符文件（CSV、TSV 等），直接产生 TupleN 或者调用 ConsumerN。
+ * <pre>
+ * Delimited.of(path).skipHeader()
+ *         .tuples(Column.stringAt(0), Column.intAt(2), Column.doubleAt(5))
+ *         .filter(t -&gt; t.second() &gt; 18)
+ *         .toList();
+ * </pre>
+ * 文件通过 {@link Seq#lines(Path, Charset)} 映射读取，每一行只扫描到需要的最后一列为止，
+ * 数值列直接从映射的字节解析，不创建中间 String，也不做 split；没有引用的列被跳过、不会被解码。
+ * <p>
+ * 字段可以用双引号包裹，引号内的分隔符不切分字段、"" 表示一个引号，但不支持引号内换行。
+ * 空行被忽略，缺少的字段和空的数值字段解析为 null。返回的 Seq 可以被 parallel() 按行拆分
+ */
+public final class Delimited {
+    
+    private final Path path;
+    private final Charset charset;
+    private final byte delimiter;
+    private final boolean header;
+    
+    private Delimited(Path path, Charset charset, byte delimiter, boolean header) {
+        this.path = Objects.requireNonNull(path, "path");
+        this.charset = Objects.requireNonNull(charset, "charset");
+        this.delimiter = delimiter;
+        this.header = header;
+    }
+    
+    // 逗号分隔，UTF-8，没有表头
+    public static Delimited of(Path path) {
+        return new Delimited(path, StandardCharsets.UTF_8, (byte) ',', false);
+    }
+    
+    public Delimited delimiter(char delimiter) {
+        if (delimiter >= 0x80 || delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("unsupported delimiter: " + delimiter);
+        }
+        return new Delimited(path, charset, (byte) delimiter, header);
+    }
+    
+    public Delimited charset(Charset charset) {
+        return new Delimited(path, charset, delimiter, header);
+    }
+    
+    // 跳过第一行
+    public Delimited skipHeader() {
+        return new Delimited(path, charset, delimiter, true);
+    }
+    
+    public <A> Seq<A> values(Column<A> a) {
+        return records(p -> p.get(0), a);
+    }
+    
+    public <A, B> Seq<Tuple2<A, B>> tuples(Column<A> a, Column<B> b) {
+        return records(p -> Tuple.of(p.get(0), p.get(1)), a, b);
+    }
+    
+    public <A, B, C> Seq<Tuple3<A, B, C>> tuples(Column<A> a, Column<B> b, Column<C> c) {
+        return records(p -> Tuple.of(p.get(0), p.get(1), p.get(2)), a, b, c);
+    }
+    
+    public <A, B, C, D> Seq<Tuple4<A, B, C, D>> tuples(Column<A> a, Column<B> b, Column<C> c, Column<D> d) {
+        return records(p -> Tuple.of(p.get(0), p.get(1), p.get(2), p.get(3)), a, b, c, d);
+    }
+    
+    public <A, B, C, D, E> Seq<Tuple5<A, B, C, D, E>> tuples(Column<A> a, Column<B> b, Column<C> c, Column<D> d, Column<E> e) {
+        return records(p -> Tuple.of(p.get(0), p.get(1), p.get(2), p.get(3), p.get(4)), a, b, c, d, e);
+    }
+    
+    public <A, B, C, D, E, F> Seq<Tuple6<A, B, C, D, E, F>> tuples(Column<A> a, Column<B> b, Column<C> c, Column<D> d, Column<E> e, Column<F> f) {
+        return records(p -> Tuple.of(p.get(0), p.get(1), p.get(2), p.get(3), p.get(4), p.get(5)), a, b, c, d, e, f);
+    }
+    
+    public <A, B, C, D, E, F, G> Seq<Tuple7<A, B, C, D, E, F, G>> tuples(Column<A> a, Column<B> b, Column<C> c, Column<D> d, Column<E> e, Column<F> f, Column<G> g) {
+        return records(p -> Tuple.of(p.get(0), p.get(1), p.get(2), p.get(3), p.get(4), p.get(5), p.get(6)), a, b, c, d, e, f, g);
+    }
+    
+    public <A, B, C, D, E, F, G, H> Seq<Tuple8<A, B, C, D, E, F, G, H>> tuples(Column<A> a, Column<B> b, Column<C> c, Column<D> d, Column<E> e, Column<F> f, Column<G> g, Column<H> h) {
+        return records(p -> Tuple.of(p.get(0), p.get(1), p.get(2), p.get(3), p.get(4), p.get(5), p.get(6), p.get(7)), a, b, c, d, e, f, g, h);
+    }
+    
+    public <A, B> void consume(Column<A> a, Column<B> b, Consumer2<A, B> consumer) {
+        records(p -> {
+            consumer.accept(p.get(0), p.get(1));
+            return null;
+        }, a, b).consume(r -> {
+        });
+    }
+    
+    public <A, B, C> void consume(Column<A> a, Column<B> b, Column<C> c, Consumer3<A, B, C> consumer) {
+        records(p -> {
+            consumer.accept(p.get(0), p.get(1), p.get(2));
+            return null;
+        }, a, b, c).consume(r -> {
+        });
+    }
+    
+    public <A, B, C, D> void consume(Column<A> a, Column<B> b, Column<C> c, Column<D> d, Consumer4<A, B, C, D> consumer) {
+        records(p -> {
+            consumer.accept(p.get(0), p.get(1), p.get(2), p.get(3));
+            return null;
+        }, a, b, c, d).consume(r -> {
+        });
+    }
+    
+    public <A, B, C, D, E> void consume(Column<A> a, Column<B> b, Column<C> c, Column<D> d, Column<E> e, Consumer5<A, B, C, D, E> consumer) {
+        records(p -> {
+            consumer.accept(p.get(0), p.get(1), p.get(2), p.get(3), p.get(4));
+            return null;
+        }, a, b, c, d, e).consume(r -> {
+        });
+    }
+    
+    public <A, B, C, D, E, F> void consume(Column<A> a, Column<B> b, Column<C> c, Column<D> d, Column<E> e, Column<F> f, Consumer6<A, B, C, D, E, F> consumer) {
+        records(p -> {
+            consumer.accept(p.get(0), p.get(1), p.get(2), p.get(3), p.get(4), p.get(5));
+            return null;
+        }, a, b, c, d, e, f).consume(r -> {
+        });
+    }
+    
+    public <A, B, C, D, E, F, G> void consume(Column<A> a, Column<B> b, Column<C> c, Column<D> d, Column<E> e, Column<F> f, Column<G> g, Consumer7<A, B, C, D, E, F, G> consumer) {
+        records(p -> {
+            consumer.accept(p.get(0), p.get(1), p.get(2), p.get(3), p.get(4), p.get(5), p.get(6));
+            return null;
+        }, a, b, c, d, e, f, g).consume(r -> {
+        });
+    }
+    
+    public <A, B, C, D, E, F, G, H> void consume(Column<A> a, Column<B> b, Column<C> c, Column<D> d, Column<E> e, Column<F> f, Column<G> g, Column<H> h, Consumer8<A, B, C, D, E, F, G, H> consumer) {
+        records(p -> {
+            consumer.accept(p.get(0), p.get(1), p.get(2), p.get(3), p.get(4), p.get(5), p.get(6), p.get(7));
+            return null;
+        }, a, b, c, d, e, f, g, h).consume(r -> {
+        });
+    }
+    
+    private <R> Seq<R> records(Function<RecordParser, R> row, Column<?>... columns) {
+        for (Column<?> column : columns) {
+            Objects.requireNonNull(column, "column");
+        }
+        return new RecordSeq<>(LineSeq.of(path, charset), header, row, columns);
+    }
+    
+    private final class RecordSeq<R> implements SplittableSeq<R>, CancellableSeq<R> {
+        private final SplittableSeq<Line> lines;
+        // 只有包含文件开头的那一块需要跳过表头
+        private final boolean header;
+        private final Function<RecordParser, R> row;
+        private final Column<?>[] columns;
+        
+        RecordSeq(SplittableSeq<Line> lines, boolean header, Function<RecordParser, R> row, Column<?>[] columns) {
+            this.lines = lines;
+            this.header = header;
+            this.row = row;
+            this.columns = columns;
+        }
+        
+        @Override
+        public boolean tryConsume(Predicate<R> sink) {
+            RecordParser parser = new RecordParser(columns, delimiter, charset);
+            boolean[] skip = {header};
+            return lines.tryConsume(line -> {
+                if (skip[0]) {
+                    skip[0] = false;
+                    return true;
+                }
+                if (line.byteLength() == 0) {
+                    return true;
+                }
+                parser.parse(line);
+                return sink.test(row.apply(parser));
+            });
+        }
+        
+        @Override
+        public long sizeEstimate() {
+            return lines.sizeEstimate();
+        }
+        
+        @Override
+        public Tuple2<SplittableSeq<R>, SplittableSeq<R>> split() {
+            Tuple2<SplittableSeq<Line>, SplittableSeq<Line>> halves = lines.split();
+            if (halves == null) {
+                return null;
+            }
+            return Tuple.of(new RecordSeq<>(halves._1(), header, row, columns), new RecordSeq<>(halves._2(), false, row, columns));
+        }
+    }
+}
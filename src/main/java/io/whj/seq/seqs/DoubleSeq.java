@@ -0,0 +1,244 @@
+package io.whj.seq.seqs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.function.*;
+
+/**
+ * double 特化的 Seq：元素通过 {@link DoubleConsumer} 传递，整个流水线不产生装箱对象
+ */
+@FunctionalInterface
+public interface DoubleSeq {
+    
+    void consume(DoubleConsumer consumer);
+    
+    // 可以提前终止的消费，约定与 {@link Seq#tryConsume(java.util.function.Predicate)} 相同
+    default boolean tryConsume(DoublePredicate sink) {
+        Stop stop = new Stop();
+        try {
+            consume(t -> {
+                if (!sink.test(t)) {
+                    throw stop;
+                }
+            });
+            return true;
+        } catch (Stop e) {
+            if (e != stop) {
+                throw e;
+            }
+            return false;
+        }
+    }
+    
+    static DoubleSeq empty() {
+        return (CancellableDoubleSeq) sink -> true;
+    }
+    
+    static DoubleSeq unit(double t) {
+        return (CancellableDoubleSeq) sink -> sink.test(t);
+    }
+    
+    static DoubleSeq of(double... ts) {
+        return (CancellableDoubleSeq) sink -> {
+            for (double t : ts) {
+                if (!sink.test(t)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+    
+    // 无限流：每个元素由 supplier 生成
+    static DoubleSeq generate(DoubleSupplier supplier) {
+        return (CancellableDoubleSeq) sink -> {
+            while (sink.test(supplier.getAsDouble())) {
+            }
+            return false;
+        };
+    }
+    
+    // 无限流：seed, next(seed), next(next(seed)) ...
+    static DoubleSeq iterate(double seed, DoubleUnaryOperator next) {
+        return (CancellableDoubleSeq) sink -> {
+            double t = seed;
+            while (sink.test(t)) {
+                t = next.applyAsDouble(t);
+            }
+            return false;
+        };
+    }
+    
+    // 有限流：相当于 for (t = seed; hasNext.test(t); t = next.applyAsDouble(t))
+    static DoubleSeq iterate(double seed, DoublePredicate hasNext, DoubleUnaryOperator next) {
+        return (CancellableDoubleSeq) sink -> {
+            for (double t = seed; hasNext.test(t); t = next.applyAsDouble(t)) {
+                if (!sink.test(t)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+    
+    // k 路归并若干升序的 DoubleSeq，相等的值按输入的先后输出。
+    // 便捷写法：每个元素都会装箱，每个输入各自由一个后台线程推送（见 Seq#iterator），对性能敏感时请自行归并原始类型数组
+    // 与 Double.compare 的顺序一致：-0.0 排在 0.0 之前，NaN 排在最后
+    static DoubleSeq mergeSorted(DoubleSeq... seqs) {
+        List<Seq<Double>> boxed = new ArrayList<>(seqs.length);
+        for (DoubleSeq seq : seqs) {
+            boxed.add(seq.boxed());
+        }
+        return Seq.mergeSorted(Comparator.<Double>naturalOrder(), boxed).mapToDouble(Double::doubleValue);
+    }
+    
+    default DoubleSeq map(DoubleUnaryOperator mapper) {
+        return (CancellableDoubleSeq) sink -> this.tryConsume(t -> sink.test(mapper.applyAsDouble(t)));
+    }
+    
+    default IntSeq mapToInt(DoubleToIntFunction mapper) {
+        return (CancellableIntSeq) sink -> this.tryConsume(t -> sink.test(mapper.applyAsInt(t)));
+    }
+    
+    default LongSeq mapToLong(DoubleToLongFunction mapper) {
+        return (CancellableLongSeq) sink -> this.tryConsume(t -> sink.test(mapper.applyAsLong(t)));
+    }
+    
+    default <R> Seq<R> mapToObj(DoubleFunction<R> mapper) {
+        return (CancellableSeq<R>) sink -> this.tryConsume(t -> sink.test(mapper.apply(t)));
+    }
+    
+    default Seq<Double> boxed() {
+        return mapToObj(Double::valueOf);
+    }
+    
+    // 平铺元素
+    default DoubleSeq flatMap(DoubleFunction<DoubleSeq> flatmapFn) {
+        return (CancellableDoubleSeq) sink -> this.tryConsume(t -> flatmapFn.apply(t).tryConsume(sink));
+    }
+    
+    default DoubleSeq filter(DoublePredicate predicate) {
+        return (CancellableDoubleSeq) sink -> this.tryConsume(t -> !predicate.test(t) || sink.test(t));
+    }
+    
+    default DoubleSeq peek(DoubleConsumer peeker) {
+        return (CancellableDoubleSeq) sink -> this.tryConsume(t -> {
+            peeker.accept(t);
+            return sink.test(t);
+        });
+    }
+    
+    default DoubleSeq take(int n) {
+        return (CancellableDoubleSeq) sink -> {
+            if (n <= 0) {
+                return true;
+            }
+            int[] i = {0};
+            boolean[] stopped = {false};
+            this.tryConsume(t -> {
+                if (!sink.test(t)) {
+                    stopped[0] = true;
+                    return false;
+                }
+                return ++i[0] < n;
+            });
+            return !stopped[0];
+        };
+    }
+    
+    default DoubleSeq take(DoublePredicate predicate) {
+        return (CancellableDoubleSeq) sink -> {
+            boolean[] stopped = {false};
+            this.tryConsume(t -> {
+                if (!predicate.test(t)) {
+                    return false;
+                }
+                if (!sink.test(t)) {
+                    stopped[0] = true;
+                    return false;
+                }
+                return true;
+            });
+            return !stopped[0];
+        };
+    }
+    
+    default DoubleSeq drop(int n) {
+        return (CancellableDoubleSeq) sink -> {
+            int[] i = {0};
+            return this.tryConsume(t -> {
+                if (i[0] < n) {
+                    i[0]++;
+                    return true;
+                }
+                return sink.test(t);
+            });
+        };
+    }
+    
+    default DoubleSeq append(DoubleSeq other) {
+        return (CancellableDoubleSeq) sink -> this.tryConsume(sink) && other.tryConsume(sink);
+    }
+    
+    default double sum() {
+        double[] sum = {0};
+        this.consume(t -> sum[0] += t);
+        return sum[0];
+    }
+    
+    // NaN 参与比较时与 Math.min 保持一致：结果为 NaN
+    default OptionalDouble min() {
+        double[] min = {Double.POSITIVE_INFINITY};
+        boolean[] present = {false};
+        this.consume(t -> {
+            min[0] = Math.min(min[0], t);
+            present[0] = true;
+        });
+        return present[0] ? OptionalDouble.of(min[0]) : OptionalDouble.empty();
+    }
+    
+    default OptionalDouble max() {
+        double[] max = {Double.NEGATIVE_INFINITY};
+        boolean[] present = {false};
+        this.consume(t -> {
+            max[0] = Math.max(max[0], t);
+            present[0] = true;
+        });
+        return present[0] ? OptionalDouble.of(max[0]) : OptionalDouble.empty();
+    }
+    
+    default OptionalDouble average() {
+        double[] sum = {0};
+        int[] count = {0};
+        this.consume(t -> {
+            sum[0] += t;
+            count[0]++;
+        });
+        return count[0] == 0 ? OptionalDouble.empty() : OptionalDouble.of(sum[0] / count[0]);
+    }
+    
+    default int length() {
+        int[] i = {0};
+        this.consume(t -> i[0]++);
+        return i[0];
+    }
+    
+    default double[] toArray() {
+        double[][] buffer = {new double[16]};
+        int[] size = {0};
+        this.consume(t -> {
+            if (size[0] == buffer[0].length) {
+                buffer[0] = Arrays.copyOf(buffer[0], size[0] << 1);
+            }
+            buffer[0][size[0]++] = t;
+        });
+        return Arrays.copyOf(buffer[0], size[0]);
+    }
+    
+    default String toArrayString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,133 @@
+package io.whj.seq.seqs;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * 外部归并排序：每攒满 maxInMemory 个元素就在内存中稳定排序，写成一个有序的 run，
+ * 最后在下游遍历时把所有 run 和内存中剩余的元素做 k 路归并。
+ * <p>
+ * 相等的元素按 run 的先后决定顺序，因此整体仍然是稳定排序。
+ * run 超过 {@link #MAX_FAN_IN} 个时先把相邻的 run 合并，限制同时打开的文件数。
+ * 临时文件在遍历结束时删除，遍历被提前终止或者抛出异常时也一样
+ */
+final class ExternalSort {
+    
+    static final int MAX_FAN_IN = 64;
+    
+    private ExternalSort() {
+    }
+    
+    static <T> boolean sort(Seq<T> source, Comparator<T> comparator, Spill<T> spill, Predicate<T> sink) {
+        List<SpillFile<T>> runs = new ArrayList<>();
+        try {
+            List<T> buffer = new ArrayList<>(Math.min(spill.maxInMemory, 1 << 16));
+            source.consume(t -> {
+                buffer.add(t);
+                if (buffer.size() >= spill.maxInMemory) {
+                    runs.add(writeRun(buffer, comparator, spill));
+                    buffer.clear();
+                }
+            });
+            buffer.sort(comparator);
+            if (runs.isEmpty()) {
+                for (T t : buffer) {
+                    if (!sink.test(t)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            while (runs.size() > MAX_FAN_IN) {
+                SpillFile<T> merged = SpillFile.create(spill.directory, "seq-sort-", spill.codec);
+                runs.add(0, merged);
+                List<SeqIterator<T>> cursors = new ArrayList<>();
+                for (SpillFile<T> run : runs.subList(1, MAX_FAN_IN + 1)) {
+                    cursors.add(run.reader());
+                }
+                merge(cursors, comparator, t -> {
+                    merged.write(t);
+                    return true;
+                });
+                List<SpillFile<T>> done = runs.subList(1, MAX_FAN_IN + 1);
+                done.forEach(SpillFile::close);
+                done.clear();
+            }
+            List<SeqIterator<T>> cursors = new ArrayList<>(runs.size() + 1);
+            for (SpillFile<T> run : runs) {
+                cursors.add(run.reader());
+            }
+            cursors.add(iterator(buffer.iterator()));
+            return merge(cursors, comparator, sink);
+        } finally {
+            runs.forEach(SpillFile::close);
+        }
+    }
+    
+    private static <T> SpillFile<T> writeRun(List<T> buffer, Comparator<T> comparator, Spill<T> spill) {
+        buffer.sort(comparator);
+        SpillFile<T> run = SpillFile.create(spill.directory, "seq-sort-", spill.codec);
+        for (T t : buffer) {
+            run.write(t);
+        }
+        return run;
+    }
+    
+    // 每个游标自身有序，序号小的游标在相等时优先
+    static <T> boolean merge(List<SeqIterator<T>> cursors, Comparator<T> comparator, Predicate<T> sink) {
+        PriorityQueue<Head<T>> heap = new PriorityQueue<>(cursors.size(), (a, b) -> {
+            int c = comparator.compare(a.value, b.value);
+            return c != 0 ? c : Integer.compare(a.index, b.index);
+        });
+        try {
+            for (int i = 0; i < cursors.size(); i++) {
+                SeqIterator<T> cursor = cursors.get(i);
+                if (cursor.hasNext()) {
+                    heap.add(new Head<>(i, cursor.next()));
+                }
+            }
+            while (!heap.isEmpty()) {
+                Head<T> head = heap.poll();
+                if (!sink.test(head.value)) {
+                    return false;
+                }
+                SeqIterator<T> cursor = cursors.get(head.index);
+                if (cursor.hasNext()) {
+                    head.value = cursor.next();
+                    heap.add(head);
+                }
+            }
+            return true;
+        } finally {
+            cursors.forEach(SeqIterator::close);
+        }
+    }
+    
+    private static <T> SeqIterator<T> iterator(Iterator<T> iterator) {
+        return new SeqIterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+            
+            @Override
+            public T next() {
+                return iterator.next();
+            }
+            
+            @Override
+            public void close() {
+            }
+        };
+    }
+    
+    private static final class Head<T> {
+        final int index;
+        T value;
+        
+        Head(int index, T value) {
+            this.index = index;
+            this.value = value;
+        }
+    }
+}
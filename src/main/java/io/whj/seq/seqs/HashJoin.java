@@ -0,0 +1,153 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.codecs.Codec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Seq 的 hash join：每次遍历先把构建侧（other）读入 {@link JoinTable}，再流式遍历探测侧（this）。
+ * <p>
+ * 指定了 {@link Spill} 并且构建侧超过 maxInMemory 行时改用 grace hash join：
+ * 两侧都按 key 的哈希值分区写入临时文件，再逐个分区在内存中 join，此时结果按分区顺序输出，不再保持探测侧的顺序
+ *
+ * @param <T> 探测侧元素类型
+ * @param <U> 构建侧元素类型
+ * @param <K> key 类型
+ */
+final class HashJoin<T, U, K> {
+    
+    enum Mode {
+        INNER, LEFT, SEMI, ANTI
+    }
+    
+    private final Seq<T> probe;
+    private final Seq<U> build;
+    private final Function<T, K> probeKey;
+    private final Function<U, K> buildKey;
+    private final Mode mode;
+    private final Spill<U> spill;
+    private final Codec<T> probeCodec;
+    
+    private JoinTable<K, U> table = new JoinTable<>();
+    private List<SpillFile<U>> buildParts;
+    private List<SpillFile<T>> probeParts;
+    
+    HashJoin(Seq<T> probe, Seq<U> build, Function<T, K> probeKey, Function<U, K> buildKey,
+             Mode mode, Spill<U> spill, Codec<T> probeCodec) {
+        this.probe = probe;
+        this.build = build;
+        this.probeKey = probeKey;
+        this.buildKey = buildKey;
+        this.mode = mode;
+        this.spill = spill;
+        this.probeCodec = spill == null ? probeCodec : Objects.requireNonNull(probeCodec, "leftCodec");
+    }
+    
+    static <T, U, K> BiSeq<T, U> pairs(Seq<T> probe, Seq<U> build, Function<T, K> probeKey, Function<U, K> buildKey,
+                                       Mode mode, Spill<U> spill, Codec<T> probeCodec) {
+        return (CancellableBiSeq<T, U>) sink -> new HashJoin<>(probe, build, probeKey, buildKey, mode, spill, probeCodec).run(sink);
+    }
+    
+    // semi/anti join 只输出探测侧的元素
+    static <T, U, K> Seq<T> matches(Seq<T> probe, Seq<U> build, Function<T, K> probeKey, Function<U, K> buildKey,
+                                    Mode mode, Spill<U> spill, Codec<T> probeCodec) {
+        return (CancellableSeq<T>) sink -> new HashJoin<>(probe, build, probeKey, buildKey, mode, spill, probeCodec)
+                .run((t, u) -> sink.test(t));
+    }
+    
+    // semi/anti join 时 sink 的第二个参数总是 null
+    boolean run(BiPredicate<T, U> sink) {
+        try {
+            build.consume(this::addBuildRow);
+            if (buildParts == null) {
+                return probe(probe, table, sink);
+            }
+            probeParts = new ArrayList<>(spill.partitions);
+            for (int i = 0; i < spill.partitions; i++) {
+                probeParts.add(SpillFile.create(spill.directory, "seq-join-", probeCodec));
+            }
+            probe.consume(t -> probeParts.get(JoinTable.partition(probeKey.apply(t), spill.partitions)).write(t));
+            for (int i = 0; i < spill.partitions; i++) {
+                JoinTable<K, U> part = new JoinTable<>();
+                buildParts.get(i).seq().consume(u -> addRow(part, u));
+                buildParts.get(i).close();
+                if (!probe(probeParts.get(i).seq(), part, sink)) {
+                    return false;
+                }
+                probeParts.get(i).close();
+            }
+            return true;
+        } finally {
+            closeAll(buildParts);
+            closeAll(probeParts);
+        }
+    }
+    
+    private void addBuildRow(U u) {
+        if (buildParts != null) {
+            buildParts.get(JoinTable.partition(buildKey.apply(u), spill.partitions)).write(u);
+            return;
+        }
+        addRow(table, u);
+        if (spill != null && table.rows() > spill.maxInMemory) {
+            buildParts = new ArrayList<>(spill.partitions);
+            for (int i = 0; i < spill.partitions; i++) {
+                buildParts.add(SpillFile.create(spill.directory, "seq-join-", spill.codec));
+            }
+            JoinTable<K, U> full = table;
+            table = null;
+            for (int row = 0; row < full.rows(); row++) {
+                U value = full.value(row);
+                buildParts.get(JoinTable.partition(buildKey.apply(value), spill.partitions)).write(value);
+            }
+        }
+    }
+    
+    // semi/anti join 只关心 key 是否存在，每个 key 只保留一行
+    private void addRow(JoinTable<K, U> target, U u) {
+        K key = buildKey.apply(u);
+        if ((mode == Mode.SEMI || mode == Mode.ANTI) && target.first(key) >= 0) {
+            return;
+        }
+        target.add(key, u);
+    }
+    
+    private boolean probe(Seq<T> side, JoinTable<K, U> lookup, BiPredicate<T, U> sink) {
+        return side.tryConsume(t -> {
+            int row = lookup.first(probeKey.apply(t));
+            switch (mode) {
+                case SEMI:
+                    return row < 0 || sink.test(t, null);
+                case ANTI:
+                    return row >= 0 || sink.test(t, null);
+                case LEFT:
+                    // 有匹配时与 inner join 相同
+                    return row < 0 ? sink.test(t, null) : emitMatches(t, row, lookup, sink);
+                default:
+                    return emitMatches(t, row, lookup, sink);
+            }
+        });
+    }
+    
+    // 把 t 与从 row 开始的每一个匹配行交给下游
+    private static <T, K, U> boolean emitMatches(T t, int row, JoinTable<K, U> lookup, BiPredicate<T, U> sink) {
+        for (; row >= 0; row = lookup.next(row)) {
+            if (!sink.test(t, lookup.value(row))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static void closeAll(List<? extends SpillFile<?>> files) {
+        if (files != null) {
+            for (SpillFile<?> file : files) {
+                file.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.consumers.Consumer6;
+import io.whj.seq.functions.Function6;
+import io.whj.seq.predicates.Predicate6;
+import io.whj.seq.tuples.Tuple;
+import io.whj.seq.tuples.Tuple6;
+
+/**
+ * 六元版本的 {@link TriSeq}
+ */
+public interface HexaSeq<T1, T2, T3, T4, T5, T6> {
+    
+    void consume(Consumer6<T1, T2, T3, T4, T5, T6> consumer);
+    
+    // 可以提前终止的消费，约定与 {@link Seq#tryConsume(java.util.function.Predicate)} 相同
+    default boolean tryConsume(Predicate6<T1, T2, T3, T4, T5, T6> sink) {
+        Stop stop = new Stop();
+        try {
+            consume((t1, t2, t3, t4, t5, t6) -> {
+                if (!sink.test(t1, t2, t3, t4, t5, t6)) {
+                    throw stop;
+                }
+            });
+            return true;
+        } catch (Stop e) {
+            if (e != stop) {
+                throw e;
+            }
+            return false;
+        }
+    }
+    
+    // 解构元组
+    static <T1, T2, T3, T4, T5, T6> HexaSeq<T1, T2, T3, T4, T5, T6> of(Seq<Tuple6<T1, T2, T3, T4, T5, T6>> seq) {
+        return (CancellableHexaSeq<T1, T2, T3, T4, T5, T6>) sink -> seq.tryConsume(t -> sink.test(t._1(), t._2(), t._3(), t._4(), t._5(), t._6()));
+    }
+    
+    static <T1, T2, T3, T4, T5, T6> HexaSeq<T1, T2, T3, T4, T5, T6> zip(Seq<T1> s1, Seq<T2> s2, Seq<T3> s3, Seq<T4> s4, Seq<T5> s5, Seq<T6> s6) {
+        return (CancellableHexaSeq<T1, T2, T3, T4, T5, T6>) sink -> {
+            try (SeqIterator<T2> i2 = s2.iterator(); SeqIterator<T3> i3 = s3.iterator(); SeqIterator<T4> i4 = s4.iterator(); SeqIterator<T5> i5 = s5.iterator(); SeqIterator<T6> i6 = s6.iterator()) {
+                boolean[] stopped = {false};
+                s1.tryConsume(t1 -> {
+                    if (!i2.hasNext() || !i3.hasNext() || !i4.hasNext() || !i5.hasNext() || !i6.hasNext()) {
+                        return false;
+                    }
+                    if (!sink.test(t1, i2.next(), i3.next(), i4.next(), i5.next(), i6.next())) {
+                        stopped[0] = true;
+                        return false;
+                    }
+                    return true;
+                });
+                return !stopped[0];
+            }
+        };
+    }
+    
+    default <R> Seq<R> map(Function6<T1, T2, T3, T4, T5, T6, R> mapper) {
+        return (CancellableSeq<R>) sink -> this.tryConsume((t1, t2, t3, t4, t5, t6) -> sink.test(mapper.apply(t1, t2, t3, t4, t5, t6)));
+    }
+    
+    default HexaSeq<T1, T2, T3, T4, T5, T6> filter(Predicate6<T1, T2, T3, T4, T5, T6> predicate) {
+        return (CancellableHexaSeq<T1, T2, T3, T4, T5, T6>) sink -> this.tryConsume((t1, t2, t3, t4, t5, t6) -> !predicate.test(t1, t2, t3, t4, t5, t6) || sink.test(t1, t2, t3, t4, t5, t6));
+    }
+    
+    // 只在需要元组的边界上调用
+    default Seq<Tuple6<T1, T2, T3, T4, T5, T6>> toTuples() {
+        return map((t1, t2, t3, t4, t5, t6) -> Tuple.of(t1, t2, t3, t4, t5, t6));
+    }
+}
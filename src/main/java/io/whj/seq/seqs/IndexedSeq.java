@@ -0,0 +1,240 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.tuples.Tuple;
+import io.whj.seq.tuples.Tuple2;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 可按下标随机访问的数据源（数组、RandomAccess 列表），天然支持按区间拆分
+ *
+ * @param <T> 元素类型
+ */
+abstract class IndexedSeq<T> implements SplittableSeq<T> {
+    
+    // 左闭右开区间 [from, to)，to 为负数表示区间随底层集合变化
+    final int from;
+    final int to;
+    
+    IndexedSeq(int from, int to) {
+        this.from = from;
+        this.to = to;
+    }
+    
+    abstract T get(int index);
+    
+    abstract IndexedSeq<T> slice(int from, int to);
+    
+    static <T> IndexedSeq<T> ofArray(T[] array) {
+        return new ArraySeq<>(array, 0, array.length);
+    }
+    
+    // 遍历时才读取列表长度，和迭代器一样能看到创建之后追加的元素
+    static <T> IndexedSeq<T> ofList(List<T> list) {
+        return new ListSeq<>(list, 0, -1);
+    }
+    
+    int end() {
+        return to;
+    }
+    
+    // 列表在创建之后变短时可能小于 from
+    int size() {
+        return Math.max(end() - from, 0);
+    }
+    
+    // explain 中显示的数据源
+    abstract String label();
+    
+    @Override
+    public void consume(Consumer<T> consumer) {
+        for (int i = from, end = end(); i < end; i++) {
+            consumer.accept(get(i));
+        }
+    }
+    
+    @Override
+    public boolean tryConsume(Predicate<T> sink) {
+        for (int i = from, end = end(); i < end; i++) {
+            if (!sink.test(get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // 直接按下标读取，不需要后台线程
+    @Override
+    public SeqIterator<T> iterator() {
+        return new SeqIterator<T>() {
+            private final int end = end();
+            private int index = from;
+            
+            @Override
+            public boolean hasNext() {
+                return index < end;
+            }
+            
+            @Override
+            public T next() {
+                if (index >= end) {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
+            }
+            
+            @Override
+            public void close() {
+                index = end;
+            }
+        };
+    }
+    
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED);
+    }
+    
+    // 以下操作直接计算下标区间，结果仍然可以拆分
+    
+    @Override
+    public int length() {
+        return size();
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+    
+    @Override
+    public Optional<T> head() {
+        return size() == 0 ? Optional.empty() : Optional.ofNullable(get(from));
+    }
+    
+    @Override
+    public Optional<T> last() {
+        int end = end();
+        return end <= from ? Optional.empty() : Optional.ofNullable(get(end - 1));
+    }
+    
+    @Override
+    public Seq<T> drop(int n) {
+        if (n <= 0) {
+            return this;
+        }
+        long begin = (long) from + n;
+        return slice((int) Math.min(begin, to < 0 ? Integer.MAX_VALUE : to), to);
+    }
+    
+    // 区间随列表变化时无法提前确定下标，按普通的 Seq 处理
+    @Override
+    public Seq<T> take(int n) {
+        if (to < 0) {
+            return SplittableSeq.super.take(n);
+        }
+        return slice(from, from + Math.min(Math.max(n, 0), size()));
+    }
+    
+    @Override
+    public Seq<T> last(int n) {
+        if (to < 0) {
+            return SplittableSeq.super.last(n);
+        }
+        return slice(to - Math.min(Math.max(n, 0), size()), to);
+    }
+    
+    @Override
+    public long sizeEstimate() {
+        return size();
+    }
+    
+    @Override
+    public Tuple2<SplittableSeq<T>, SplittableSeq<T>> split() {
+        if (size() < 2) {
+            return null;
+        }
+        int end = end();
+        int mid = (from + end) >>> 1;
+        return Tuple.of(slice(from, mid), slice(mid, end));
+    }
+    
+    static final class ArraySeq<T> extends IndexedSeq<T> {
+        private final T[] array;
+        
+        ArraySeq(T[] array, int from, int to) {
+            super(from, to);
+            this.array = array;
+        }
+        
+        @Override
+        T get(int index) {
+            return array[index];
+        }
+        
+        @Override
+        IndexedSeq<T> slice(int from, int to) {
+            return new ArraySeq<>(array, from, to);
+        }
+        
+        @Override
+        String label() {
+            return "Array[" + from + ", " + to + ")";
+        }
+        
+        @Override
+        public void consume(Consumer<T> consumer) {
+            T[] a = array;
+            for (int i = from; i < to; i++) {
+                consumer.accept(a[i]);
+            }
+        }
+        
+        @Override
+        public boolean tryConsume(Predicate<T> sink) {
+            T[] a = array;
+            for (int i = from; i < to; i++) {
+                if (!sink.test(a[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+    
+    // 只用于 RandomAccess 列表
+    static final class ListSeq<T> extends IndexedSeq<T> {
+        private final List<T> list;
+        
+        ListSeq(List<T> list, int from, int to) {
+            super(from, to);
+            this.list = list;
+        }
+        
+        @Override
+        int end() {
+            return to < 0 ? list.size() : to;
+        }
+        
+        @Override
+        T get(int index) {
+            return list.get(index);
+        }
+        
+        @Override
+        IndexedSeq<T> slice(int from, int to) {
+            return new ListSeq<>(list, from, to);
+        }
+        
+        @Override
+        String label() {
+            return "List[" + from + ", " + (to < 0 ? "size" : String.valueOf(to)) + ")";
+        }
+    }
+}
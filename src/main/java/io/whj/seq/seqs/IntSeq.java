@@ -0,0 +1,367 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.collections.IntBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.function.*;
+
+/**
+ * int 特化的 Seq：元素通过 {@link IntConsumer} 传递，整个流水线不产生装箱对象
+ */
+@FunctionalInterface
+public interface IntSeq {
+    
+    void consume(IntConsumer consumer);
+    
+    // 可以提前终止的消费，约定与 {@link Seq#tryConsume(java.util.function.Predicate)} 相同
+    default boolean tryConsume(IntPredicate sink) {
+        Stop stop = new Stop();
+        try {
+            consume(t -> {
+                if (!sink.test(t)) {
+                    throw stop;
+                }
+            });
+            return true;
+        } catch (Stop e) {
+            if (e != stop) {
+                throw e;
+            }
+            return false;
+        }
+    }
+    
+    static IntSeq empty() {
+        return (CancellableIntSeq) sink -> true;
+    }
+    
+    static IntSeq unit(int t) {
+        return (CancellableIntSeq) sink -> sink.test(t);
+    }
+    
+    static IntSeq of(int... ts) {
+        return (CancellableIntSeq) sink -> {
+            for (int t : ts) {
+                if (!sink.test(t)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+    
+    // 按升序遍历位图
+    static IntSeq of(IntBitmap bitmap) {
+        return (CancellableIntSeq) bitmap::forEachWhile;
+    }
+    
+    // 左闭右开区间 [begin, end)
+    static IntSeq range(int begin, int end) {
+        return (CancellableIntSeq) sink -> {
+            for (int i = begin; i < end; i++) {
+                if (!sink.test(i)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+    
+    // 闭区间 [begin, end]
+    static IntSeq rangeClosed(int begin, int end) {
+        return (CancellableIntSeq) sink -> {
+            if (begin > end) {
+                return true;
+            }
+            int i = begin;
+            if (!sink.test(i)) {
+                return false;
+            }
+            while (i < end) {
+                if (!sink.test(++i)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+    
+    // 等差数列，左闭右开区间，step 可以为负数
+    // arithmeticProgression(0,1,10) => 0,1,2,3,4,5,6,7,8,9
+    static IntSeq arithmeticProgression(int begin, int step, int limit) {
+        if (step == 0) {
+            throw new IllegalArgumentException("step must not be zero");
+        }
+        return (CancellableIntSeq) sink -> {
+            if (step > 0) {
+                for (long i = begin; i < limit; i += step) {
+                    if (!sink.test((int) i)) {
+                        return false;
+                    }
+                }
+            } else {
+                for (long i = begin; i > limit; i += step) {
+                    if (!sink.test((int) i)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        };
+    }
+    
+    // 自然数列 [0, Integer.MAX_VALUE)
+    static IntSeq naturalNumbers() {
+        return range(0, Integer.MAX_VALUE);
+    }
+    
+    // 自然数列 [0, limit)
+    static IntSeq naturalNumbers(int limit) {
+        return range(0, limit);
+    }
+    
+    // 无限流：每个元素由 supplier 生成
+    static IntSeq generate(IntSupplier supplier) {
+        return (CancellableIntSeq) sink -> {
+            while (sink.test(supplier.getAsInt())) {
+            }
+            return false;
+        };
+    }
+    
+    // 无限流：seed, next(seed), next(next(seed)) ...
+    static IntSeq iterate(int seed, IntUnaryOperator next) {
+        return (CancellableIntSeq) sink -> {
+            int t = seed;
+            while (sink.test(t)) {
+                t = next.applyAsInt(t);
+            }
+            return false;
+        };
+    }
+    
+    // 有限流：相当于 for (t = seed; hasNext.test(t); t = next.applyAsInt(t))
+    static IntSeq iterate(int seed, IntPredicate hasNext, IntUnaryOperator next) {
+        return (CancellableIntSeq) sink -> {
+            for (int t = seed; hasNext.test(t); t = next.applyAsInt(t)) {
+                if (!sink.test(t)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+    
+    // k 路归并若干升序的 IntSeq，相等的值按输入的先后输出。
+    // 便捷写法：每个元素都会装箱，每个输入各自由一个后台线程推送（见 Seq#iterator），对性能敏感时请自行归并原始类型数组
+    static IntSeq mergeSorted(IntSeq... seqs) {
+        List<Seq<Integer>> boxed = new ArrayList<>(seqs.length);
+        for (IntSeq seq : seqs) {
+            boxed.add(seq.boxed());
+        }
+        return Seq.mergeSorted(Comparator.<Integer>naturalOrder(), boxed).mapToInt(Integer::intValue);
+    }
+    
+    default IntSeq map(IntUnaryOperator mapper) {
+        return (CancellableIntSeq) sink -> this.tryConsume(t -> sink.test(mapper.applyAsInt(t)));
+    }
+    
+    default LongSeq mapToLong(IntToLongFunction mapper) {
+        return (CancellableLongSeq) sink -> this.tryConsume(t -> sink.test(mapper.applyAsLong(t)));
+    }
+    
+    default DoubleSeq mapToDouble(IntToDoubleFunction mapper) {
+        return (CancellableDoubleSeq) sink -> this.tryConsume(t -> sink.test(mapper.applyAsDouble(t)));
+    }
+    
+    default <R> Seq<R> mapToObj(IntFunction<R> mapper) {
+        return (CancellableSeq<R>) sink -> this.tryConsume(t -> sink.test(mapper.apply(t)));
+    }
+    
+    default Seq<Integer> boxed() {
+        return mapToObj(Integer::valueOf);
+    }
+    
+    default LongSeq asLongSeq() {
+        return (CancellableLongSeq) sink -> this.tryConsume(sink::test);
+    }
+    
+    default DoubleSeq asDoubleSeq() {
+        return (CancellableDoubleSeq) sink -> this.tryConsume(sink::test);
+    }
+    
+    // 平铺元素
+    default IntSeq flatMap(IntFunction<IntSeq> flatmapFn) {
+        return (CancellableIntSeq) sink -> this.tryConsume(t -> flatmapFn.apply(t).tryConsume(sink));
+    }
+    
+    default IntSeq filter(IntPredicate predicate) {
+        return (CancellableIntSeq) sink -> this.tryConsume(t -> !predicate.test(t) || sink.test(t));
+    }
+    
+    default IntSeq peek(IntConsumer peeker) {
+        return (CancellableIntSeq) sink -> this.tryConsume(t -> {
+            peeker.accept(t);
+            return sink.test(t);
+        });
+    }
+    
+    default IntSeq take(int n) {
+        return (CancellableIntSeq) sink -> {
+            if (n <= 0) {
+                return true;
+            }
+            int[] i = {0};
+            boolean[] stopped = {false};
+            this.tryConsume(t -> {
+                if (!sink.test(t)) {
+                    stopped[0] = true;
+                    return false;
+                }
+                return ++i[0] < n;
+            });
+            return !stopped[0];
+        };
+    }
+    
+    default IntSeq take(IntPredicate predicate) {
+        return (CancellableIntSeq) sink -> {
+            boolean[] stopped = {false};
+            this.tryConsume(t -> {
+                if (!predicate.test(t)) {
+                    return false;
+                }
+                if (!sink.test(t)) {
+                    stopped[0] = true;
+                    return false;
+                }
+                return true;
+            });
+            return !stopped[0];
+        };
+    }
+    
+    default IntSeq drop(int n) {
+        return (CancellableIntSeq) sink -> {
+            int[] i = {0};
+            return this.tryConsume(t -> {
+                if (i[0] < n) {
+                    i[0]++;
+                    return true;
+                }
+                return sink.test(t);
+            });
+        };
+    }
+    
+    default IntSeq append(IntSeq other) {
+        return (CancellableIntSeq) sink -> this.tryConsume(sink) && other.tryConsume(sink);
+    }
+    
+    // 去重，保持遭遇顺序；出现过的值保存在压缩位图中，不装箱
+    default IntSeq distinct() {
+        return (CancellableIntSeq) sink -> {
+            IntBitmap seen = new IntBitmap();
+            return this.tryConsume(t -> !seen.add(t) || sink.test(t));
+        };
+    }
+    
+    // 以下集合运算都按遭遇顺序输出、结果不含重复值，other 在每次遍历开始时先收集成位图
+    
+    default IntSeq union(IntSeq other) {
+        return append(other).distinct();
+    }
+    
+    default IntSeq intersect(IntSeq other) {
+        return (CancellableIntSeq) sink -> {
+            IntBitmap right = other.toIntSet();
+            IntBitmap seen = new IntBitmap();
+            return this.tryConsume(t -> !right.contains(t) || !seen.add(t) || sink.test(t));
+        };
+    }
+    
+    default IntSeq difference(IntSeq other) {
+        return (CancellableIntSeq) sink -> {
+            IntBitmap right = other.toIntSet();
+            IntBitmap seen = new IntBitmap();
+            return this.tryConsume(t -> right.contains(t) || !seen.add(t) || sink.test(t));
+        };
+    }
+    
+    default boolean containsAll(IntSeq other) {
+        IntBitmap set = toIntSet();
+        return other.tryConsume(set::contains);
+    }
+    
+    default IntBitmap toIntSet() {
+        IntBitmap set = new IntBitmap();
+        this.consume(set::add);
+        return set;
+    }
+    
+    default long sum() {
+        long[] sum = {0};
+        this.consume(t -> sum[0] += t);
+        return sum[0];
+    }
+    
+    default OptionalInt min() {
+        int[] min = {0};
+        boolean[] present = {false};
+        this.consume(t -> {
+            if (!present[0] || t < min[0]) {
+                min[0] = t;
+                present[0] = true;
+            }
+        });
+        return present[0] ? OptionalInt.of(min[0]) : OptionalInt.empty();
+    }
+    
+    default OptionalInt max() {
+        int[] max = {0};
+        boolean[] present = {false};
+        this.consume(t -> {
+            if (!present[0] || t > max[0]) {
+                max[0] = t;
+                present[0] = true;
+            }
+        });
+        return present[0] ? OptionalInt.of(max[0]) : OptionalInt.empty();
+    }
+    
+    default OptionalDouble average() {
+        long[] acc = {0, 0};
+        this.consume(t -> {
+            acc[0] += t;
+            acc[1]++;
+        });
+        return acc[1] == 0 ? OptionalDouble.empty() : OptionalDouble.of((double) acc[0] / acc[1]);
+    }
+    
+    default int length() {
+        int[] i = {0};
+        this.consume(t -> i[0]++);
+        return i[0];
+    }
+    
+    default int[] toArray() {
+        int[][] buffer = {new int[16]};
+        int[] size = {0};
+        this.consume(t -> {
+            if (size[0] == buffer[0].length) {
+                buffer[0] = Arrays.copyOf(buffer[0], size[0] << 1);
+            }
+            buffer[0][size[0]++] = t;
+        });
+        return Arrays.copyOf(buffer[0], size[0]);
+    }
+    
+    default String toArrayString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,53 @@
+package io.whj.seq.seqs;
+
+import java.util.Iterator;
+import java.util.function.Predicate;
+
+/**
+ * {@link Seq#of(Iterator)} 的实现：迭代器只能遍历一次，第二次 consume 从上次停下的位置继续。
+ * iterator() 直接返回包装的迭代器，不需要后台线程；{@link CachedSeq} 据此识别不能重新执行的上游
+ *
+ * @param <T> 元素类型
+ */
+final class IteratorSeq<T> implements CancellableSeq<T> {
+    
+    private final Iterator<T> iterator;
+    
+    IteratorSeq(Iterator<T> iterator) {
+        this.iterator = iterator;
+    }
+    
+    @Override
+    public boolean tryConsume(Predicate<T> sink) {
+        while (iterator.hasNext()) {
+            if (!sink.test(iterator.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public SeqIterator<T> iterator() {
+        return new SeqIterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+            
+            @Override
+            public T next() {
+                return iterator.next();
+            }
+            
+            @Override
+            public void close() {
+            }
+        };
+    }
+    
+    @Override
+    public String explain() {
+        return "Iterator";
+    }
+}
@@ -0,0 +1,115 @@
+package io.whj.seq.seqs;
+
+import java.util.Arrays;
+
+/**
+ * hash join 构建侧的多值哈希表：key 用开放寻址表保存，同一个 key 的多行用 next 数组串成链表，
+ * 每行只占一个数组槽位，不为每个 key 创建 List
+ *
+ * @param <K> key 类型
+ * @param <V> 行类型
+ */
+@SuppressWarnings("unchecked")
+final class JoinTable<K, V> {
+    
+    private static final Object NULL_KEY = new Object();
+    
+    private Object[] keys = new Object[16];
+    private int[] heads = new int[16];
+    private int[] tails = new int[16];
+    private int mask = 15;
+    private int keyCount;
+    
+    private Object[] values = new Object[16];
+    private int[] next = new int[16];
+    private int rows;
+    
+    // 同一个 key 的多行保持插入顺序
+    void add(K key, V value) {
+        if (rows == values.length) {
+            values = Arrays.copyOf(values, rows << 1);
+            next = Arrays.copyOf(next, rows << 1);
+        }
+        int row = rows++;
+        values[row] = value;
+        next[row] = -1;
+        Object k = key == null ? NULL_KEY : key;
+        int slot = slot(k);
+        if (keys[slot] == null) {
+            keys[slot] = k;
+            heads[slot] = row;
+            tails[slot] = row;
+            if (++keyCount * 2 > keys.length) {
+                resize();
+            }
+        } else {
+            next[tails[slot]] = row;
+            tails[slot] = row;
+        }
+    }
+    
+    // key 的第一行，不存在时返回 -1
+    int first(K key) {
+        Object k = key == null ? NULL_KEY : key;
+        int slot = slot(k);
+        return keys[slot] == null ? -1 : heads[slot];
+    }
+    
+    // 同一个 key 的下一行，没有时返回 -1
+    int next(int row) {
+        return next[row];
+    }
+    
+    V value(int row) {
+        return (V) values[row];
+    }
+    
+    int rows() {
+        return rows;
+    }
+    
+    private int slot(Object k) {
+        int i = mix(k.hashCode()) & mask;
+        while (true) {
+            Object existing = keys[i];
+            if (existing == null || existing == k || existing.equals(k)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+    
+    private void resize() {
+        Object[] oldKeys = keys;
+        int[] oldHeads = heads;
+        int[] oldTails = tails;
+        int capacity = oldKeys.length << 1;
+        keys = new Object[capacity];
+        heads = new int[capacity];
+        tails = new int[capacity];
+        mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            Object k = oldKeys[j];
+            if (k != null) {
+                int i = mix(k.hashCode()) & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = k;
+                heads[i] = oldHeads[j];
+                tails[i] = oldTails[j];
+            }
+        }
+    }
+    
+    static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+    
+    // 溢写分区使用哈希值的高位，和表内定位使用的低位互不相关
+    static int partition(Object key, int partitions) {
+        int h = key == null ? 0 : mix(key.hashCode());
+        return (h >>> 16) % partitions;
+    }
+}
@@ -0,0 +1,162 @@
+package io.whj.seq.seqs;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.*;
+
+/**
+ * {@link Seq#lines(java.nio.file.Path, Charset)} 产生的一行：直接指向映射文件中的字节，不复制、不解码。
+ * <p>
+ * 同一次遍历中的所有行共用一个 Line 对象，内容只在回调中有效；需要保留时调用 {@link #materialize()} 或 {@link #toString()} 复制出来。
+ * 内容全部是 ASCII 时 charAt 直接读取字节，否则在第一次访问字符时解码到一个复用的缓冲区中
+ */
+public final class Line implements CharSequence {
+    
+    private final Charset charset;
+    // ISO-8859-1 的每个字节就是一个字符
+    private final boolean latin1;
+    private ByteBuffer buffer;
+    private int offset;
+    private int byteLength;
+    // 0: 未检查，1: 全部是单字节字符，2: 已解码到 decoded
+    private int state;
+    private CharsetDecoder decoder;
+    private CharBuffer decoded;
+    
+    Line(Charset charset) {
+        this.charset = charset;
+        this.latin1 = charset.equals(StandardCharsets.ISO_8859_1);
+    }
+    
+    void reset(ByteBuffer buffer, int offset, int byteLength) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.byteLength = byteLength;
+        this.state = 0;
+    }
+    
+    ByteBuffer buffer() {
+        return buffer;
+    }
+    
+    int offset() {
+        return offset;
+    }
+    
+    public Charset charset() {
+        return charset;
+    }
+    
+    // 行的字节数，不包括换行符
+    public int byteLength() {
+        return byteLength;
+    }
+    
+    public byte byteAt(int index) {
+        if (index < 0 || index >= byteLength) {
+            throw new IndexOutOfBoundsException("index: " + index + ", byteLength: " + byteLength);
+        }
+        return buffer.get(offset + index);
+    }
+    
+    // 行内字节的只读视图，与 Line 一样只在回调中有效
+    public ByteBuffer bytes() {
+        ByteBuffer view = buffer.duplicate();
+        view.limit(offset + byteLength).position(offset);
+        return view.slice().asReadOnlyBuffer();
+    }
+    
+    // 复制出一个独立的 Line，可以在回调之外保存
+    public Line materialize() {
+        byte[] copy = new byte[byteLength];
+        bytes().get(copy);
+        Line line = new Line(charset);
+        line.reset(ByteBuffer.wrap(copy), 0, byteLength);
+        return line;
+    }
+    
+    @Override
+    public int length() {
+        return singleByte() ? byteLength : decoded.length();
+    }
+    
+    @Override
+    public char charAt(int index) {
+        if (singleByte()) {
+            return (char) (byteAt(index) & 0xff);
+        }
+        return decoded.charAt(index);
+    }
+    
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().substring(start, end);
+    }
+    
+    @Override
+    public String toString() {
+        byte[] copy = new byte[byteLength];
+        bytes().get(copy);
+        return new String(copy, charset);
+    }
+    
+    // 按字节内容比较，与 String 的 equals 一致（同一个 charset 时）
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Line)) return false;
+        Line other = (Line) o;
+        if (byteLength != other.byteLength || !charset.equals(other.charset)) {
+            return false;
+        }
+        for (int i = 0; i < byteLength; i++) {
+            if (buffer.get(offset + i) != other.buffer.get(other.offset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (int i = 0; i < byteLength; i++) {
+            h = 31 * h + buffer.get(offset + i);
+        }
+        return h;
+    }
+    
+    private boolean singleByte() {
+        if (state == 0) {
+            state = 1;
+            if (!latin1) {
+                for (int i = 0; i < byteLength; i++) {
+                    if (buffer.get(offset + i) < 0) {
+                        decode();
+                        state = 2;
+                        break;
+                    }
+                }
+            }
+        }
+        return state == 1;
+    }
+    
+    private void decode() {
+        if (decoder == null) {
+            decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        int capacity = (int) Math.ceil(byteLength * (double) decoder.maxCharsPerByte()) + 1;
+        if (decoded == null || decoded.capacity() < capacity) {
+            decoded = CharBuffer.allocate(Math.max(capacity, 64));
+        }
+        decoded.clear();
+        decoder.reset();
+        ByteBuffer in = bytes();
+        decoder.decode(in, decoded, true);
+        decoder.flush(decoded);
+        decoded.flip();
+    }
+}
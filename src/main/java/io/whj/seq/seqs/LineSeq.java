@@ -0,0 +1,157 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.tuples.Tuple;
+import io.whj.seq.tuples.Tuple2;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * 基于 {@link FileChannel#map} 的按行数据源：每次遍历打开文件，按段映射（每段最多 {@link #SEGMENT} 字节），
+ * 因此可以读取超过 2GB 的文件；跨越段边界的行会从行首重新映射。
+ * <p>
+ * 行以 '\n' 结尾，行尾的 '\r' 会被去掉；最后一行可以没有换行符。
+ * 字节区间 [from, to) 表示起点落在区间内的行，拆分时在中点之后的第一个换行符处切开，供并行执行
+ */
+final class LineSeq implements SplittableSeq<Line>, CancellableSeq<Line> {
+    
+    static final long SEGMENT = 1L << 30;
+    // 小于这个字节数的区间不再拆分
+    private static final long MIN_SPLIT = 1 << 16;
+    
+    private final Path path;
+    private final Charset charset;
+    private final long from;
+    // 负数表示到文件末尾
+    private final long to;
+    
+    LineSeq(Path path, Charset charset, long from, long to) {
+        if (!Arrays.equals("\n".getBytes(charset), new byte[]{'\n'}) || !Arrays.equals("\r".getBytes(charset), new byte[]{'\r'})) {
+            throw new IllegalArgumentException("unsupported charset for line splitting: " + charset);
+        }
+        this.path = path;
+        this.charset = charset;
+        this.from = from;
+        this.to = to;
+    }
+    
+    static LineSeq of(Path path, Charset charset) {
+        return new LineSeq(path, charset, 0, -1);
+    }
+    
+    @Override
+    public boolean tryConsume(Predicate<Line> sink) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long end = to < 0 ? size : Math.min(to, size);
+            Line line = new Line(charset);
+            long pos = from;
+            long segment = SEGMENT;
+            while (pos < end) {
+                long length = Math.min(segment, size - pos);
+                boolean last = pos + length == size;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, pos, length);
+                int limit = (int) length;
+                int i = 0;
+                while (pos + i < end) {
+                    int newline = indexOf(buffer, i, limit);
+                    if (newline < 0 && !last) {
+                        // 行跨越了段的末尾，下一段从行首开始
+                        break;
+                    }
+                    int lineEnd = newline < 0 ? limit : newline;
+                    int trimmed = lineEnd > i && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                    line.reset(buffer, i, trimmed - i);
+                    if (!sink.test(line)) {
+                        return false;
+                    }
+                    i = newline < 0 ? limit : newline + 1;
+                }
+                if (i == 0 && pos < end) {
+                    // 一整段都没有换行符：扩大映射范围重试，单行超过 2GB 时无法映射
+                    if (segment >= Integer.MAX_VALUE) {
+                        throw new IllegalStateException("line longer than " + Integer.MAX_VALUE + " bytes at offset " + pos + " in " + path);
+                    }
+                    segment = Integer.MAX_VALUE;
+                    continue;
+                }
+                pos += i;
+                segment = SEGMENT;
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static int indexOf(ByteBuffer buffer, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private long end() {
+        if (to >= 0) {
+            return to;
+        }
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @Override
+    public long sizeEstimate() {
+        return Math.max(end() - from, 0);
+    }
+    
+    @Override
+    public Tuple2<SplittableSeq<Line>, SplittableSeq<Line>> split() {
+        long end = end();
+        if (end - from < MIN_SPLIT) {
+            return null;
+        }
+        long boundary = nextLineStart(from + (end - from) / 2, end);
+        if (boundary <= from || boundary >= end) {
+            return null;
+        }
+        return Tuple.of(new LineSeq(path, charset, from, boundary), new LineSeq(path, charset, boundary, end));
+    }
+    
+    // position 之后（含）第一个换行符的下一个字节，找不到时返回 end
+    private long nextLineStart(long position, long end) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            long pos = position;
+            while (pos < end) {
+                buffer.clear();
+                int n = channel.read(buffer, pos);
+                if (n <= 0) {
+                    return end;
+                }
+                for (int i = 0; i < n; i++) {
+                    if (buffer.get(i) == '\n') {
+                        return pos + i + 1;
+                    }
+                }
+                pos += n;
+            }
+            return end;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package io.whj.seq.seqs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+import java.util.function.*;
+
+/**
+ * long 特化的 Seq：元素通过 {@link LongConsumer} 传递，整个流水线不产生装箱对象
+ */
+@FunctionalInterface
+public interface LongSeq {
+    
+    void consume(LongConsumer consumer);
+    
+    // 可以提前终止的消费，约定与 {@link Seq#tryConsume(java.util.function.Predicate)} 相同
+    default boolean tryConsume(LongPredicate sink) {
+        Stop stop = new Stop();
+        try {
+            consume(t -> {
+                if (!sink.test(t)) {
+                    throw stop;
+                }
+            });
+            return true;
+        } catch (Stop e) {
+            if (e != stop) {
+                throw e;
+            }
+            return false;
+        }
+    }
+    
+    static LongSeq empty() {
+        return (CancellableLongSeq) sink -> true;
+    }
+    
+    static LongSeq unit(long t) {
+        return (CancellableLongSeq) sink -> sink.test(t);
+    }
+    
+    static LongSeq of(long... ts) {
+        return (CancellableLongSeq) sink -> {
+            for (long t : ts) {
+                if (!sink.test(t)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+    
+    // 左闭右开区间 [begin, end)
+    static LongSeq range(long begin, long end) {
+        return (CancellableLongSeq) sink -> {
+            for (long i = begin; i < end; i++) {
+                if (!sink.test(i)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+    
+    // 闭区间 [begin, end]
+    static LongSeq rangeClosed(long begin, long end) {
+        return (CancellableLongSeq) sink -> {
+            if (begin > end) {
+                return true;
+            }
+            long i = begin;
+            if (!sink.test(i)) {
+                return false;
+            }
+            while (i < end) {
+                if (!sink.test(++i)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+    
+    // 等差数列，左闭右开区间，step 可以为负数
+    static LongSeq arithmeticProgression(long begin, long step, long limit) {
+        if (step == 0) {
+            throw new IllegalArgumentException("step must not be zero");
+        }
+        return (CancellableLongSeq) sink -> {
+            long i = begin;
+            if (step > 0) {
+                while (i < limit) {
+                    if (!sink.test(i)) {
+                        return false;
+                    }
+                    // 用无符号比较避免 i + step 溢出
+                    if (Long.compareUnsigned(limit - i, step) <= 0) {
+                        break;
+                    }
+                    i += step;
+                }
+            } else {
+                while (i > limit) {
+                    if (!sink.test(i)) {
+                        return false;
+                    }
+                    if (Long.compareUnsigned(i - limit, -step) <= 0) {
+                        break;
+                    }
+                    i += step;
+                }
+            }
+            return true;
+        };
+    }
+    
+    // 自然数列 [0, Long.MAX_VALUE)
+    static LongSeq naturalNumbers() {
+        return range(0, Long.MAX_VALUE);
+    }
+    
+    // 无限流：每个元素由 supplier 生成
+    static LongSeq generate(LongSupplier supplier) {
+        return (CancellableLongSeq) sink -> {
+            while (sink.test(supplier.getAsLong())) {
+            }
+            return false;
+        };
+    }
+    
+    // 无限流：seed, next(seed), next(next(seed)) ...
+    static LongSeq iterate(long seed, LongUnaryOperator next) {
+        return (CancellableLongSeq) sink -> {
+            long t = seed;
+            while (sink.test(t)) {
+                t = next.applyAsLong(t);
+            }
+            return false;
+        };
+    }
+    
+    // 有限流：相当于 for (t = seed; hasNext.test(t); t = next.applyAsLong(t))
+    static LongSeq iterate(long seed, LongPredicate hasNext, LongUnaryOperator next) {
+        return (CancellableLongSeq) sink -> {
+            for (long t = seed; hasNext.test(t); t = next.applyAsLong(t)) {
+                if (!sink.test(t)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+    
+    // k 路归并若干升序的 LongSeq，相等的值按输入的先后输出。
+    // 便捷写法：每个元素都会装箱，每个输入各自由一个后台线程推送（见 Seq#iterator），对性能敏感时请自行归并原始类型数组
+    static LongSeq mergeSorted(LongSeq... seqs) {
+        List<Seq<Long>> boxed = new ArrayList<>(seqs.length);
+        for (LongSeq seq : seqs) {
+            boxed.add(seq.boxed());
+        }
+        return Seq.mergeSorted(Comparator.<Long>naturalOrder(), boxed).mapToLong(Long::longValue);
+    }
+    
+    default LongSeq map(LongUnaryOperator mapper) {
+        return (CancellableLongSeq) sink -> this.tryConsume(t -> sink.test(mapper.applyAsLong(t)));
+    }
+    
+    default IntSeq mapToInt(LongToIntFunction mapper) {
+        return (CancellableIntSeq) sink -> this.tryConsume(t -> sink.test(mapper.applyAsInt(t)));
+    }
+    
+    default DoubleSeq mapToDouble(LongToDoubleFunction mapper) {
+        return (CancellableDoubleSeq) sink -> this.tryConsume(t -> sink.test(mapper.applyAsDouble(t)));
+    }
+    
+    default <R> Seq<R> mapToObj(LongFunction<R> mapper) {
+        return (CancellableSeq<R>) sink -> this.tryConsume(t -> sink.test(mapper.apply(t)));
+    }
+    
+    default Seq<Long> boxed() {
+        return mapToObj(Long::valueOf);
+    }
+    
+    default DoubleSeq asDoubleSeq() {
+        return (CancellableDoubleSeq) sink -> this.tryConsume(sink::test);
+    }
+    
+    // 平铺元素
+    default LongSeq flatMap(LongFunction<LongSeq> flatmapFn) {
+        return (CancellableLongSeq) sink -> this.tryConsume(t -> flatmapFn.apply(t).tryConsume(sink));
+    }
+    
+    default LongSeq filter(LongPredicate predicate) {
+        return (CancellableLongSeq) sink -> this.tryConsume(t -> !predicate.test(t) || sink.test(t));
+    }
+    
+    default LongSeq peek(LongConsumer peeker) {
+        return (CancellableLongSeq) sink -> this.tryConsume(t -> {
+            peeker.accept(t);
+            return sink.test(t);
+        });
+    }
+    
+    default LongSeq take(int n) {
+        return (CancellableLongSeq) sink -> {
+            if (n <= 0) {
+                return true;
+            }
+            int[] i = {0};
+            boolean[] stopped = {false};
+            this.tryConsume(t -> {
+                if (!sink.test(t)) {
+                    stopped[0] = true;
+                    return false;
+                }
+                return ++i[0] < n;
+            });
+            return !stopped[0];
+        };
+    }
+    
+    default LongSeq take(LongPredicate predicate) {
+        return (CancellableLongSeq) sink -> {
+            boolean[] stopped = {false};
+            this.tryConsume(t -> {
+                if (!predicate.test(t)) {
+                    return false;
+                }
+                if (!sink.test(t)) {
+                    stopped[0] = true;
+                    return false;
+                }
+                return true;
+            });
+            return !stopped[0];
+        };
+    }
+    
+    default LongSeq drop(int n) {
+        return (CancellableLongSeq) sink -> {
+            int[] i = {0};
+            return this.tryConsume(t -> {
+                if (i[0] < n) {
+                    i[0]++;
+                    return true;
+                }
+                return sink.test(t);
+            });
+        };
+    }
+    
+    default LongSeq append(LongSeq other) {
+        return (CancellableLongSeq) sink -> this.tryConsume(sink) && other.tryConsume(sink);
+    }
+    
+    default long sum() {
+        long[] sum = {0};
+        this.consume(t -> sum[0] += t);
+        return sum[0];
+    }
+    
+    default OptionalLong min() {
+        long[] min = {0};
+        boolean[] present = {false};
+        this.consume(t -> {
+            if (!present[0] || t < min[0]) {
+                min[0] = t;
+                present[0] = true;
+            }
+        });
+        return present[0] ? OptionalLong.of(min[0]) : OptionalLong.empty();
+    }
+    
+    default OptionalLong max() {
+        long[] max = {0};
+        boolean[] present = {false};
+        this.consume(t -> {
+            if (!present[0] || t > max[0]) {
+                max[0] = t;
+                present[0] = true;
+            }
+        });
+        return present[0] ? OptionalLong.of(max[0]) : OptionalLong.empty();
+    }
+    
+    default OptionalDouble average() {
+        long[] acc = {0, 0};
+        this.consume(t -> {
+            acc[0] += t;
+            acc[1]++;
+        });
+        return acc[1] == 0 ? OptionalDouble.empty() : OptionalDouble.of((double) acc[0] / acc[1]);
+    }
+    
+    default int length() {
+        int[] i = {0};
+        this.consume(t -> i[0]++);
+        return i[0];
+    }
+    
+    default long[] toArray() {
+        long[][] buffer = {new long[16]};
+        int[] size = {0};
+        this.consume(t -> {
+            if (size[0] == buffer[0].length) {
+                buffer[0] = Arrays.copyOf(buffer[0], size[0] << 1);
+            }
+            buffer[0][size[0]++] = t;
+        });
+        return Arrays.copyOf(buffer[0], size[0]);
+    }
+    
+    default String toArrayString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,59 @@
+package io.whj.seq.seqs;
+
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * {@link BiSeq#of(Map)} 的实现：用 {@link Map#forEach} 推送，提前终止时借助 {@link Stop} 打断遍历
+ */
+final class MapBiSeq<K, V> implements CancellableBiSeq<K, V> {
+    
+    private final Map<K, V> map;
+    
+    MapBiSeq(Map<K, V> map) {
+        this.map = map;
+    }
+    
+    @Override
+    public boolean tryConsume(BiPredicate<K, V> sink) {
+        Stop stop = new Stop();
+        try {
+            map.forEach((k, v) -> {
+                if (!sink.test(k, v)) {
+                    throw stop;
+                }
+            });
+            return true;
+        } catch (Stop e) {
+            if (e != stop) {
+                throw e;
+            }
+            return false;
+        }
+    }
+    
+    @Override
+    public Seq<K> keys() {
+        return Seq.of(map.keySet());
+    }
+    
+    @Override
+    public Seq<V> values() {
+        return Seq.of(map.values());
+    }
+    
+    @Override
+    public int length() {
+        return map.size();
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+    
+    @Override
+    public Map<K, V> toMap() {
+        return toMap(map.size());
+    }
+}
@@ -0,0 +1,330 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.collections.BloomFilter;
+import io.whj.seq.collections.HyperLogLog;
+import io.whj.seq.collections.ObjLongMap;
+import io.whj.seq.tuples.Tuple2;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.*;
+
+/**
+ * 并行执行的 Seq：把可拆分的数据源（数组、RandomAccess 列表）切成若干块，
+ * 每一块在 ForkJoinPool 上独立执行同一条无状态操作链，最后用满足结合律的方式合并结果。
+ * <p>
+ * map/filter/flatMap/peek 等无状态操作保持并行；toList/toSet/toMap/length/reduce/anyMatch 等终止操作并行执行，
+ * 其中 toList 保持遭遇顺序。其余操作（take、sort、distinct 等）以及 {@link #consume(Consumer)} 都按顺序在调用线程执行。
+ * 数据源不可拆分时整体作为一个块执行。
+ *
+ * @param <T> 元素类型
+ */
+@SuppressWarnings("unchecked")
+public final class ParallelSeq<T> implements Seq<T> {
+    
+    private final SplittableSeq<Object> source;
+    private final Function<Seq<Object>, Seq<T>> pipeline;
+    private final ForkJoinPool pool;
+    
+    private ParallelSeq(SplittableSeq<Object> source, Function<Seq<Object>, Seq<T>> pipeline, ForkJoinPool pool) {
+        this.source = source;
+        this.pipeline = pipeline;
+        this.pool = pool;
+    }
+    
+    static <T> ParallelSeq<T> of(Seq<T> seq, ForkJoinPool pool) {
+        Objects.requireNonNull(pool, "pool");
+        if (seq instanceof ParallelSeq) {
+            ParallelSeq<T> parallelSeq = (ParallelSeq<T>) seq;
+            return new ParallelSeq<>(parallelSeq.source, parallelSeq.pipeline, pool);
+        }
+        SplittableSeq<Object> source = seq instanceof SplittableSeq
+                ? (SplittableSeq<Object>) seq
+                : SplittableSeq.single((Seq<Object>) seq);
+        return new ParallelSeq<>(source, s -> (Seq<T>) s, pool);
+    }
+    
+    private <R> ParallelSeq<R> then(Function<Seq<T>, Seq<R>> stage) {
+        return new ParallelSeq<>(source, pipeline.andThen(stage), pool);
+    }
+    
+    // 按遭遇顺序在调用线程中执行
+    @Override
+    public void consume(Consumer<T> consumer) {
+        pipeline.apply(source).consume(consumer);
+    }
+    
+    @Override
+    public boolean tryConsume(Predicate<T> sink) {
+        return pipeline.apply(source).tryConsume(sink);
+    }
+    
+    @Override
+    public ParallelSeq<T> parallel(ForkJoinPool pool) {
+        return of(this, pool);
+    }
+    
+    // 切换回顺序执行，后续操作都在调用线程中执行
+    public Seq<T> sequential() {
+        return pipeline.apply(source);
+    }
+    
+    // 每个块执行的都是同一条计划
+    @Override
+    public String explain() {
+        StringBuilder sb = new StringBuilder("Parallel(parallelism=").append(pool.getParallelism()).append(")\n");
+        for (String line : pipeline.apply(source).explain().split("\n")) {
+            sb.append("  ").append(line).append('\n');
+        }
+        return sb.toString();
+    }
+    
+    @Override
+    public <R> ParallelSeq<R> map(Function<T, R> mapFn) {
+        return then(s -> s.map(mapFn));
+    }
+    
+    @Override
+    public <R> ParallelSeq<R> map(Function<T, R> mapper, Predicate<T> predicate) {
+        return then(s -> s.map(mapper, predicate));
+    }
+    
+    @Override
+    public <R> ParallelSeq<R> mapNotNull(Function<T, R> mapper) {
+        return then(s -> s.mapNotNull(mapper));
+    }
+    
+    @Override
+    public <R> ParallelSeq<R> flatMap(Function<T, Seq<R>> flatmapFn) {
+        return then(s -> s.flatMap(flatmapFn));
+    }
+    
+    @Override
+    public <R> ParallelSeq<R> flatMapIterable(Function<T, Iterable<R>> flatmapFn) {
+        return then(s -> s.flatMapIterable(flatmapFn));
+    }
+    
+    @Override
+    public ParallelSeq<T> filter(Predicate<T> predicate) {
+        return then(s -> s.filter(predicate));
+    }
+    
+    @Override
+    public ParallelSeq<T> filterNotNull() {
+        return then(Seq::filterNotNull);
+    }
+    
+    // peeker 会被多个线程同时调用
+    @Override
+    public ParallelSeq<T> peek(Consumer<T> peeker) {
+        return then(s -> s.peek(peeker));
+    }
+    
+    @Override
+    public List<T> toList() {
+        return evaluate(ArrayList::new, List::add, (l, r) -> {
+            l.addAll(r);
+            return l;
+        });
+    }
+    
+    @Override
+    public Set<T> toSet() {
+        return evaluate(HashSet::new, Set::add, (l, r) -> {
+            l.addAll(r);
+            return l;
+        });
+    }
+    
+    // 与顺序执行一致：key 冲突时保留遭遇顺序中靠后的值
+    @Override
+    public <K, V> Map<K, V> toMap(Function<T, K> keyFn, Function<T, V> valueFn) {
+        return evaluate(HashMap::new, (map, t) -> {
+            if (t == null) {
+                map.put(null, null);
+            } else {
+                map.put(keyFn.apply(t), valueFn.apply(t));
+            }
+        }, (l, r) -> {
+            l.putAll(r);
+            return l;
+        });
+    }
+    
+    @Override
+    public int length() {
+        return evaluate(() -> new int[1], (a, t) -> a[0]++, (l, r) -> {
+            l[0] += r[0];
+            return l;
+        })[0];
+    }
+    
+    // accumulator 在每个块内部累加，combiner 按遭遇顺序合并相邻块的结果，两者都必须满足结合律
+    @Override
+    public <R> R reduce(R identity, BiFunction<R, T, R> accumulator, BinaryOperator<R> combiner) {
+        return (R) evaluate(() -> new Object[]{identity}, (a, t) -> a[0] = accumulator.apply((R) a[0], t), (l, r) -> {
+            l[0] = combiner.apply((R) l[0], (R) r[0]);
+            return l;
+        })[0];
+    }
+    
+    // 任意一个块命中后，其余块在处理下一个元素前就会停止
+    @Override
+    public boolean anyMatch(Predicate<T> predicate) {
+        AtomicBoolean found = new AtomicBoolean();
+        pool.invoke(new Task<Void>(source, found, part -> {
+            pipeline.apply(part).tryConsume(t -> {
+                if (found.get()) {
+                    return false;
+                }
+                if (predicate.test(t)) {
+                    found.set(true);
+                    return false;
+                }
+                return true;
+            });
+            return null;
+        }, (l, r) -> null));
+        return found.get();
+    }
+    
+    @Override
+    public boolean allMatch(Predicate<T> predicate) {
+        return !anyMatch(predicate.negate());
+    }
+    
+    @Override
+    public boolean noneMatch(Predicate<T> predicate) {
+        return !anyMatch(predicate);
+    }
+    
+    // 以下按 key 聚合的操作：每个块各自聚合到一张局部表，再按遭遇顺序两两合并
+    
+    @Override
+    public <K, V> Map<K, List<V>> groupBy(Function<T, K> keyFn, Function<T, V> valueFn) {
+        return evaluate(HashMap::new,
+                (map, t) -> map.computeIfAbsent(keyFn.apply(t), k -> new ArrayList<>()).add(valueFn.apply(t)),
+                (l, r) -> {
+                    r.forEach((k, v) -> l.merge(k, v, (a, b) -> {
+                        a.addAll(b);
+                        return a;
+                    }));
+                    return l;
+                });
+    }
+    
+    @Override
+    public <K> ObjLongMap<K> countBy(Function<T, K> keyFn) {
+        return evaluate(ObjLongMap::new, (map, t) -> map.addTo(keyFn.apply(t), 1), ObjLongMap::merge);
+    }
+    
+    @Override
+    public <K> ObjLongMap<K> sumBy(Function<T, K> keyFn, ToLongFunction<T> valueFn) {
+        return evaluate(ObjLongMap::new, (map, t) -> map.addTo(keyFn.apply(t), valueFn.applyAsLong(t)), ObjLongMap::merge);
+    }
+    
+    @Override
+    public <K, V> Map<K, V> reduceByKey(Function<T, K> keyFn, Function<T, V> valueFn, BinaryOperator<V> reducer) {
+        return aggregateByKey(keyFn, () -> null, (acc, t) -> {
+            V value = valueFn.apply(t);
+            return acc == null ? value : reducer.apply(acc, value);
+        }, reducer);
+    }
+    
+    @Override
+    public <K, A> Map<K, A> aggregateByKey(Function<T, K> keyFn, Supplier<A> zero,
+                                           BiFunction<A, T, A> accumulator, BinaryOperator<A> combiner) {
+        return evaluate(HashMap::new,
+                (Map<K, A> map, T t) -> map.compute(keyFn.apply(t), (k, acc) -> accumulator.apply(acc == null ? zero.get() : acc, t)),
+                (l, r) -> {
+                    r.forEach((k, v) -> l.merge(k, v, combiner));
+                    return l;
+                });
+    }
+    
+    // 每个块各自维护一个大小为 k 的堆，再按遭遇顺序两两合并
+    @Override
+    public List<T> bottomK(int k, Comparator<T> comparator) {
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+        return evaluate(() -> new BoundedHeap<>(k, comparator), BoundedHeap::offer, BoundedHeap::merge).toList();
+    }
+    
+    @Override
+    public Optional<T> min(Comparator<T> comparator) {
+        List<T> min = bottomK(1, comparator);
+        return min.isEmpty() ? Optional.empty() : Optional.ofNullable(min.get(0));
+    }
+    
+    // 每个块各自统计一个草图，再按寄存器合并
+    @Override
+    public HyperLogLog toHyperLogLog(int precision) {
+        return evaluate(() -> new HyperLogLog(precision), HyperLogLog::add, HyperLogLog::merge);
+    }
+    
+    // 布隆过滤器按预计元素个数分配，所有块共用同一个，内存不随块数增加
+    @Override
+    public BloomFilter toBloomFilter(long expectedInsertions, double fpp) {
+        BloomFilter filter = new BloomFilter(expectedInsertions, fpp);
+        evaluate(() -> filter, BloomFilter::putConcurrently, (l, r) -> l);
+        return filter;
+    }
+    
+    private <A> A evaluate(Supplier<A> supplier, BiConsumer<A, T> accumulator, BinaryOperator<A> combiner) {
+        return pool.invoke(new Task<>(source, null, part -> {
+            A acc = supplier.get();
+            pipeline.apply(part).consume(t -> accumulator.accept(acc, t));
+            return acc;
+        }, combiner));
+    }
+    
+    // 每个块的目标大小：让每个工作线程大约分到 4 块，便于 work stealing 平衡负载
+    private long threshold() {
+        long size = source.sizeEstimate();
+        return Math.max(size / ((long) pool.getParallelism() << 2), 1);
+    }
+    
+    private final class Task<A> extends RecursiveTask<A> {
+        private static final long serialVersionUID = 1L;
+        
+        private final SplittableSeq<Object> part;
+        private final AtomicBoolean cancelled;
+        private final Function<Seq<Object>, A> leaf;
+        private final BinaryOperator<A> combiner;
+        private final long threshold;
+        
+        Task(SplittableSeq<Object> part, AtomicBoolean cancelled, Function<Seq<Object>, A> leaf, BinaryOperator<A> combiner) {
+            this(part, cancelled, leaf, combiner, threshold());
+        }
+        
+        private Task(SplittableSeq<Object> part, AtomicBoolean cancelled, Function<Seq<Object>, A> leaf,
+                     BinaryOperator<A> combiner, long threshold) {
+            this.part = part;
+            this.cancelled = cancelled;
+            this.leaf = leaf;
+            this.combiner = combiner;
+            this.threshold = threshold;
+        }
+        
+        @Override
+        protected A compute() {
+            if (cancelled != null && cancelled.get()) {
+                return null;
+            }
+            Tuple2<SplittableSeq<Object>, SplittableSeq<Object>> halves =
+                    part.sizeEstimate() > threshold ? part.split() : null;
+            if (halves == null) {
+                return leaf.apply(part);
+            }
+            Task<A> left = new Task<>(halves._1(), cancelled, leaf, combiner, threshold);
+            Task<A> right = new Task<>(halves._2(), cancelled, leaf, combiner, threshold);
+            left.fork();
+            A r = right.compute();
+            A l = left.join();
+            return combiner.apply(l, r);
+        }
+    }
+}
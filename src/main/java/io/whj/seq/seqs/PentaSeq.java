@@ -0,0 +1,70 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.consumers.Consumer5;
+import io.whj.seq.functions.Function5;
+import io.whj.seq.predicates.Predicate5;
+import io.whj.seq.tuples.Tuple;
+import io.whj.seq.tuples.Tuple5;
+
+/**
+ * 五元版本的 {@link TriSeq}
+ */
+public interface PentaSeq<T1, T2, T3, T4, T5> {
+    
+    void consume(Consumer5<T1, T2, T3, T4, T5> consumer);
+    
+    // 可以提前终止的消费，约定与 {@link Seq#tryConsume(java.util.function.Predicate)} 相同
+    default boolean tryConsume(Predicate5<T1, T2, T3, T4, T5> sink) {
+        Stop stop = new Stop();
+        try {
+            consume((t1, t2, t3, t4, t5) -> {
+                if (!sink.test(t1, t2, t3, t4, t5)) {
+                    throw stop;
+                }
+            });
+            return true;
+        } catch (Stop e) {
+            if (e != stop) {
+                throw e;
+            }
+            return false;
+        }
+    }
+    
+    // 解构元组
+    static <T1, T2, T3, T4, T5> PentaSeq<T1, T2, T3, T4, T5> of(Seq<Tuple5<T1, T2, T3, T4, T5>> seq) {
+        return (CancellablePentaSeq<T1, T2, T3, T4, T5>) sink -> seq.tryConsume(t -> sink.test(t._1(), t._2(), t._3(), t._4(), t._5()));
+    }
+    
+    static <T1, T2, T3, T4, T5> PentaSeq<T1, T2, T3, T4, T5> zip(Seq<T1> s1, Seq<T2> s2, Seq<T3> s3, Seq<T4> s4, Seq<T5> s5) {
+        return (CancellablePentaSeq<T1, T2, T3, T4, T5>) sink -> {
+            try (SeqIterator<T2> i2 = s2.iterator(); SeqIterator<T3> i3 = s3.iterator(); SeqIterator<T4> i4 = s4.iterator(); SeqIterator<T5> i5 = s5.iterator()) {
+                boolean[] stopped = {false};
+                s1.tryConsume(t1 -> {
+                    if (!i2.hasNext() || !i3.hasNext() || !i4.hasNext() || !i5.hasNext()) {
+                        return false;
+                    }
+                    if (!sink.test(t1, i2.next(), i3.next(), i4.next(), i5.next())) {
+                        stopped[0] = true;
+                        return false;
+                    }
+                    return true;
+                });
+                return !stopped[0];
+            }
+        };
+    }
+    
+    default <R> Seq<R> map(Function5<T1, T2, T3, T4, T5, R> mapper) {
+        return (CancellableSeq<R>) sink -> this.tryConsume((t1, t2, t3, t4, t5) -> sink.test(mapper.apply(t1, t2, t3, t4, t5)));
+    }
+    
+    default PentaSeq<T1, T2, T3, T4, T5> filter(Predicate5<T1, T2, T3, T4, T5> predicate) {
+        return (CancellablePentaSeq<T1, T2, T3, T4, T5>) sink -> this.tryConsume((t1, t2, t3, t4, t5) -> !predicate.test(t1, t2, t3, t4, t5) || sink.test(t1, t2, t3, t4, t5));
+    }
+    
+    // 只在需要元组的边界上调用
+    default Seq<Tuple5<T1, T2, T3, T4, T5>> toTuples() {
+        return map((t1, t2, t3, t4, t5) -> Tuple.of(t1, t2, t3, t4, t5));
+    }
+}
@@ -0,0 +1,311 @@
+package io.whj.seq.seqs;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 执行计划中的一个操作节点：记住上游和自身的参数，而不是只留下一个闭包，
+ * 后续调用的操作可以据此改写计划，{@link Seq#explain()} 也能把整条计划打印出来。
+ * <p>
+ * 目前的改写规则：
+ * <ul>
+ *     <li>相邻的 map、相邻的 filter 合并成一个节点</li>
+ *     <li>take/drop/last(n) 下推到 map 之前，sort 之后的 filter 上推到 sort 之前</li>
+ *     <li>sort + take(k) 改为有界堆，sort + head/last 改为线性扫描</li>
+ *     <li>数组、RandomAccess 列表上的 length/take/drop/last(n) 直接计算下标区间，见 {@link IndexedSeq}</li>
+ * </ul>
+ * 改写假设传入的函数没有副作用：例如 map 之后的 length 不会再调用 map 函数
+ *
+ * @param <T> 元素类型
+ */
+abstract class PlanSeq<T> implements CancellableSeq<T> {
+    
+    final Seq<?> upstream;
+    
+    PlanSeq(Seq<?> upstream) {
+        this.upstream = upstream;
+    }
+    
+    // explain 中显示的节点名称
+    abstract String label();
+    
+    static String explain(Seq<?> seq) {
+        StringBuilder sb = new StringBuilder();
+        String indent = "";
+        while (seq instanceof PlanSeq) {
+            PlanSeq<?> node = (PlanSeq<?>) seq;
+            sb.append(indent).append(node.label()).append('\n');
+            indent += "  ";
+            seq = node.upstream;
+        }
+        String source = seq instanceof IndexedSeq ? ((IndexedSeq<?>) seq).label() : seq.explain();
+        for (String line : source.split("\n")) {
+            sb.append(indent).append(line).append('\n');
+        }
+        return sb.toString();
+    }
+    
+    // 连续的 map 合并成一次函数调用
+    static final class MapNode<S, T> extends PlanSeq<T> {
+        private final Function<S, T> mapper;
+        private final int fused;
+        
+        MapNode(Seq<S> upstream, Function<S, T> mapper, int fused) {
+            super(upstream);
+            this.mapper = mapper;
+            this.fused = fused;
+        }
+        
+        @SuppressWarnings("unchecked")
+        private Seq<S> source() {
+            return (Seq<S>) upstream;
+        }
+        
+        @Override
+        String label() {
+            return fused > 1 ? "Map x" + fused : "Map";
+        }
+        
+        @Override
+        public boolean tryConsume(Predicate<T> sink) {
+            Function<S, T> f = mapper;
+            return source().tryConsume(s -> sink.test(f.apply(s)));
+        }
+        
+        @Override
+        public <R> Seq<R> map(Function<T, R> mapFn) {
+            return new MapNode<>(source(), mapper.andThen(mapFn), fused + 1);
+        }
+        
+        // map 不改变元素个数和位置，截取操作可以先在上游执行
+        @Override
+        public Seq<T> take(int n) {
+            return new MapNode<>(source().take(n), mapper, fused);
+        }
+        
+        @Override
+        public Seq<T> drop(int n) {
+            return new MapNode<>(source().drop(n), mapper, fused);
+        }
+        
+        @Override
+        public Seq<T> last(int n) {
+            return new MapNode<>(source().last(n), mapper, fused);
+        }
+        
+        @Override
+        public int length() {
+            return source().length();
+        }
+        
+        @Override
+        public boolean isEmpty() {
+            return source().isEmpty();
+        }
+        
+        // 在上游的游标上映射：数组和列表之上的 map 也可以直接按下标拉取，映射函数在调用方线程执行
+        @Override
+        public SeqIterator<T> iterator() {
+            SeqIterator<S> iterator = source().iterator();
+            Function<S, T> f = mapper;
+            return new SeqIterator<T>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+                
+                @Override
+                public T next() {
+                    return f.apply(iterator.next());
+                }
+                
+                @Override
+                public void close() {
+                    iterator.close();
+                }
+            };
+        }
+    }
+    
+    // 连续的 filter 合并成一个谓词
+    static final class FilterNode<T> extends PlanSeq<T> {
+        private final Predicate<T> predicate;
+        private final int fused;
+        
+        FilterNode(Seq<T> upstream, Predicate<T> predicate, int fused) {
+            super(upstream);
+            this.predicate = predicate;
+            this.fused = fused;
+        }
+        
+        @SuppressWarnings("unchecked")
+        private Seq<T> source() {
+            return (Seq<T>) upstream;
+        }
+        
+        @Override
+        String label() {
+            return fused > 1 ? "Filter x" + fused : "Filter";
+        }
+        
+        @Override
+        public boolean tryConsume(Predicate<T> sink) {
+            Predicate<T> p = predicate;
+            return source().tryConsume(t -> !p.test(t) || sink.test(t));
+        }
+        
+        @Override
+        public Seq<T> filter(Predicate<T> next) {
+            return new FilterNode<>(source(), predicate.and(next), fused + 1);
+        }
+    }
+    
+    // 稳定排序：需要缓存全部元素，尽量被后续操作改写掉；指定了 spill 时超出内存上限的部分溢写到磁盘
+    static final class SortNode<T> extends PlanSeq<T> {
+        final Comparator<T> comparator;
+        final Spill<T> spill;
+        
+        SortNode(Seq<T> upstream, Comparator<T> comparator, Spill<T> spill) {
+            super(upstream);
+            this.comparator = comparator;
+            this.spill = spill;
+        }
+        
+        @SuppressWarnings("unchecked")
+        Seq<T> source() {
+            return (Seq<T>) upstream;
+        }
+        
+        @Override
+        String label() {
+            return spill == null ? "Sort" : "ExternalSort(maxInMemory=" + spill.maxInMemory + ")";
+        }
+        
+        @Override
+        public boolean tryConsume(Predicate<T> sink) {
+            if (spill != null) {
+                return ExternalSort.sort(source(), comparator, spill, sink);
+            }
+            List<T> list = new ArrayList<>();
+            source().consume(list::add);
+            list.sort(comparator);
+            for (T t : list) {
+                if (!sink.test(t)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        // 堆超出内存上限时仍然外部排序
+        @Override
+        public Seq<T> take(int n) {
+            if (spill != null && n > spill.maxInMemory) {
+                return super.take(n);
+            }
+            return new TopKNode<>(source(), comparator, n);
+        }
+        
+        // 先过滤再排序，参与排序的元素更少
+        @Override
+        public Seq<T> filter(Predicate<T> predicate) {
+            return new SortNode<>(source().filter(predicate), comparator, spill);
+        }
+        
+        // 稳定排序两次等价于以后一次为主、前一次为次的一次排序
+        @Override
+        public Seq<T> sort(Comparator<T> next) {
+            return new SortNode<>(source(), next.thenComparing(comparator), spill);
+        }
+        
+        @Override
+        public Optional<T> head() {
+            return extreme(source(), comparator, false);
+        }
+        
+        @Override
+        public Optional<T> last() {
+            return extreme(source(), comparator, true);
+        }
+        
+        @Override
+        public int length() {
+            return source().length();
+        }
+        
+        @Override
+        public boolean isEmpty() {
+            return source().isEmpty();
+        }
+    }
+    
+    // sort + take(k)：只保留最小的 k 个元素
+    static final class TopKNode<T> extends PlanSeq<T> {
+        private final Comparator<T> comparator;
+        private final int k;
+        
+        TopKNode(Seq<T> upstream, Comparator<T> comparator, int k) {
+            super(upstream);
+            this.comparator = comparator;
+            this.k = Math.max(k, 0);
+        }
+        
+        @SuppressWarnings("unchecked")
+        private Seq<T> source() {
+            return (Seq<T>) upstream;
+        }
+        
+        @Override
+        String label() {
+            return "TopK(k=" + k + ")";
+        }
+        
+        @Override
+        public boolean tryConsume(Predicate<T> sink) {
+            if (k == 0) {
+                return true;
+            }
+            BoundedHeap<T> heap = new BoundedHeap<>(k, comparator);
+            source().consume(heap::offer);
+            for (int i = 0, n = heap.drain(); i < n; i++) {
+                if (!sink.test(heap.element(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        @Override
+        public Seq<T> take(int n) {
+            return n < k ? new TopKNode<>(source(), comparator, n) : this;
+        }
+        
+        @Override
+        public Optional<T> head() {
+            return k == 0 ? Optional.empty() : extreme(source(), comparator, false);
+        }
+    }
+    
+    // 一次遍历找出排序后的第一个（相等时取最先遇到的）或最后一个（相等时取最后遇到的）元素
+    @SuppressWarnings("unchecked")
+    static <T> Optional<T> extreme(Seq<T> seq, Comparator<T> comparator, boolean last) {
+        Object[] b = {null};
+        boolean[] present = {false};
+        seq.consume(t -> {
+            if (!present[0]) {
+                b[0] = t;
+                present[0] = true;
+                return;
+            }
+            int c = comparator.compare(t, (T) b[0]);
+            if (last ? c >= 0 : c < 0) {
+                b[0] = t;
+            }
+        });
+        return Optional.ofNullable((T) b[0]);
+    }
+}
@@ -0,0 +1,183 @@
+package io.whj.seq.seqs;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 把推送式的 Seq 转成拉取式游标：后台线程执行 tryConsume，把元素按批次交给一个有界队列，调用方按需取出。
+ * <p>
+ * 内存占用以 {@link #BATCH} * {@link #QUEUE_CAPACITY} 为上限，不会把整个流物化；
+ * 调用方在等待时生产方会立即提交未满的批次，慢速数据源也不会被攒批拖慢。
+ * 运行在支持虚拟线程的 JVM 上时使用虚拟线程，否则使用守护线程。
+ * 游标被关闭或者不再可达时，生产方会在下一个元素处停止。
+ */
+@SuppressWarnings("unchecked")
+final class PushIterator<T> implements SeqIterator<T> {
+    
+    static final int BATCH = 256;
+    static final int QUEUE_CAPACITY = 4;
+    private static final Object[] END = new Object[0];
+    private static final MethodHandle VIRTUAL_THREAD = virtualThreadFactory();
+    
+    private final Seq<T> seq;
+    private final Channel channel = new Channel();
+    private Object[] batch = new Object[0];
+    private int index;
+    private boolean started;
+    private boolean finished;
+    
+    PushIterator(Seq<T> seq) {
+        this.seq = seq;
+    }
+    
+    // 生产方和消费方共享的状态，生产方不能持有游标本身，否则游标永远不会被回收
+    static final class Channel {
+        final ArrayBlockingQueue<Object[]> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        volatile boolean closed;
+        volatile boolean waiting;
+        volatile Throwable failure;
+        
+        // 游标被关闭或者被回收时返回 false
+        boolean put(Object[] batch, WeakReference<?> owner) {
+            try {
+                while (!closed) {
+                    if (queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                    if (owner.get() == null) {
+                        closed = true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                closed = true;
+            }
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean hasNext() {
+        if (index < batch.length) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        if (!started) {
+            started = true;
+            start();
+        }
+        Object[] next;
+        channel.waiting = true;
+        try {
+            next = channel.queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IllegalStateException("interrupted while waiting for next element", e);
+        } finally {
+            channel.waiting = false;
+        }
+        if (next == END) {
+            finished = true;
+            Throwable failure = channel.failure;
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            return false;
+        }
+        batch = next;
+        index = 0;
+        return true;
+    }
+    
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T t = (T) batch[index];
+        batch[index++] = null;
+        return t;
+    }
+    
+    @Override
+    public void close() {
+        finished = true;
+        batch = END;
+        index = 0;
+        channel.closed = true;
+        channel.queue.clear();
+    }
+    
+    private void start() {
+        Thread thread = newThread(producer(seq, channel, new WeakReference<>(this)));
+        thread.start();
+    }
+    
+    private static <T> Runnable producer(Seq<T> seq, Channel channel, WeakReference<?> owner) {
+        return () -> {
+            Object[][] buffer = {new Object[BATCH]};
+            int[] size = {0};
+            boolean delivered = true;
+            try {
+                boolean completed = seq.tryConsume(t -> {
+                    if (channel.closed) {
+                        return false;
+                    }
+                    buffer[0][size[0]++] = t;
+                    if (size[0] == BATCH || channel.waiting) {
+                        if (!channel.put(Arrays.copyOf(buffer[0], size[0]), owner)) {
+                            return false;
+                        }
+                        size[0] = 0;
+                    }
+                    return true;
+                });
+                if (completed && size[0] > 0) {
+                    delivered = channel.put(Arrays.copyOf(buffer[0], size[0]), owner);
+                }
+            } catch (Throwable e) {
+                channel.failure = e;
+            }
+            if (delivered) {
+                channel.put(END, owner);
+            }
+        };
+    }
+    
+    static Thread newThread(Runnable task) {
+        if (VIRTUAL_THREAD != null) {
+            try {
+                return (Thread) VIRTUAL_THREAD.invoke(task);
+            } catch (Throwable ignore) {
+                // 退回到平台线程
+            }
+        }
+        Thread thread = new Thread(task, "seq-iterator");
+        thread.setDaemon(true);
+        return thread;
+    }
+    
+    // Thread.ofVirtual().unstarted(task)，JDK 21 之前不存在时返回 null
+    private static MethodHandle virtualThreadFactory() {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(Class.forName("java.lang.Thread$Builder$OfVirtual"))).invoke();
+            MethodHandle unstarted = lookup.findVirtual(builderClass, "unstarted", MethodType.methodType(Thread.class, Runnable.class));
+            return unstarted.bindTo(builder);
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.consumers.Consumer4;
+import io.whj.seq.functions.Function4;
+import io.whj.seq.predicates.Predicate4;
+import io.whj.seq.tuples.Tuple;
+import io.whj.seq.tuples.Tuple4;
+
+/**
+ * 四元版本的 {@link TriSeq}
+ */
+public interface QuadSeq<T1, T2, T3, T4> {
+    
+    void consume(Consumer4<T1, T2, T3, T4> consumer);
+    
+    // 可以提前终止的消费，约定与 {@link Seq#tryConsume(java.util.function.Predicate)} 相同
+    default boolean tryConsume(Predicate4<T1, T2, T3, T4> sink) {
+        Stop stop = new Stop();
+        try {
+            consume((t1, t2, t3, t4) -> {
+                if (!sink.test(t1, t2, t3, t4)) {
+                    throw stop;
+                }
+            });
+            return true;
+        } catch (Stop e) {
+            if (e != stop) {
+                throw e;
+            }
+            return false;
+        }
+    }
+    
+    // 解构元组
+    static <T1, T2, T3, T4> QuadSeq<T1, T2, T3, T4> of(Seq<Tuple4<T1, T2, T3, T4>> seq) {
+        return (CancellableQuadSeq<T1, T2, T3, T4>) sink -> seq.tryConsume(t -> sink.test(t._1(), t._2(), t._3(), t._4()));
+    }
+    
+    static <T1, T2, T3, T4> QuadSeq<T1, T2, T3, T4> zip(Seq<T1> s1, Seq<T2> s2, Seq<T3> s3, Seq<T4> s4) {
+        return (CancellableQuadSeq<T1, T2, T3, T4>) sink -> {
+            try (SeqIterator<T2> i2 = s2.iterator(); SeqIterator<T3> i3 = s3.iterator(); SeqIterator<T4> i4 = s4.iterator()) {
+                boolean[] stopped = {false};
+                s1.tryConsume(t1 -> {
+                    if (!i2.hasNext() || !i3.hasNext() || !i4.hasNext()) {
+                        return false;
+                    }
+                    if (!sink.test(t1, i2.next(), i3.next(), i4.next())) {
+                        stopped[0] = true;
+                        return false;
+                    }
+                    return true;
+                });
+                return !stopped[0];
+            }
+        };
+    }
+    
+    default <R> Seq<R> map(Function4<T1, T2, T3, T4, R> mapper) {
+        return (CancellableSeq<R>) sink -> this.tryConsume((t1, t2, t3, t4) -> sink.test(mapper.apply(t1, t2, t3, t4)));
+    }
+    
+    default QuadSeq<T1, T2, T3, T4> filter(Predicate4<T1, T2, T3, T4> predicate) {
+        return (CancellableQuadSeq<T1, T2, T3, T4>) sink -> this.tryConsume((t1, t2, t3, t4) -> !predicate.test(t1, t2, t3, t4) || sink.test(t1, t2, t3, t4));
+    }
+    
+    // 只在需要元组的边界上调用
+    default Seq<Tuple4<T1, T2, T3, T4>> toTuples() {
+        return map((t1, t2, t3, t4) -> Tuple.of(t1, t2, t3, t4));
+    }
+}
@@ -0,0 +1,208 @@
+package io.whj.seq.seqs;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 把一行切成字段并按列解析，每次遍历创建一个，内部的缓冲区在行之间复用。
+ * <p>
+ * {@link #parse(Line)} 只扫描到需要的最后一列为止，记录各字段的字节区间；
+ * {@link #get(int)} 才真正解析某一列，因此没有被引用的列不会被解码
+ */
+final class RecordParser {
+    
+    private static final byte QUOTE = '"';
+    // 10^0 .. 10^22 都可以用 double 精确表示
+    private static final double[] POW10 = new double[23];
+    
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+    
+    private final Column<?>[] columns;
+    private final byte delimiter;
+    private final Charset charset;
+    // 字段 i 的字节区间 [starts[i], ends[i])，starts[i] < 0 表示这一行没有这个字段
+    private final int[] starts;
+    private final int[] ends;
+    private ByteBuffer buffer;
+    private int offset;
+    private byte[] scratch = new byte[64];
+    
+    RecordParser(Column<?>[] columns, byte delimiter, Charset charset) {
+        this.columns = columns;
+        this.delimiter = delimiter;
+        this.charset = charset;
+        int last = 0;
+        for (Column<?> column : columns) {
+            last = Math.max(last, column.index);
+        }
+        this.starts = new int[last + 1];
+        this.ends = new int[last + 1];
+    }
+    
+    void parse(Line line) {
+        buffer = line.buffer();
+        offset = line.offset();
+        int length = line.byteLength();
+        Arrays.fill(starts, -1);
+        int field = 0;
+        int start = 0;
+        boolean quoted = false;
+        for (int i = 0; i < length; i++) {
+            byte b = buffer.get(offset + i);
+            if (b == QUOTE) {
+                quoted = !quoted;
+            } else if (b == delimiter && !quoted) {
+                starts[field] = start;
+                ends[field] = i;
+                if (++field == starts.length) {
+                    return;
+                }
+                start = i + 1;
+            }
+        }
+        starts[field] = start;
+        ends[field] = length;
+    }
+    
+    // 第 k 个被引用的列的值
+    @SuppressWarnings("unchecked")
+    <V> V get(int k) {
+        Column<?> column = columns[k];
+        int start = starts[column.index];
+        int end = ends[column.index];
+        if (start < 0) {
+            return null;
+        }
+        if (column.kind == Column.Kind.STRING) {
+            return (V) decode(start, end);
+        }
+        // 数值列允许带引号
+        if (end - start >= 2 && buffer.get(offset + start) == QUOTE && buffer.get(offset + end - 1) == QUOTE) {
+            start++;
+            end--;
+        }
+        if (start == end) {
+            return null;
+        }
+        switch (column.kind) {
+            case INT:
+                long v = parseLong(start, end, column);
+                if (v < Integer.MIN_VALUE || v > Integer.MAX_VALUE) {
+                    throw error(start, end, column);
+                }
+                return (V) Integer.valueOf((int) v);
+            case LONG:
+                return (V) Long.valueOf(parseLong(start, end, column));
+            default:
+                return (V) Double.valueOf(parseDouble(start, end, column));
+        }
+    }
+    
+    // 按负数累加，Long.MIN_VALUE 也不会溢出
+    private long parseLong(int start, int end, Column<?> column) {
+        int i = start;
+        byte first = buffer.get(offset + i);
+        boolean negative = first == '-';
+        if (negative || first == '+') {
+            i++;
+        }
+        if (i == end) {
+            throw error(start, end, column);
+        }
+        long v = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(offset + i) - '0';
+            if (digit < 0 || digit > 9 || v < (Long.MIN_VALUE + digit) / 10) {
+                throw error(start, end, column);
+            }
+            v = v * 10 - digit;
+        }
+        if (!negative && v == Long.MIN_VALUE) {
+            throw error(start, end, column);
+        }
+        return negative ? v : -v;
+    }
+    
+    // 快速路径：不超过 2^53 的尾数除以不超过 10^22 的幂，两者都是精确值，一次除法的结果是正确舍入的；
+    // 带指数、位数过多等情况交给 Double.parseDouble
+    private double parseDouble(int start, int end, Column<?> column) {
+        int i = start;
+        byte first = buffer.get(offset + i);
+        boolean negative = first == '-';
+        if (negative || first == '+') {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fraction = -1;
+        for (; i < end; i++) {
+            byte b = buffer.get(offset + i);
+            if (b >= '0' && b <= '9') {
+                if (digits == 18) {
+                    return slowDouble(start, end, column);
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (fraction >= 0) {
+                    fraction++;
+                }
+            } else if (b == '.' && fraction < 0) {
+                fraction = 0;
+            } else {
+                return slowDouble(start, end, column);
+            }
+        }
+        if (digits == 0 || mantissa >= 1L << 53 || fraction >= POW10.length) {
+            return slowDouble(start, end, column);
+        }
+        double v = fraction > 0 ? mantissa / POW10[fraction] : mantissa;
+        return negative ? -v : v;
+    }
+    
+    private double slowDouble(int start, int end, Column<?> column) {
+        try {
+            return Double.parseDouble(ascii(start, end));
+        } catch (NumberFormatException e) {
+            throw error(start, end, column);
+        }
+    }
+    
+    private String decode(int start, int end) {
+        if (end - start >= 2 && buffer.get(offset + start) == QUOTE && buffer.get(offset + end - 1) == QUOTE) {
+            start++;
+            end--;
+        }
+        if (scratch.length < end - start) {
+            scratch = new byte[Math.max(end - start, scratch.length << 1)];
+        }
+        int n = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(offset + i);
+            // "" 还原成 "
+            if (b == QUOTE && i + 1 < end && buffer.get(offset + i + 1) == QUOTE) {
+                i++;
+            }
+            scratch[n++] = b;
+        }
+        return new String(scratch, 0, n, charset);
+    }
+    
+    private String ascii(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = start; i < end; i++) {
+            bytes[i - start] = buffer.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+    
+    private NumberFormatException error(int start, int end, Column<?> column) {
+        return new NumberFormatException("column " + column + ": \"" + ascii(start, end) + "\"");
+    }
+}
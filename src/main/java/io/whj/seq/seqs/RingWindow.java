@@ -0,0 +1,68 @@
+package io.whj.seq.seqs;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * windowed/chunked 使用的环形缓冲区，同时也是交给下游的只读窗口视图（修改操作都会抛出 UnsupportedOperationException）：
+ * 视图模式下每个窗口都是同一个对象，内容在下一个元素到达时就会改变
+ *
+ * @param <T> 元素类型
+ */
+@SuppressWarnings("unchecked")
+final class RingWindow<T> extends AbstractList<T> implements RandomAccess {
+    
+    private final Object[] buffer;
+    private int start;
+    private int size;
+    
+    RingWindow(int capacity) {
+        this.buffer = new Object[capacity];
+    }
+    
+    boolean isFull() {
+        return size == buffer.length;
+    }
+    
+    void push(T t) {
+        int end = start + size;
+        buffer[end < buffer.length ? end : end - buffer.length] = t;
+        size++;
+    }
+    
+    // 丢弃最前面的 n 个元素，n 可以超过当前元素个数
+    void dropFirst(int n) {
+        if (n >= size) {
+            reset();
+            return;
+        }
+        for (int i = 0; i < n; i++) {
+            buffer[start] = null;
+            start = start + 1 == buffer.length ? 0 : start + 1;
+        }
+        size -= n;
+    }
+    
+    private void reset() {
+        for (int i = 0; i < size; i++) {
+            int index = start + i;
+            buffer[index < buffer.length ? index : index - buffer.length] = null;
+        }
+        start = 0;
+        size = 0;
+    }
+    
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int i = start + index;
+        return (T) buffer[i < buffer.length ? i : i - buffer.length];
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -1,16 +1,29 @@
 package io.whj.seq.seqs;
 
+import io.whj.seq.codecs.Codec;
+import io.whj.seq.collections.BloomFilter;
+import io.whj.seq.collections.HyperLogLog;
+import io.whj.seq.collections.IntBitmap;
+import io.whj.seq.collections.ObjLongMap;
 import io.whj.seq.controls.More;
 import io.whj.seq.tuples.Tuple;
 import io.whj.seq.tuples.Tuple2;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.*;
 import java.util.stream.Stream;
 
 /**
  * 一种新的流：为Java加入生成器(Generator)特性
+ * <p>
+ * Seq 只是一份执行计划：内置操作（take、drop、mapWithIndex、distinct 等）的计数器和缓存都在每次遍历开始时创建，
+ * 同一个 Seq 可以反复 consume，得到相同的结果，也可以缓存成静态常量被多个线程同时 consume。
+ * 前提是数据源和传入的函数本身可重入；{@link #of(Iterator)} 和 {@link #append(Stream)} 依赖只能遍历一次的数据源，不在此列。
  *
  * @param <T> 元素类型
  */
@@ -20,44 +33,70 @@ public interface Seq<T> {
     
     void consume(Consumer<T> consumer);
     
+    /**
+     * 可以提前终止的消费：sink 返回 false 表示下游不再需要元素，数据源应当立即停止推送。
+     * 流被完整推送时返回 true，被 sink 终止时返回 false。
+     * <p>
+     * 内置的数据源和操作都原生实现了该协议；只实现了 consume 的 lambda 数据源走这里的默认实现，
+     * 借助本次遍历独有的 {@link Stop} 信号打断循环，因此嵌套使用时也不会误终止外层遍历
+     */
+    default boolean tryConsume(Predicate<T> sink) {
+        Stop stop = new Stop();
+        try {
+            consume(t -> {
+                if (!sink.test(t)) {
+                    throw stop;
+                }
+            });
+            return true;
+        } catch (Stop e) {
+            if (e != stop) {
+                throw e;
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * 把推送式的 Seq 转成惰性的拉取式游标，不会物化整个流。
+     * <p>
+     * 数组和 RandomAccess 列表直接按下标读取；其余数据源在后台线程中执行 tryConsume，
+     * 通过有界缓冲区把元素交给调用方，因此上游会比调用方多执行最多几批元素。
+     * 提前放弃遍历时应当调用 {@link SeqIterator#close()} 停止后台线程
+     */
+    default SeqIterator<T> iterator() {
+        return new PushIterator<>(this);
+    }
+    
+    default Spliterator<T> spliterator() {
+        return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+    }
+    
     static <T> Seq<T> unit(T t) {
-        return c -> c.accept(t);
+        return (CancellableSeq<T>) sink -> sink.test(t);
     }
     
+    // 直接包装传入的数组，不复制
     @SafeVarargs
+    @SuppressWarnings("varargs")
     static <T> Seq<T> of(T... ts) {
-        return c -> {
-            for (T t : ts) {
-                c.accept(t);
-            }
-        };
+        return IndexedSeq.ofArray(ts);
     }
     
+    // 迭代器只能遍历一次，第二次 consume 不会再产生元素
     static <T> Seq<T> of(Iterator<T> iterable) {
-        return c -> {
-            while (iterable.hasNext()) {
-                T t = iterable.next();
-                c.accept(t);
-            }
-            
-        };
+        return new IteratorSeq<>(iterable);
     }
     
     // 等差数列，左闭有开区间, 如果流耗尽返回 none 信号
     // arithmeticProgression(0,1,10) => 0,1,2,3,4,5,6,7,8,9
+    // 每次遍历都从 begin 重新开始，数值计算请使用不装箱的 IntSeq.arithmeticProgression(int, int, int)
     static Seq<More<Integer>> arithmeticProgression(int begin, int step, int limit) {
-        int[] acc = {begin};
-        return c -> {
-            acc[0] += step;
-            if (acc[0] < limit) {
-                c.accept(More.some(acc[0]));
-            } else {
-                c.accept(More.none());
-            }
-        };
+        return IntSeq.arithmeticProgression(begin, step, limit).boxed().more();
     }
     
     // 自然数列，左闭有开区间([begin,limit)), 如果流耗尽返回 none 信号
+    // 数值计算请使用不装箱的 IntSeq.naturalNumbers()
     static Seq<More<Integer>> naturalNumbers() {
         return naturalNumbers(Integer.MAX_VALUE);
     }
@@ -67,8 +106,172 @@ public interface Seq<T> {
         return arithmeticProgression(0, 1, limit);
     }
     
+    // 无限流：每个元素由 supplier 生成，需要配合 take/findFirst 等操作终止
+    static <T> Seq<T> generate(Supplier<T> supplier) {
+        return (CancellableSeq<T>) sink -> {
+            while (sink.test(supplier.get())) {
+            }
+            return false;
+        };
+    }
+    
+    // 无限流：seed, next(seed), next(next(seed)) ...
+    static <T> Seq<T> iterate(T seed, UnaryOperator<T> next) {
+        return (CancellableSeq<T>) sink -> {
+            T t = seed;
+            while (sink.test(t)) {
+                t = next.apply(t);
+            }
+            return false;
+        };
+    }
+    
+    // 有限流：相当于 for (T t = seed; hasNext.test(t); t = next.apply(t))
+    static <T> Seq<T> iterate(T seed, Predicate<T> hasNext, UnaryOperator<T> next) {
+        return (CancellableSeq<T>) sink -> {
+            for (T t = seed; hasNext.test(t); t = next.apply(t)) {
+                if (!sink.test(t)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+    
+    /**
+     * 通用生成器：每次遍历先用 stateFactory 创建独立的状态，然后反复调用 step(state, yield)，
+     * step 通过 yield 推送元素（可以推送零个或多个），返回 false 表示生成器已耗尽。
+     * 结束信号直接由返回值传递，不需要像 {@link More} 那样为每个元素包装一个对象
+     * <pre>
+     * // 斐波那契数列
+     * Seq.unfold(() -> new long[]{0, 1}, (s, yield) -> {
+     *     yield.accept(s[0]);
+     *     long next = s[0] + s[1];
+     *     s[0] = s[1];
+     *     s[1] = next;
+     *     return true;
+     * });
+     * </pre>
+     */
+    static <S, T> Seq<T> unfold(Supplier<S> stateFactory, BiPredicate<S, Consumer<T>> step) {
+        return (CancellableSeq<T>) sink -> {
+            S state = stateFactory.get();
+            boolean[] more = {true};
+            Consumer<T> yield = t -> {
+                // sink 要求停止之后不再向下游推送
+                if (more[0]) {
+                    more[0] = sink.test(t);
+                }
+            };
+            while (step.test(state, yield)) {
+                if (!more[0]) {
+                    return false;
+                }
+            }
+            return more[0];
+        };
+    }
+    
+    // RandomAccess 列表按下标遍历，可以被 parallel() 拆分
     static <T> Seq<T> of(Iterable<T> iterable) {
-        return of(iterable.iterator());
+        if (iterable instanceof List && iterable instanceof RandomAccess) {
+            return IndexedSeq.ofList((List<T>) iterable);
+        }
+        // 每次遍历都重新获取迭代器
+        return (CancellableSeq<T>) sink -> of(iterable.iterator()).tryConsume(sink);
+    }
+    
+    /**
+     * 按行读取文件：文件按段映射到内存，每一行都是指向映射区域的 {@link Line} 视图，不复制也不解码。
+     * <p>
+     * 同一次遍历复用同一个 Line 对象，需要保留的行用 {@link Line#materialize()} 或 toString 复制出来，
+     * 例如 {@code Seq.lines(path, UTF_8).filter(l -> l.length() > 0).map(Line::toString)} 只复制保留下来的行。
+     * 支持换行符是单字节 '\n' 的字符集（UTF-8、ASCII、ISO-8859-1、GBK 等），'\r\n' 结尾时去掉 '\r'。
+     * 每次遍历都重新打开文件；可以被 parallel() 在换行符处拆分
+     */
+    static Seq<Line> lines(Path path, Charset charset) {
+        return LineSeq.of(path, charset);
+    }
+    
+    static Seq<Line> lines(Path path) {
+        return lines(path, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * 读取 {@link #writeTo(Path, Codec, boolean)} 写出的文件，块索引在这里读取，数据块在遍历时通过内存映射读取。
+     * drop/take/length 根据块索引直接计算，不会解码被跳过的记录；可以被 parallel() 按块拆分
+     */
+    static <T> Seq<T> readFrom(Path path, Codec<T> codec) {
+        return BlockSeq.open(path, codec);
+    }
+    
+    /**
+     * 深度优先（先序）遍历以 root 为根的树，childrenFn 返回 null 表示没有子节点。
+     * 用显式栈代替递归的 flatMap，树再深也不会栈溢出；可以被 parallel() 按子树拆分，结果仍然保持先序
+     */
+    static <T> Seq<T> traverseDepthFirst(T root, Function<T, Seq<T>> childrenFn) {
+        return TreeSeq.depthFirst(root, childrenFn, false);
+    }
+    
+    // skipVisited 为 true 时按 equals 跳过已经访问过的节点，用于有环或者有共享节点的图
+    static <T> Seq<T> traverseDepthFirst(T root, Function<T, Seq<T>> childrenFn, boolean skipVisited) {
+        return TreeSeq.depthFirst(root, childrenFn, skipVisited);
+    }
+    
+    // 广度优先（按层）遍历，不可拆分
+    static <T> Seq<T> traverseBreadthFirst(T root, Function<T, Seq<T>> childrenFn) {
+        return TreeSeq.breadthFirst(root, childrenFn, false);
+    }
+    
+    static <T> Seq<T> traverseBreadthFirst(T root, Function<T, Seq<T>> childrenFn, boolean skipVisited) {
+        return TreeSeq.breadthFirst(root, childrenFn, skipVisited);
+    }
+    
+    /**
+     * 按顺序拼接若干 Seq，片段在调用时收集到一个数组中，遍历时逐个推送，调用深度与片段个数无关。
+     * 嵌套的拼接会被展开；length/isEmpty 由各个片段分别计算
+     */
+    // 数组只用来构造片段列表，不会被写入
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    static <T> Seq<T> concat(Seq<T>... seqs) {
+        return concat(Arrays.asList(seqs));
+    }
+    
+    static <T> Seq<T> concat(Iterable<Seq<T>> seqs) {
+        return ConcatSeq.of(seqs);
+    }
+    
+    /**
+     * k 路归并若干已经按 comparator 排好序的 Seq：每个输入通过 {@link #iterator()} 拉取，
+     * 堆里每个输入只保留一个元素，内存占用与输入个数成正比。
+     * 相等的元素按输入的先后输出，因此结果是稳定的；输入本身是否有序不做检查
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    static <T> Seq<T> mergeSorted(Comparator<T> comparator, Seq<T>... seqs) {
+        return mergeSorted(comparator, Arrays.asList(seqs));
+    }
+    
+    static <T> Seq<T> mergeSorted(Comparator<T> comparator, Iterable<Seq<T>> seqs) {
+        return (CancellableSeq<T>) sink -> {
+            List<Seq<T>> inputs = new ArrayList<>();
+            seqs.forEach(inputs::add);
+            // 只有一个输入时直接推送，不需要游标
+            if (inputs.size() == 1) {
+                return inputs.get(0).tryConsume(sink);
+            }
+            List<SeqIterator<T>> cursors = new ArrayList<>(inputs.size());
+            try {
+                for (Seq<T> seq : inputs) {
+                    cursors.add(seq.iterator());
+                }
+            } catch (RuntimeException | Error e) {
+                cursors.forEach(SeqIterator::close);
+                throw e;
+            }
+            return ExternalSort.merge(cursors, comparator, sink);
+        };
     }
     
     default List<T> toList() {
@@ -93,6 +296,20 @@ public interface Seq<T> {
         return prefix + stringJoiner + suffix;
     }
     
+    // 不压缩
+    default long writeTo(Path path, Codec<T> codec) {
+        return writeTo(path, codec, false);
+    }
+    
+    /**
+     * 把流的内容写到文件，之后用 {@link #readFrom(Path, Codec)} 读回，返回写入的元素个数。
+     * 文件由若干数据块和一个块索引组成，每条记录带长度前缀；compress 为 true 时每块单独用 Deflate 压缩，
+     * 格式见 {@link BlockFile}
+     */
+    default long writeTo(Path path, Codec<T> codec, boolean compress) {
+        return BlockFile.write(this, path, codec, compress);
+    }
+    
     default Set<T> toSet() {
         HashSet<T> elements = new HashSet<>();
         consume(elements::add);
@@ -116,14 +333,8 @@ public interface Seq<T> {
             if (t == null) {
                 map.put(null, null);
             } else {
-                K key = keyFn.apply(t);
-                V oldValue = map.get(key);
                 V newValue = valueFn.apply(t);
-                if (oldValue != null) {
-                    map.put(key, conflictFn.apply(oldValue, newValue));
-                } else {
-                    map.put(key, newValue);
-                }
+                map.compute(keyFn.apply(t), (key, oldValue) -> oldValue != null ? conflictFn.apply(oldValue, newValue) : newValue);
             }
         });
     }
@@ -156,19 +367,95 @@ public interface Seq<T> {
     }
     
     
+    // 按 key 分组，组内保持遭遇顺序
+    default <K> Map<K, List<T>> groupBy(Function<T, K> keyFn) {
+        return groupBy(keyFn, Function.identity());
+    }
+    
+    default <K, V> Map<K, List<V>> groupBy(Function<T, K> keyFn, Function<T, V> valueFn) {
+        Map<K, List<V>> map = new HashMap<>();
+        consume(t -> map.computeIfAbsent(keyFn.apply(t), k -> new ArrayList<>()).add(valueFn.apply(t)));
+        return map;
+    }
+    
+    // 每个 key 出现的次数，计数保存在开放寻址表中，不装箱
+    default <K> ObjLongMap<K> countBy(Function<T, K> keyFn) {
+        ObjLongMap<K> map = new ObjLongMap<>();
+        consume(t -> map.addTo(keyFn.apply(t), 1));
+        return map;
+    }
+    
+    // 按 key 对 valueFn 求和，不装箱
+    default <K> ObjLongMap<K> sumBy(Function<T, K> keyFn, ToLongFunction<T> valueFn) {
+        ObjLongMap<K> map = new ObjLongMap<>();
+        consume(t -> map.addTo(keyFn.apply(t), valueFn.applyAsLong(t)));
+        return map;
+    }
+    
+    /**
+     * 按 key 归约：同一个 key 的值按遭遇顺序用 reducer 两两合并，每个元素只查找一次哈希表。
+     * 值为 null 视为该 key 还没有值
+     */
+    default <K, V> Map<K, V> reduceByKey(Function<T, K> keyFn, Function<T, V> valueFn, BinaryOperator<V> reducer) {
+        Map<K, V> map = new HashMap<>();
+        consume(t -> {
+            V value = valueFn.apply(t);
+            map.compute(keyFn.apply(t), (k, old) -> old == null ? value : reducer.apply(old, value));
+        });
+        return map;
+    }
+    
+    /**
+     * 按 key 聚合：每个 key 从 zero 提供的初始值开始，用 accumulator 依次累加该 key 的元素，结果不能为 null。
+     * 与 {@link #reduce(Object, BiFunction, BinaryOperator)} 一样，顺序执行时不会用到 combiner，并行执行时用它合并各个块的结果
+     */
+    default <K, A> Map<K, A> aggregateByKey(Function<T, K> keyFn, Supplier<A> zero,
+                                            BiFunction<A, T, A> accumulator, BinaryOperator<A> combiner) {
+        Map<K, A> map = new HashMap<>();
+        consume(t -> map.compute(keyFn.apply(t), (k, acc) -> accumulator.apply(acc == null ? zero.get() : acc, t)));
+        return map;
+    }
+    
+    /**
+     * 打印经过改写之后的执行计划，每行一个节点，缩进越深越靠近数据源，
+     * 例如 {@code Seq.of(array).map(f).map(g).sort(c).take(3)}：
+     * <pre>
+     * TopK(k=3)
+     *   Map x2
+     *     Array[0, 1000)
+     * </pre>
+     * 直接由 lambda 实现的数据源或操作显示为 Seq
+     */
+    default String explain() {
+        return this instanceof PlanSeq || this instanceof IndexedSeq ? PlanSeq.explain(this) : "Seq";
+    }
+    
+    /**
+     * 缓存遍历结果：第一次遍历时在调用线程中执行上游并记录元素，之后的遍历直接回放。
+     * 遍历被提前终止时保留已经记录的前缀，需要更多元素时用 drop 跳过前缀重新执行上游，
+     * 只能遍历一次的 {@link #of(Iterator)} 则从同一个游标继续拉取；可以被多个线程同时遍历
+     */
+    default Seq<T> cache() {
+        return new CachedSeq<>(this, Long.MAX_VALUE, null);
+    }
+    
+    // 最多缓存 maxElements 个元素，超出后放弃缓存，之后每次遍历都重新执行上游
+    default Seq<T> cache(int maxElements) {
+        return new CachedSeq<>(this, maxElements, t -> 1);
+    }
+    
+    // 按 sizeOf 估算的字节数累计，超过 maxBytes 后放弃缓存，之后每次遍历都重新执行上游
+    default Seq<T> cache(long maxBytes, ToLongFunction<T> sizeOf) {
+        return new CachedSeq<>(this, maxBytes, sizeOf);
+    }
+    
     default <R> Seq<R> map(Function<T, R> mapFn) {
-        return c -> this.consume(t -> c.accept(mapFn.apply(t)));
+        return new PlanSeq.MapNode<>(this, mapFn, 1);
     }
     
     // 如果条件为真就执行mapper
     default <R> Seq<R> map(Function<T, R> mapper, Predicate<T> predicate) {
-        return c -> {
-            this.consume(t -> {
-                if (predicate.test(t)) {
-                    c.accept(mapper.apply(t));
-                }
-            });
-        };
+        return (CancellableSeq<R>) sink -> this.tryConsume(t -> !predicate.test(t) || sink.test(mapper.apply(t)));
     }
     
     // 如果element不为空就执行mapper
@@ -176,128 +463,195 @@ public interface Seq<T> {
         return this.map(mapper, Objects::nonNull);
     }
     
+    // 转为原始类型流，后续操作不再装箱
+    default IntSeq mapToInt(ToIntFunction<T> mapper) {
+        return (CancellableIntSeq) sink -> this.tryConsume(t -> sink.test(mapper.applyAsInt(t)));
+    }
+    
+    default LongSeq mapToLong(ToLongFunction<T> mapper) {
+        return (CancellableLongSeq) sink -> this.tryConsume(t -> sink.test(mapper.applyAsLong(t)));
+    }
+    
+    default DoubleSeq mapToDouble(ToDoubleFunction<T> mapper) {
+        return (CancellableDoubleSeq) sink -> this.tryConsume(t -> sink.test(mapper.applyAsDouble(t)));
+    }
+    
     // 转化为带索引的流
     default <R> BiSeq<Integer, R> mapWithIndex(Function<T, R> mapper) {
-        int[] index = {0};
-        return c -> {
-            this.map(mapper, Objects::nonNull).consume(t -> {
-                c.accept(index[0], t);
-                index[0]++;
-            });
+        return (CancellableBiSeq<Integer, R>) sink -> {
+            int[] index = {0};
+            return this.map(mapper, Objects::nonNull).tryConsume(t -> sink.test(index[0]++, t));
         };
     }
     
     // 平铺元素
     default <R> Seq<R> flatMap(Function<T, Seq<R>> flatmapFn) {
-        return c -> this.consume(t -> flatmapFn.apply(t).consume(c));
+        return (CancellableSeq<R>) sink -> this.tryConsume(t -> flatmapFn.apply(t).tryConsume(sink));
     }
     
     // 平铺元素
     default <R> Seq<R> flatMapIterable(Function<T, Iterable<R>> flatmapFn) {
-        return c -> this.consume(t -> flatmapFn.apply(t).forEach(c));
+        return (CancellableSeq<R>) sink -> this.tryConsume(t -> {
+            for (R r : flatmapFn.apply(t)) {
+                if (!sink.test(r)) {
+                    return false;
+                }
+            }
+            return true;
+        });
     }
     
     default Seq<T> filter(Predicate<T> predicate) {
-        return c -> {
-            this.consume(t -> {
-                if (predicate.test(t)) {
-                    c.accept(t);
-                }
-            });
-        };
+        return new PlanSeq.FilterNode<>(this, predicate, 1);
     }
     
+    // 需要提前终止时请使用 tryConsume
     default void consumeUtilStop(Consumer<T> consumer) {
-        try {
-            this.consume(consumer);
-        } catch (Stop ignore) {
-            // 这里异常只是用来传递break信号，打断循环
-        }
+        this.consume(consumer);
     }
     
+    // 取到第 n 个元素后立即停止，不会再向上游多拉取一个元素
     default Seq<T> take(int n) {
-        int[] i = {0};
-        return c -> consumeUtilStop(t -> {
-            if (i[0] < n) {
-                c.accept(t);
-                i[0]++;
-            } else {
-                Stop.stop();
+        return (CancellableSeq<T>) sink -> {
+            if (n <= 0) {
+                return true;
             }
-        });
+            int[] i = {0};
+            boolean[] stopped = {false};
+            this.tryConsume(t -> {
+                if (!sink.test(t)) {
+                    stopped[0] = true;
+                    return false;
+                }
+                return ++i[0] < n;
+            });
+            // take 自己截断的流对下游来说是正常结束
+            return !stopped[0];
+        };
     }
     
     default Seq<T> take(Predicate<T> predicate) {
-        return c -> consumeUtilStop(t -> {
-            if (predicate.test(t)) {
-                c.accept(t);
-            } else {
-                Stop.stop();
-            }
-        });
+        return (CancellableSeq<T>) sink -> {
+            boolean[] stopped = {false};
+            this.tryConsume(t -> {
+                if (!predicate.test(t)) {
+                    return false;
+                }
+                if (!sink.test(t)) {
+                    stopped[0] = true;
+                    return false;
+                }
+                return true;
+            });
+            return !stopped[0];
+        };
     }
     
     // 注意： 如果先take再drop可能和你想的不一样
     default Seq<T> drop(int n) {
-        int[] i = {0};
-        return c -> this.consume(t -> {
-            if (i[0] >= n) {
-                c.accept(t);
-            }
-            i[0]++;
-        });
+        return (CancellableSeq<T>) sink -> {
+            int[] i = {0};
+            return this.tryConsume(t -> {
+                if (i[0] < n) {
+                    i[0]++;
+                    return true;
+                }
+                return sink.test(t);
+            });
+        };
     }
     
     default Seq<T> drop(Predicate<T> predicate) {
-        return c -> this.consume(t -> {
-            if (predicate.test(t)) {
-                c.accept(t);
-            }
-        });
+        return (CancellableSeq<T>) sink -> this.tryConsume(t -> !predicate.test(t) || sink.test(t));
     }
     
     default Seq<T> peek(Consumer<T> peeker) {
-        return c -> this.consume(peeker.andThen(c));
+        return (CancellableSeq<T>) sink -> this.tryConsume(t -> {
+            peeker.accept(t);
+            return sink.test(t);
+        });
     }
     
     //zip
     default <E> Seq<Tuple2<T, E>> zip(Iterable<E> other) {
-        return c -> {
+        return (CancellableSeq<Tuple2<T, E>>) sink -> {
             Iterator<E> iterator = other.iterator();
-            consumeUtilStop(t -> {
-                if (iterator.hasNext()) {
-                    c.accept(Tuple.of(t, iterator.next()));
-                } else {
-                    Stop.stop();
+            boolean[] stopped = {false};
+            this.tryConsume(t -> {
+                if (!iterator.hasNext()) {
+                    return false;
+                }
+                if (!sink.test(Tuple.of(t, iterator.next()))) {
+                    stopped[0] = true;
+                    return false;
                 }
+                return true;
             });
+            return !stopped[0];
+        };
+    }
+    
+    // 两个 Seq 各自只遍历一次，较短的一方耗尽时结束
+    default <E> Seq<Tuple2<T, E>> zip(Seq<E> other) {
+        return zip(other, Tuple::of);
+    }
+    
+    default <E, R> Seq<R> zip(Seq<E> other, BiFunction<T, E, R> zipper) {
+        return (CancellableSeq<R>) sink -> {
+            try (SeqIterator<E> iterator = other.iterator()) {
+                boolean[] stopped = {false};
+                this.tryConsume(t -> {
+                    if (!iterator.hasNext()) {
+                        return false;
+                    }
+                    if (!sink.test(zipper.apply(t, iterator.next()))) {
+                        stopped[0] = true;
+                        return false;
+                    }
+                    return true;
+                });
+                return !stopped[0];
+            }
         };
     }
     
     default <E> BiSeq<T, E> zipWith(Iterable<E> other) {
-        return c -> {
+        return (CancellableBiSeq<T, E>) sink -> {
             Iterator<E> iterator = other.iterator();
-            consumeUtilStop(t -> {
-                if (iterator.hasNext()) {
-                    c.accept(t, iterator.next());
-                } else {
-                    Stop.stop();
+            boolean[] stopped = {false};
+            this.tryConsume(t -> {
+                if (!iterator.hasNext()) {
+                    return false;
+                }
+                if (!sink.test(t, iterator.next())) {
+                    stopped[0] = true;
+                    return false;
                 }
+                return true;
             });
+            return !stopped[0];
         };
     }
     
+    // 每次遍历通过 other.iterator() 从头拉取 other，遇到 none 或者 other 耗尽时结束
+    // 拉链两个普通的 Seq 请使用 {@link #zip(Seq)}
     default <E> BiSeq<T, E> zipWith(Seq<More<E>> other) {
-        return c -> {
-            consumeUtilStop(t -> {
-                other.consume(e -> {
-                    if (e.isNone()) {
-                        Stop.stop();
-                    } else {
-                        c.accept(t, e.getOrElse(null));
+        return (CancellableBiSeq<T, E>) sink -> {
+            try (SeqIterator<More<E>> iterator = other.iterator()) {
+                boolean[] stopped = {false};
+                this.tryConsume(t -> {
+                    More<E> e;
+                    if (!iterator.hasNext() || (e = iterator.next()).isNone()) {
+                        return false;
                     }
+                    if (!sink.test(t, e.getOrElse(null))) {
+                        stopped[0] = true;
+                        return false;
+                    }
+                    return true;
                 });
-            });
+                return !stopped[0];
+            }
         };
     }
     
@@ -305,35 +659,188 @@ public interface Seq<T> {
      * 使用 more 信号包装流，最后返回none的元素指示seq流已耗尽(注意：会多执行一次 consumer), 如果一直返回some表示是无限流,
      */
     default Seq<More<T>> more() {
-        return c -> {
-            this.consume(t -> c.accept(More.some(t)));
-            c.accept(More.none());
-        };
+        return (CancellableSeq<More<T>>) sink -> this.tryConsume(t -> sink.test(More.some(t))) && sink.test(More.none());
     }
     
     // 转化为带索引的流
     default BiSeq<T, Integer> zipWithIndex() {
-        return this.zipWith(naturalNumbers());
+        return (CancellableBiSeq<T, Integer>) sink -> {
+            int[] index = {0};
+            return this.tryConsume(t -> sink.test(t, index[0]++));
+        };
+    }
+    
+    /**
+     * hash join：other 作为构建侧在每次遍历开始时读入紧凑的多值哈希表（应当是较小的一侧），
+     * 再按遭遇顺序遍历 this，每个匹配的 (t, u) 直接交给 BiSeq 的下游，不创建 Tuple。
+     * key 按 equals 比较，null 与 null 相等
+     */
+    default <U, K> BiSeq<T, U> innerJoin(Seq<U> other, Function<T, K> leftKey, Function<U, K> rightKey) {
+        return HashJoin.pairs(this, other, leftKey, rightKey, HashJoin.Mode.INNER, null, null);
+    }
+    
+    /**
+     * 构建侧超过 spill 的上限时，两侧分别用 spill 的 codec 和 leftCodec 按 key 分区写入临时文件，再逐个分区 join，
+     * 此时结果按分区顺序输出
+     */
+    default <U, K> BiSeq<T, U> innerJoin(Seq<U> other, Function<T, K> leftKey, Function<U, K> rightKey,
+                                         Spill<U> spill, Codec<T> leftCodec) {
+        return HashJoin.pairs(this, other, leftKey, rightKey, HashJoin.Mode.INNER, spill, leftCodec);
     }
     
-    // 集合内两两结合的函数
+    // 没有匹配的元素与 null 结合
+    default <U, K> BiSeq<T, U> leftJoin(Seq<U> other, Function<T, K> leftKey, Function<U, K> rightKey) {
+        return HashJoin.pairs(this, other, leftKey, rightKey, HashJoin.Mode.LEFT, null, null);
+    }
+    
+    default <U, K> BiSeq<T, U> leftJoin(Seq<U> other, Function<T, K> leftKey, Function<U, K> rightKey,
+                                        Spill<U> spill, Codec<T> leftCodec) {
+        return HashJoin.pairs(this, other, leftKey, rightKey, HashJoin.Mode.LEFT, spill, leftCodec);
+    }
+    
+    // 在 other 中有匹配的元素，每个元素最多输出一次
+    default <U, K> Seq<T> semiJoin(Seq<U> other, Function<T, K> leftKey, Function<U, K> rightKey) {
+        return HashJoin.matches(this, other, leftKey, rightKey, HashJoin.Mode.SEMI, null, null);
+    }
+    
+    default <U, K> Seq<T> semiJoin(Seq<U> other, Function<T, K> leftKey, Function<U, K> rightKey,
+                                   Spill<U> spill, Codec<T> leftCodec) {
+        return HashJoin.matches(this, other, leftKey, rightKey, HashJoin.Mode.SEMI, spill, leftCodec);
+    }
+    
+    // 在 other 中没有匹配的元素
+    default <U, K> Seq<T> antiJoin(Seq<U> other, Function<T, K> leftKey, Function<U, K> rightKey) {
+        return HashJoin.matches(this, other, leftKey, rightKey, HashJoin.Mode.ANTI, null, null);
+    }
+    
+    default <U, K> Seq<T> antiJoin(Seq<U> other, Function<T, K> leftKey, Function<U, K> rightKey,
+                                   Spill<U> spill, Codec<T> leftCodec) {
+        return HashJoin.matches(this, other, leftKey, rightKey, HashJoin.Mode.ANTI, spill, leftCodec);
+    }
+    
+    // 集合内两两结合的函数，只有一个元素时与 null 结合
     default BiSeq<T, T> zipWithNext() {
-        return c -> {
+        return (CancellableBiSeq<T, T>) sink -> {
             Object[] pre = {null};
-            final boolean[] isMoreThanTwoElement = {false};
-            this.consume(t -> {
-                if (pre[0] != null) {
-                    c.accept((T) pre[0], t);
-                    isMoreThanTwoElement[0] = true;
+            // 0: 还没有元素，1: 只有一个元素，2: 至少两个元素
+            int[] seen = {0};
+            boolean completed = this.tryConsume(t -> {
+                if (seen[0] > 0) {
+                    seen[0] = 2;
+                    if (!sink.test((T) pre[0], t)) {
+                        return false;
+                    }
+                } else {
+                    seen[0] = 1;
                 }
                 pre[0] = t;
+                return true;
             });
-            if (!isMoreThanTwoElement[0]) {
-                c.accept((T) pre[0], null);
+            if (!completed) {
+                return false;
             }
+            return seen[0] != 1 || sink.test((T) pre[0], null);
         };
     }
     
+    // 相邻的两个元素结合成一个，不足两个元素时结果为空
+    default <R> Seq<R> zipWithNext(BiFunction<T, T, R> zipper) {
+        return (CancellableSeq<R>) sink -> {
+            Object[] pre = {null};
+            boolean[] first = {true};
+            return this.tryConsume(t -> {
+                if (first[0]) {
+                    first[0] = false;
+                    pre[0] = t;
+                    return true;
+                }
+                R r = zipper.apply((T) pre[0], t);
+                pre[0] = t;
+                return sink.test(r);
+            });
+        };
+    }
+    
+    // 按 size 个元素分组，最后一组可能不足 size 个
+    default Seq<List<T>> chunked(int size) {
+        return windowed(size, size, true, false);
+    }
+    
+    // reuse 的含义见 windowed(int, int, boolean, boolean)
+    default Seq<List<T>> chunked(int size, boolean reuse) {
+        return windowed(size, size, true, reuse);
+    }
+    
+    /**
+     * 滑动窗口：每个窗口 size 个元素，相邻窗口的起点相隔 step 个元素。
+     * partial 为 true 时在末尾输出不足 size 个元素的窗口，否则丢弃。
+     * 遍历时只缓存一个窗口的元素，每个窗口都复制成新的 List
+     */
+    default Seq<List<T>> windowed(int size, int step, boolean partial) {
+        return windowed(size, step, partial, false);
+    }
+    
+    /**
+     * reuse 为 true 时每个窗口都是同一个基于环形缓冲区的只读视图，不为窗口分配内存；
+     * 视图的内容在下一个元素到达时就会改变，只能在回调中使用，需要保留时自行复制
+     */
+    default Seq<List<T>> windowed(int size, int step, boolean partial, boolean reuse) {
+        if (size <= 0 || step <= 0) {
+            throw new IllegalArgumentException("size and step must be positive: size=" + size + ", step=" + step);
+        }
+        return (CancellableSeq<List<T>>) sink -> {
+            RingWindow<T> window = new RingWindow<>(size);
+            Function<RingWindow<T>, List<T>> emit = reuse ? w -> w : ArrayList::new;
+            int[] skip = {0};
+            boolean completed = this.tryConsume(t -> {
+                if (skip[0] > 0) {
+                    skip[0]--;
+                    return true;
+                }
+                window.push(t);
+                if (!window.isFull()) {
+                    return true;
+                }
+                if (!sink.test(emit.apply(window))) {
+                    return false;
+                }
+                window.dropFirst(step);
+                skip[0] = Math.max(step - size, 0);
+                return true;
+            });
+            if (!completed) {
+                return false;
+            }
+            while (partial && !window.isEmpty()) {
+                if (!sink.test(emit.apply(window))) {
+                    return false;
+                }
+                window.dropFirst(step);
+            }
+            return true;
+        };
+    }
+    
+    // 顺序执行时不会用到 combiner；并行执行时用它合并各个块的结果
+    default <R> R reduce(R identity, BiFunction<R, T, R> accumulator, BinaryOperator<R> combiner) {
+        Object[] b = {identity};
+        this.consume(t -> b[0] = accumulator.apply((R) b[0], t));
+        return (R) b[0];
+    }
+    
+    default T reduce(T identity, BinaryOperator<T> accumulator) {
+        return reduce(identity, accumulator, accumulator);
+    }
+    
+    // 并行执行，只有数组和 RandomAccess 列表数据源（Seq.of）可以被拆分，应当直接在数据源上调用
+    default ParallelSeq<T> parallel() {
+        return parallel(ForkJoinPool.commonPool());
+    }
+    
+    default ParallelSeq<T> parallel(ForkJoinPool pool) {
+        return ParallelSeq.of(this, pool);
+    }
+    
     @SuppressWarnings("unchecked")
     default <R> R foldl(BiFunction<R, T, R> f, R initialValue) {
         Object[] b = {initialValue};
@@ -349,62 +856,57 @@ public interface Seq<T> {
     }
     
     
+    // 以下 append 都汇入同一个扁平的拼接节点，循环中反复 append 不会加深调用栈，见 {@link #concat(Iterable)}
+    
     default Seq<T> append(T of) {
-        return c -> {
-            this.consume(c);
-            c.accept(of);
-        };
+        return append(unit(of));
     }
     
     default Seq<T> append(Iterable<T> other) {
-        return c -> {
-            this.consume(c);
-            other.forEach(c);
-        };
+        return append((CancellableSeq<T>) sink -> Seq.of(other.iterator()).tryConsume(sink));
     }
     
     default Seq<T> append(Seq<T> other) {
-        return c -> {
-            this.consume(c);
-            other.consume(c);
-        };
+        return ConcatSeq.of(Arrays.asList(this, other));
     }
     
     default Seq<T> append(Stream<T> other) {
-        return c -> {
-            this.consume(c);
-            other.forEach(c);
-        };
+        return append((CancellableSeq<T>) sink -> Seq.of(other.iterator()).tryConsume(sink));
     }
     
     @SuppressWarnings("unchecked")
     default Seq<T> flatten() {
-        return c -> {
-            this.consume(t -> {
-                if (t instanceof Object[]) {
-                    for (Object o : (Object[]) t) {
-                        c.accept((T) o);
+        return (CancellableSeq<T>) sink -> this.tryConsume(t -> {
+            if (t instanceof Object[]) {
+                for (Object o : (Object[]) t) {
+                    if (!sink.test((T) o)) {
+                        return false;
                     }
-                } else if (t instanceof Iterable) {
-                    ((Iterable<T>) t).forEach(c);
-                } else if (t instanceof Seq) {
-                    ((Seq<T>) t).consume(c);
-                } else if (t instanceof Stream) {
-                    ((Stream<T>) t).forEach(c);
-                } else {
-                    c.accept(t);
                 }
-            });
-        };
+                return true;
+            } else if (t instanceof Iterable) {
+                return Seq.of(((Iterable<T>) t).iterator()).tryConsume(sink);
+            } else if (t instanceof Seq) {
+                return ((Seq<T>) t).tryConsume(sink);
+            } else if (t instanceof Stream) {
+                return Seq.of(((Stream<T>) t).iterator()).tryConsume(sink);
+            } else {
+                return sink.test(t);
+            }
+        });
     }
     
     // reverse
     default Seq<T> reverse() {
-        return c -> {
+        return (CancellableSeq<T>) sink -> {
             List<T> list = new ArrayList<>();
             this.consume(list::add);
-            Collections.reverse(list);
-            list.forEach(c);
+            for (int i = list.size() - 1; i >= 0; i--) {
+                if (!sink.test(list.get(i))) {
+                    return false;
+                }
+            }
+            return true;
         };
     }
     
@@ -414,148 +916,280 @@ public interface Seq<T> {
         return i[0];
     }
     
+    // 遇到第一个元素就停止
     default boolean isEmpty() {
-        return length() == 0;
+        return tryConsume(t -> false);
     }
     
     default Optional<T> head() {
-        return Optional.ofNullable(foldl(
-                (r, t) -> {
-                    if (r == null) {
-                        return t;
-                    } else {
-                        return r;
-                    }
-                },
-                null
-        ));
+        Object[] b = {null};
+        tryConsume(t -> {
+            b[0] = t;
+            return false;
+        });
+        return Optional.ofNullable((T) b[0]);
     }
     
     default Optional<T> last() {
-        return Optional.ofNullable(foldr(
-                (t, r) -> {
-                    if (r == null) {
-                        return t;
-                    } else {
-                        return r;
-                    }
-                },
-                null
-        ));
+        Object[] b = {null};
+        this.consume(t -> b[0] = t);
+        return Optional.ofNullable((T) b[0]);
     }
     
     default Seq<T> distinct() {
         return distinctBy(v -> v);
     }
     
+    // set.add 同时完成查找和插入，每个元素只探测一次
     default Seq<T> distinctBy(Function<T, ?> keyExtractor) {
-        return c -> {
+        return (CancellableSeq<T>) sink -> {
             Set<Object> set = new HashSet<>();
-            this.consume(t -> {
-                Object key = keyExtractor.apply(t);
-                if (!set.contains(key)) {
-                    set.add(key);
-                    c.accept(t);
-                }
-            });
+            return this.tryConsume(t -> !set.add(keyExtractor.apply(t)) || sink.test(t));
         };
     }
     
+    /**
+     * 用布隆过滤器去重：内存只取决于 expectedInsertions 和 fpp，与流的长度无关。
+     * 没有出现过的元素有不超过 fpp 的概率被误判为重复而丢弃，重复的元素一定会被去掉
+     */
+    default Seq<T> distinctApprox(long expectedInsertions, double fpp) {
+        return distinctByApprox(v -> v, expectedInsertions, fpp);
+    }
+    
+    default Seq<T> distinctByApprox(Function<T, ?> keyExtractor, long expectedInsertions, double fpp) {
+        return (CancellableSeq<T>) sink -> {
+            BloomFilter filter = new BloomFilter(expectedInsertions, fpp);
+            return this.tryConsume(t -> !filter.put(keyExtractor.apply(t)) || sink.test(t));
+        };
+    }
+    
+    default BloomFilter toBloomFilter(long expectedInsertions, double fpp) {
+        BloomFilter filter = new BloomFilter(expectedInsertions, fpp);
+        consume(filter::put);
+        return filter;
+    }
+    
+    // HyperLogLog 估计不同元素的个数，默认精度的相对误差约 0.8%，见 {@link HyperLogLog}
+    default long countDistinctApprox() {
+        return countDistinctApprox(HyperLogLog.DEFAULT_PRECISION);
+    }
+    
+    default long countDistinctApprox(int precision) {
+        return toHyperLogLog(precision).estimate();
+    }
+    
+    default HyperLogLog toHyperLogLog(int precision) {
+        HyperLogLog sketch = new HyperLogLog(precision);
+        consume(sketch::add);
+        return sketch;
+    }
+    
+    // 按 int key 去重，出现过的 key 保存在压缩位图中，见 {@link IntBitmap}
+    default Seq<T> distinctInt(ToIntFunction<T> keyFn) {
+        return (CancellableSeq<T>) sink -> {
+            IntBitmap seen = new IntBitmap();
+            return this.tryConsume(t -> !seen.add(keyFn.applyAsInt(t)) || sink.test(t));
+        };
+    }
+    
+    default IntBitmap toIntSet(ToIntFunction<T> keyFn) {
+        IntBitmap set = new IntBitmap();
+        consume(t -> set.add(keyFn.applyAsInt(t)));
+        return set;
+    }
+    
+    // 以下集合运算的结果都不含重复元素（按 key 比较），hash 策略在较小的一侧建表，见 {@link SetOps}
+    
+    // 同时出现在 other 中的元素
+    default Seq<T> intersect(Seq<T> other) {
+        return intersect(other, v -> v);
+    }
+    
+    default Seq<T> intersect(Seq<T> other, Function<T, ?> keyExtractor) {
+        return SetOps.hashFilter(this, other, keyExtractor, true);
+    }
+    
+    // 没有出现在 other 中的元素
+    default Seq<T> except(Seq<T> other) {
+        return except(other, v -> v);
+    }
+    
+    default Seq<T> except(Seq<T> other, Function<T, ?> keyExtractor) {
+        return SetOps.hashFilter(this, other, keyExtractor, false);
+    }
+    
+    // 先输出 this 中的元素，再输出 other 中新出现的元素
+    default Seq<T> unionDistinct(Seq<T> other) {
+        return unionDistinct(other, v -> v);
+    }
+    
+    default Seq<T> unionDistinct(Seq<T> other, Function<T, ?> keyExtractor) {
+        return append(other).distinctBy(keyExtractor);
+    }
+    
+    /**
+     * 以下 Sorted 版本要求 this 和 other 都已经按 comparator 升序排列：流式归并，不做哈希，
+     * other 不是数组或列表时通过后台线程拉取，内存只有有界的批次缓冲；
+     * 结果同样不含重复元素并保持升序。发现输入没有排序时抛出 IllegalArgumentException
+     */
+    default Seq<T> intersectSorted(Seq<T> other, Comparator<T> comparator) {
+        return SetOps.sortedFilter(this, other, comparator, true);
+    }
+    
+    default <K extends Comparable<? super K>> Seq<T> intersectSortedBy(Seq<T> other, Function<T, K> keyExtractor) {
+        return intersectSorted(other, Comparator.comparing(keyExtractor));
+    }
+    
+    default Seq<T> exceptSorted(Seq<T> other, Comparator<T> comparator) {
+        return SetOps.sortedFilter(this, other, comparator, false);
+    }
+    
+    default <K extends Comparable<? super K>> Seq<T> exceptSortedBy(Seq<T> other, Function<T, K> keyExtractor) {
+        return exceptSorted(other, Comparator.comparing(keyExtractor));
+    }
+    
+    default Seq<T> unionSorted(Seq<T> other, Comparator<T> comparator) {
+        return SetOps.sortedUnion(this, other, comparator);
+    }
+    
+    default <K extends Comparable<? super K>> Seq<T> unionSortedBy(Seq<T> other, Function<T, K> keyExtractor) {
+        return unionSorted(other, Comparator.comparing(keyExtractor));
+    }
+    
     // filterNotNull
     default Seq<T> filterNotNull() {
-        return c -> this.consume(t -> {
-            if (t != null) {
-                c.accept(t);
-            }
-        });
+        return (CancellableSeq<T>) sink -> this.tryConsume(t -> t == null || sink.test(t));
     }
     
     // tail
     default Seq<T> tail() {
-        return c -> {
+        return (CancellableSeq<T>) sink -> {
             final boolean[] first = {true};
-            this.consume(t -> {
-                if (!first[0]) {
-                    c.accept(t);
-                } else {
+            return this.tryConsume(t -> {
+                if (first[0]) {
                     first[0] = false;
+                    return true;
                 }
+                return sink.test(t);
             });
         };
     }
     
-    // last
+    // 最后 n 个元素，遍历时只缓存 n 个
     default Seq<T> last(int n) {
-        return c -> {
-            final int[] i = {0};
+        return (CancellableSeq<T>) sink -> {
+            if (n <= 0) {
+                return true;
+            }
+            List<T> ring = new ArrayList<>(Math.min(n, 16));
+            int[] next = {0};
             this.consume(t -> {
-                if (i[0] >= n) {
-                    c.accept(t);
+                if (ring.size() < n) {
+                    ring.add(t);
+                } else {
+                    ring.set(next[0], t);
+                    next[0] = next[0] + 1 == n ? 0 : next[0] + 1;
                 }
-                i[0]++;
             });
+            for (int i = 0, size = ring.size(); i < size; i++) {
+                if (!sink.test(ring.get((next[0] + i) % size))) {
+                    return false;
+                }
+            }
+            return true;
         };
     }
     
     
     default Optional<T> findFirst(Predicate<T> predicate) {
         Object[] b = {null};
-        consumeUtilStop(t -> {
+        tryConsume(t -> {
             if (predicate.test(t)) {
                 b[0] = t;
-                Stop.stop();
+                return false;
             }
+            return true;
         });
         return Optional.ofNullable((T) b[0]);
     }
     
     // anyMatch
     default boolean anyMatch(Predicate<T> predicate) {
-        return findFirst(predicate).isPresent();
+        return !tryConsume(t -> !predicate.test(t));
     }
     
     // allMatch
     default boolean allMatch(Predicate<T> predicate) {
-        return foldl((r, t) -> r && predicate.test(t), true);
+        return tryConsume(predicate);
     }
     
     // noneMatch
     default boolean noneMatch(Predicate<T> predicate) {
-        return anyMatch(predicate);
+        return !anyMatch(predicate);
     }
     
     // sort
+    // 稳定排序；之后调用 take(k)、head、last 时不会真正排序全部元素
     default Seq<T> sort(Comparator<T> comparator) {
-        return c -> {
-            List<T> list = new ArrayList<>();
-            this.consume(list::add);
-            list.sort(comparator);
-            list.forEach(c);
-        };
+        return new PlanSeq.SortNode<>(this, comparator, null);
+    }
+    
+    /**
+     * 外部排序：每攒满 spill 允许的元素个数就排序一次，用 spill 的 codec 写成临时文件，
+     * 下游遍历时再把这些有序的文件归并输出。仍然是稳定排序，临时文件在遍历结束（包括提前终止）时删除
+     */
+    default Seq<T> sort(Comparator<T> comparator, Spill<T> spill) {
+        return new PlanSeq.SortNode<>(this, comparator, Objects.requireNonNull(spill, "spill"));
     }
     
     // sortBy
     default <R> Seq<T> sortBy(Function<T, R> keyExtractor, Comparator<R> comparator) {
         Comparator<T> keyComparator = (t1, t2) -> comparator.compare(keyExtractor.apply(t1), keyExtractor.apply(t2));
-        return c -> this.sort(keyComparator).consume(c);
+        return this.sort(keyComparator);
     }
     
     default <R extends Comparable<R>> Seq<T> sortBy(Function<T, R> keyExtractor) {
-        return c -> this.sort(Comparator.comparing(keyExtractor));
+        return this.sort(Comparator.comparing(keyExtractor));
+    }
+    
+    default <R extends Comparable<R>> Seq<T> sortBy(Function<T, R> keyExtractor, Spill<T> spill) {
+        return this.sort(Comparator.comparing(keyExtractor), spill);
+    }
+    
+    // 一次遍历找出最小的元素，有多个时取最先遇到的
+    default Optional<T> min(Comparator<T> comparator) {
+        return PlanSeq.extreme(this, comparator, false);
     }
     
-    // min
     default <R extends Comparable<R>> Optional<T> min(Function<T, R> keyExtractor) {
-        Comparator<T> comparator = Comparator.comparing(keyExtractor);
-        return this.sort(comparator).head();
+        return min(Comparator.comparing(keyExtractor));
+    }
+    
+    // 一次遍历找出最大的元素，有多个时取最先遇到的
+    default Optional<T> max(Comparator<T> comparator) {
+        return min(comparator.reversed());
     }
     
-    // max
     default <R extends Comparable<R>> Optional<T> max(Function<T, R> keyExtractor) {
-        Comparator<T> comparator = Comparator.comparing(keyExtractor).reversed();
-        return this.sort(comparator).head();
+        return max(Comparator.comparing(keyExtractor));
+    }
+    
+    /**
+     * 最小的 k 个元素，按升序排列，相等的元素保持遭遇顺序。
+     * 遍历时只保留一个大小为 k 的堆，O(n log k) 时间、O(k) 空间
+     */
+    default List<T> bottomK(int k, Comparator<T> comparator) {
+        BoundedHeap<T> heap = new BoundedHeap<>(k, comparator);
+        if (k > 0) {
+            this.consume(heap::offer);
+        }
+        return heap.toList();
     }
     
+    // 最大的 k 个元素，按降序排列，相等的元素保持遭遇顺序
+    default List<T> topK(int k, Comparator<T> comparator) {
+        return bottomK(k, comparator.reversed());
+    }
     
 }
 
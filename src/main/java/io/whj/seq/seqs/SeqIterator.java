@@ -0,0 +1,15 @@
+package io.whj.seq.seqs;
+
+import java.util.Iterator;
+
+/**
+ * Seq 的拉取式游标，由 {@link Seq#iterator()} 创建。
+ * 不再需要剩余元素时应当调用 {@link #close()}，让后台推送数据的线程尽快停止
+ *
+ * @param <T> 元素类型
+ */
+public interface SeqIterator<T> extends Iterator<T>, AutoCloseable {
+    
+    @Override
+    void close();
+}
@@ -0,0 +1,185 @@
+package io.whj.seq.seqs;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Seq 之间的集合运算，结果都不含重复的 key。hash 策略按左侧（this）的遭遇顺序输出，sorted 策略输出升序的结果。
+ * <p>
+ * hash 策略在较小的一侧上建表：两侧的大小都已知（数组、RandomAccess 列表）并且左侧更小时，
+ * 把左侧读入按插入顺序排列的表，再流式扫描右侧做标记；否则把右侧的 key 读入 HashSet，再流式扫描左侧。
+ * <p>
+ * sorted 策略要求两侧都已经按同一个比较器升序排列：左侧推送、右侧通过 {@link SeqIterator} 拉取，
+ * 归并时只保留两侧的当前元素和上一个输出的元素，不做哈希。发现输入没有排序时抛出 IllegalArgumentException。
+ * 右侧是数组、列表或者它们之上的 map 时直接按下标拉取；否则每次遍历占用一个后台线程和有界的批次缓冲
+ */
+@SuppressWarnings("unchecked")
+final class SetOps {
+    
+    private SetOps() {
+    }
+    
+    // keep 为 true 时是 intersect，否则是 except
+    static <T> Seq<T> hashFilter(Seq<T> left, Seq<T> right, Function<T, ?> keyFn, boolean keep) {
+        return (CancellableSeq<T>) sink -> {
+            long leftSize = knownSize(left);
+            long rightSize = knownSize(right);
+            if (leftSize >= 0 && rightSize >= 0 && leftSize < rightSize) {
+                Map<Object, T> rows = new LinkedHashMap<>();
+                left.consume(t -> {
+                    Object key = keyFn.apply(t);
+                    if (!rows.containsKey(key)) {
+                        rows.put(key, t);
+                    }
+                });
+                Set<Object> matched = new HashSet<>();
+                // 左侧的 key 都匹配上之后右侧剩下的部分不需要再看
+                right.tryConsume(u -> {
+                    Object key = keyFn.apply(u);
+                    if (rows.containsKey(key)) {
+                        matched.add(key);
+                    }
+                    return matched.size() < rows.size();
+                });
+                for (Map.Entry<Object, T> row : rows.entrySet()) {
+                    if (matched.contains(row.getKey()) == keep && !sink.test(row.getValue())) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            Set<Object> keys = new HashSet<>();
+            right.consume(u -> keys.add(keyFn.apply(u)));
+            Set<Object> seen = new HashSet<>();
+            return left.tryConsume(t -> {
+                Object key = keyFn.apply(t);
+                return keys.contains(key) != keep || !seen.add(key) || sink.test(t);
+            });
+        };
+    }
+    
+    // 元素个数已知时返回个数，否则返回 -1
+    private static long knownSize(Seq<?> seq) {
+        return seq instanceof IndexedSeq ? ((IndexedSeq<?>) seq).size() : -1;
+    }
+    
+    static <T> Seq<T> sortedFilter(Seq<T> left, Seq<T> right, Comparator<T> comparator, boolean keep) {
+        return (CancellableSeq<T>) sink -> {
+            try (Cursor<T> cursor = new Cursor<>(right.iterator(), comparator)) {
+                Object[] previous = {null};
+                boolean[] started = {false};
+                boolean[] stopped = {false};
+                left.tryConsume(t -> {
+                    if (started[0]) {
+                        int order = comparator.compare((T) previous[0], t);
+                        if (order > 0) {
+                            throw notSorted(previous[0], t);
+                        }
+                        // 与上一个元素相等，结论也相同，已经处理过
+                        if (order == 0) {
+                            return true;
+                        }
+                    }
+                    started[0] = true;
+                    previous[0] = t;
+                    while (cursor.hasHead && comparator.compare(cursor.head, t) < 0) {
+                        cursor.advance();
+                    }
+                    if (keep && !cursor.hasHead) {
+                        // 右侧已经耗尽，intersect 不会再有结果
+                        return false;
+                    }
+                    boolean found = cursor.hasHead && comparator.compare(cursor.head, t) == 0;
+                    if (found == keep && !sink.test(t)) {
+                        stopped[0] = true;
+                        return false;
+                    }
+                    return true;
+                });
+                return !stopped[0];
+            }
+        };
+    }
+    
+    static <T> Seq<T> sortedUnion(Seq<T> left, Seq<T> right, Comparator<T> comparator) {
+        return (CancellableSeq<T>) sink -> {
+            try (Cursor<T> cursor = new Cursor<>(right.iterator(), comparator)) {
+                Object[] previous = {null};
+                Object[] last = {null};
+                boolean[] started = {false};
+                boolean[] emitted = {false};
+                boolean[] stopped = {false};
+                // 与上一个输出的元素相等时跳过
+                Predicate<T> emit = t -> {
+                    if (emitted[0] && comparator.compare((T) last[0], t) == 0) {
+                        return true;
+                    }
+                    emitted[0] = true;
+                    last[0] = t;
+                    if (!sink.test(t)) {
+                        stopped[0] = true;
+                        return false;
+                    }
+                    return true;
+                };
+                left.tryConsume(t -> {
+                    if (started[0] && comparator.compare((T) previous[0], t) > 0) {
+                        throw notSorted(previous[0], t);
+                    }
+                    started[0] = true;
+                    previous[0] = t;
+                    while (cursor.hasHead && comparator.compare(cursor.head, t) < 0) {
+                        if (!emit.test(cursor.head)) {
+                            return false;
+                        }
+                        cursor.advance();
+                    }
+                    return emit.test(t);
+                });
+                while (!stopped[0] && cursor.hasHead) {
+                    if (!emit.test(cursor.head)) {
+                        return false;
+                    }
+                    cursor.advance();
+                }
+                return !stopped[0];
+            }
+        };
+    }
+    
+    private static IllegalArgumentException notSorted(Object previous, Object next) {
+        return new IllegalArgumentException("input is not sorted: " + previous + " before " + next);
+    }
+    
+    // 右侧的拉取游标，head 是当前元素，拉取时检查是否升序
+    private static final class Cursor<T> implements AutoCloseable {
+        private final SeqIterator<T> iterator;
+        private final Comparator<T> comparator;
+        T head;
+        boolean hasHead;
+        
+        Cursor(SeqIterator<T> iterator, Comparator<T> comparator) {
+            this.iterator = iterator;
+            this.comparator = comparator;
+            advance();
+        }
+        
+        void advance() {
+            T previous = head;
+            boolean had = hasHead;
+            hasHead = iterator.hasNext();
+            if (hasHead) {
+                head = iterator.next();
+                if (had && comparator.compare(previous, head) > 0) {
+                    throw notSorted(previous, head);
+                }
+            }
+        }
+        
+        @Override
+        public void close() {
+            iterator.close();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.codecs.Codec;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * 溢写策略：需要缓存的元素超过 maxInMemory 个时，用 codec 把元素写到 directory 下的临时文件。
+ * 临时文件在遍历结束时删除，遍历被提前终止或者抛出异常时也一样
+ *
+ * @param <T> 元素类型
+ */
+public final class Spill<T> {
+    
+    final int maxInMemory;
+    final Codec<T> codec;
+    // null 表示系统临时目录
+    final Path directory;
+    // hash join 溢写时的分区数
+    final int partitions;
+    
+    private Spill(int maxInMemory, Codec<T> codec, Path directory, int partitions) {
+        if (maxInMemory <= 0) {
+            throw new IllegalArgumentException("maxInMemory must be positive: " + maxInMemory);
+        }
+        if (partitions < 2) {
+            throw new IllegalArgumentException("partitions must be at least 2: " + partitions);
+        }
+        this.maxInMemory = maxInMemory;
+        this.codec = Objects.requireNonNull(codec, "codec");
+        this.directory = directory;
+        this.partitions = partitions;
+    }
+    
+    public static <T> Spill<T> of(int maxInMemory, Codec<T> codec) {
+        return new Spill<>(maxInMemory, codec, null, 16);
+    }
+    
+    public Spill<T> directory(Path directory) {
+        return new Spill<>(maxInMemory, codec, Objects.requireNonNull(directory, "directory"), partitions);
+    }
+    
+    public Spill<T> partitions(int partitions) {
+        return new Spill<>(maxInMemory, codec, directory, partitions);
+    }
+}
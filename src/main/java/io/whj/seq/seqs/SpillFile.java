@@ -0,0 +1,153 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.codecs.Codec;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * 一个溢写用的临时文件：先顺序写入，写完之后可以当作 Seq 反复读取，或者用游标逐个拉取，close 时删除文件。
+ * 读写都通过带缓冲的 {@link FileChannel}
+ *
+ * @param <T> 元素类型
+ */
+final class SpillFile<T> implements Closeable {
+    
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    private final Path path;
+    private final Codec<T> codec;
+    private DataOutputStream out;
+    private long count;
+    
+    private SpillFile(Path path, Codec<T> codec) throws IOException {
+        this.path = path;
+        this.codec = codec;
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+    }
+    
+    static <T> SpillFile<T> create(Path directory, String prefix, Codec<T> codec) {
+        try {
+            Path path = directory == null
+                    ? Files.createTempFile(prefix, ".spill")
+                    : Files.createTempFile(directory, prefix, ".spill");
+            return new SpillFile<>(path, codec);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    void write(T t) {
+        try {
+            codec.encode(t, out);
+            count++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    long count() {
+        return count;
+    }
+    
+    // 结束写入，之后只能读取
+    Seq<T> seq() {
+        finish();
+        return (CancellableSeq<T>) sink -> {
+            try (DataInputStream in = open()) {
+                for (long i = 0; i < count; i++) {
+                    if (!sink.test(codec.decode(in))) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+    
+    // 结束写入，按写入顺序逐个读取；游标需要关闭
+    SeqIterator<T> reader() {
+        finish();
+        DataInputStream in;
+        try {
+            in = open();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new SeqIterator<T>() {
+            private long remaining = count;
+            
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+            
+            @Override
+            public T next() {
+                if (remaining <= 0) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    T t = codec.decode(in);
+                    if (--remaining == 0) {
+                        in.close();
+                    }
+                    return t;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            
+            @Override
+            public void close() {
+                remaining = 0;
+                try {
+                    in.close();
+                } catch (IOException ignore) {
+                    // 只读文件，关闭失败不影响结果
+                }
+            }
+        };
+    }
+    
+    private DataInputStream open() throws IOException {
+        return new DataInputStream(new BufferedInputStream(Channels.newInputStream(FileChannel.open(path)), BUFFER_SIZE));
+    }
+    
+    private void finish() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                out = null;
+            }
+        }
+    }
+    
+    @Override
+    public void close() {
+        try {
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+        } catch (IOException ignore) {
+            // 文件马上会被删除
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            path.toFile().deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.tuples.Tuple2;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 可拆分的数据源，供并行执行时把数据切分成多个块
+ *
+ * @param <T> 元素类型
+ */
+interface SplittableSeq<T> extends Seq<T> {
+    
+    // 剩余元素个数（估计值）
+    long sizeEstimate();
+    
+    // 按遭遇顺序一分为二，_1 在前 _2 在后；无法再拆分时返回 null
+    Tuple2<SplittableSeq<T>, SplittableSeq<T>> split();
+    
+    // 把任意 Seq 包装成不可拆分的单块数据源
+    static <T> SplittableSeq<T> single(Seq<T> seq) {
+        return new SplittableSeq<T>() {
+            @Override
+            public long sizeEstimate() {
+                return Long.MAX_VALUE;
+            }
+            
+            @Override
+            public Tuple2<SplittableSeq<T>, SplittableSeq<T>> split() {
+                return null;
+            }
+            
+            @Override
+            public void consume(Consumer<T> consumer) {
+                seq.consume(consumer);
+            }
+            
+            @Override
+            public boolean tryConsume(Predicate<T> sink) {
+                return seq.tryConsume(sink);
+            }
+        };
+    }
+}
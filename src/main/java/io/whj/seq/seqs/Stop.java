@@ -1,19 +1,13 @@
 package io.whj.seq.seqs;
 
 
+/**
+ * 只实现了 consume 的 lambda 数据源无法感知 sink 的终止信号，只能抛出异常打断循环。
+ * 每次遍历创建独立的实例，嵌套遍历时各层只捕获自己的信号，不会误吞外层的终止请求
+ */
 final class Stop extends RuntimeException {
-    public static final Stop INSTANCE = new Stop();
     
-    @Override
-    public synchronized Throwable fillInStackTrace() {
-        return this;
+    Stop() {
+        super(null, null, false, false);
     }
-    
-    private Stop() {
-        super();
-    }
-    
-    static <T> void stop() {
-        throw Stop.INSTANCE;
-    }
-}
\ No newline at end of file
+}
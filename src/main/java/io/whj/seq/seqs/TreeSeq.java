@@ -0,0 +1,171 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.tuples.Tuple;
+import io.whj.seq.tuples.Tuple2;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 树和图的遍历：深度优先用数组实现的显式栈，广度优先用数组实现的队列，调用深度与树的深度无关。
+ * <p>
+ * 深度优先按先序输出，拆分时把一棵子树拆成根节点和它的子节点列表，子节点多于一个时再按个数对半分，
+ * 因此 parallel() 可以在 ForkJoinPool 上展开子树，toList 等操作仍然保持先序。
+ * 子树大小事先未知，每次拆分把估计值减半，拆分的层数与并行度相当。
+ * <p>
+ * skipVisited 为 true 时用 equals 记录访问过的节点并跳过，图中有环时也能结束；
+ * 并行执行时各块共享一个并发集合，同一个节点只输出一次，但哪一处被保留取决于执行顺序
+ */
+@SuppressWarnings("unchecked")
+final class TreeSeq<T> implements SplittableSeq<T>, CancellableSeq<T> {
+    
+    // ArrayDeque 和 ConcurrentHashMap 不接受 null，用它占位
+    private static final Object NULL = new Object();
+    
+    private final Object[] roots;
+    private final int from;
+    private final int to;
+    // false 表示只输出根节点本身，子节点已经在拆分时被分到另一块
+    private final boolean expand;
+    private final Function<T, Seq<T>> childrenFn;
+    private final boolean skipVisited;
+    // 拆分之后各块共享；为 null 时每次遍历单独创建。保存的是 mask 之后的节点
+    private final Set<Object> visited;
+    private final long estimate;
+    
+    private TreeSeq(Object[] roots, int from, int to, boolean expand, Function<T, Seq<T>> childrenFn,
+                    boolean skipVisited, Set<Object> visited, long estimate) {
+        this.roots = roots;
+        this.from = from;
+        this.to = to;
+        this.expand = expand;
+        this.childrenFn = childrenFn;
+        this.skipVisited = skipVisited;
+        this.visited = visited;
+        this.estimate = estimate;
+    }
+    
+    private static Object mask(Object node) {
+        return node == null ? NULL : node;
+    }
+    
+    static <T> TreeSeq<T> depthFirst(T root, Function<T, Seq<T>> childrenFn, boolean skipVisited) {
+        Objects.requireNonNull(childrenFn, "childrenFn");
+        return new TreeSeq<>(new Object[]{root}, 0, 1, true, childrenFn, skipVisited, null, Long.MAX_VALUE);
+    }
+    
+    static <T> Seq<T> breadthFirst(T root, Function<T, Seq<T>> childrenFn, boolean skipVisited) {
+        Objects.requireNonNull(childrenFn, "childrenFn");
+        return new CancellableSeq<T>() {
+            @Override
+            public boolean tryConsume(Predicate<T> sink) {
+                Set<Object> visited = skipVisited ? new HashSet<>() : null;
+                ArrayDeque<Object> queue = new ArrayDeque<>();
+                queue.add(mask(root));
+                if (visited != null) {
+                    visited.add(mask(root));
+                }
+                while (!queue.isEmpty()) {
+                    Object polled = queue.poll();
+                    T node = polled == NULL ? null : (T) polled;
+                    if (!sink.test(node)) {
+                        return false;
+                    }
+                    Seq<T> children = childrenFn.apply(node);
+                    if (children != null) {
+                        children.consume(child -> {
+                            if (visited == null || visited.add(mask(child))) {
+                                queue.add(mask(child));
+                            }
+                        });
+                    }
+                }
+                return true;
+            }
+            
+            @Override
+            public String explain() {
+                return "BreadthFirst";
+            }
+        };
+    }
+    
+    @Override
+    public boolean tryConsume(Predicate<T> sink) {
+        Set<Object> seen = !skipVisited ? null : visited != null ? visited : new HashSet<>();
+        if (!expand) {
+            for (int i = from; i < to; i++) {
+                T node = (T) roots[i];
+                if ((seen == null || seen.add(mask(node))) && !sink.test(node)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        // 栈顶在数组末尾，子节点逆序入栈，先序输出
+        Object[] stack = new Object[Math.max(to - from, 16)];
+        int top = 0;
+        for (int i = to - 1; i >= from; i--) {
+            stack[top++] = roots[i];
+        }
+        List<T> buffer = new ArrayList<>();
+        while (top > 0) {
+            T node = (T) stack[--top];
+            stack[top] = null;
+            if (seen != null && !seen.add(mask(node))) {
+                continue;
+            }
+            if (!sink.test(node)) {
+                return false;
+            }
+            Seq<T> children = childrenFn.apply(node);
+            if (children == null) {
+                continue;
+            }
+            children.consume(buffer::add);
+            if (top + buffer.size() > stack.length) {
+                stack = Arrays.copyOf(stack, Math.max(stack.length << 1, top + buffer.size()));
+            }
+            for (int i = buffer.size() - 1; i >= 0; i--) {
+                stack[top++] = buffer.get(i);
+            }
+            buffer.clear();
+        }
+        return true;
+    }
+    
+    @Override
+    public long sizeEstimate() {
+        return estimate;
+    }
+    
+    @Override
+    public Tuple2<SplittableSeq<T>, SplittableSeq<T>> split() {
+        Set<Object> shared = skipVisited && visited == null ? ConcurrentHashMap.newKeySet() : visited;
+        long half = estimate >>> 1;
+        if (to - from > 1) {
+            int mid = (from + to) >>> 1;
+            return Tuple.of(new TreeSeq<>(roots, from, mid, expand, childrenFn, skipVisited, shared, half),
+                    new TreeSeq<>(roots, mid, to, expand, childrenFn, skipVisited, shared, half));
+        }
+        if (!expand || to == from) {
+            return null;
+        }
+        // 单个子树：根节点单独一块，子节点列表作为另一块
+        T root = (T) roots[from];
+        Seq<T> children = childrenFn.apply(root);
+        Object[] array = children == null ? new Object[0] : children.toList().toArray();
+        if (array.length == 0) {
+            return null;
+        }
+        return Tuple.of(new TreeSeq<>(roots, from, to, false, childrenFn, skipVisited, shared, 1),
+                new TreeSeq<>(array, 0, array.length, true, childrenFn, skipVisited, shared, half));
+    }
+    
+    @Override
+    public String explain() {
+        return "DepthFirst";
+    }
+}
@@ -0,0 +1,78 @@
+package io.whj.seq.seqs;
+
+import io.whj.seq.consumers.Consumer3;
+import io.whj.seq.functions.Function3;
+import io.whj.seq.predicates.Predicate3;
+import io.whj.seq.tuples.Tuple;
+import io.whj.seq.tuples.Tuple3;
+
+/**
+ * 每一步推送三个值的流：值直接传给 {@link Consumer3}，流水线中不会为每一行创建 Tuple3。
+ * 只在边界上转换：{@link #of(Seq)} 解构 Seq&lt;Tuple3&gt;，{@link #toTuples()} 重新组装成元组。
+ * 只提供 map、filter 和 zip，其余操作先用 map 转成 Seq 或者用 toTuples 转成元组再处理。
+ * QuadSeq 到 OctSeq 是四元到八元的版本，操作和约定完全相同
+ */
+public interface TriSeq<T1, T2, T3> {
+    
+    void consume(Consumer3<T1, T2, T3> consumer);
+    
+    // 可以提前终止的消费，约定与 {@link Seq#tryConsume(java.util.function.Predicate)} 相同
+    default boolean tryConsume(Predicate3<T1, T2, T3> sink) {
+        Stop stop = new Stop();
+        try {
+            consume((t1, t2, t3) -> {
+                if (!sink.test(t1, t2, t3)) {
+                    throw stop;
+                }
+            });
+            return true;
+        } catch (Stop e) {
+            if (e != stop) {
+                throw e;
+            }
+            return false;
+        }
+    }
+    
+    // 解构元组
+    static <T1, T2, T3> TriSeq<T1, T2, T3> of(Seq<Tuple3<T1, T2, T3>> seq) {
+        return (CancellableTriSeq<T1, T2, T3>) sink -> seq.tryConsume(t -> sink.test(t._1(), t._2(), t._3()));
+    }
+    
+    /**
+     * 以第一个 Seq 为主推送，其余的通过 {@link Seq#iterator()} 拉取，任意一方耗尽时结束。
+     * 数组、RandomAccess 列表以及它们之上的 map 直接按下标拉取；其余的输入每次遍历各占用一个后台线程，
+     * 元素按批次装箱之后交给调用方
+     */
+    static <T1, T2, T3> TriSeq<T1, T2, T3> zip(Seq<T1> s1, Seq<T2> s2, Seq<T3> s3) {
+        return (CancellableTriSeq<T1, T2, T3>) sink -> {
+            try (SeqIterator<T2> i2 = s2.iterator(); SeqIterator<T3> i3 = s3.iterator()) {
+                boolean[] stopped = {false};
+                s1.tryConsume(t1 -> {
+                    if (!i2.hasNext() || !i3.hasNext()) {
+                        return false;
+                    }
+                    if (!sink.test(t1, i2.next(), i3.next())) {
+                        stopped[0] = true;
+                        return false;
+                    }
+                    return true;
+                });
+                return !stopped[0];
+            }
+        };
+    }
+    
+    default <R> Seq<R> map(Function3<T1, T2, T3, R> mapper) {
+        return (CancellableSeq<R>) sink -> this.tryConsume((t1, t2, t3) -> sink.test(mapper.apply(t1, t2, t3)));
+    }
+    
+    default TriSeq<T1, T2, T3> filter(Predicate3<T1, T2, T3> predicate) {
+        return (CancellableTriSeq<T1, T2, T3>) sink -> this.tryConsume((t1, t2, t3) -> !predicate.test(t1, t2, t3) || sink.test(t1, t2, t3));
+    }
+    
+    // 只在需要元组的边界上调用
+    default Seq<Tuple3<T1, T2, T3>> toTuples() {
+        return map((t1, t2, t3) -> Tuple.of(t1, t2, t3));
+    }
+}
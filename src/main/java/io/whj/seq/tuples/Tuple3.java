@@ -42,6 +42,18 @@ public class Tuple3<T1, T2, T3> implements Tuple {
         return third;
     }
     
+    public T1 _1() {
+        return first;
+    }
+    
+    public T2 _2() {
+        return second;
+    }
+    
+    public T3 _3() {
+        return third;
+    }
+    
     @Override
     public String toString() {
         return "(" + first + ", " + second + ", " + third + ")";
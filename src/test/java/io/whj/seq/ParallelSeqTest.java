@@ -0,0 +1,164 @@
+package io.whj.seq;
+
+import io.whj.seq.collections.BloomFilter;
+import io.whj.seq.seqs.Line;
+import io.whj.seq.seqs.Seq;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+class ParallelSeqTest {
+    
+    static List<Integer> numbers(int n) {
+        return IntStream.range(0, n).boxed().collect(Collectors.toList());
+    }
+    
+    @Test
+    void toListKeepsEncounterOrder() {
+        List<Integer> list = numbers(100_000);
+        List<String> actual = Seq.of(list).parallel()
+                .map(v -> v * 3)
+                .filter(v -> v % 2 == 0)
+                .flatMap(v -> Seq.of(v, -v))
+                .map(String::valueOf)
+                .toList();
+        List<String> expect = list.stream()
+                .map(v -> v * 3)
+                .filter(v -> v % 2 == 0)
+                .flatMap(v -> Stream.of(v, -v))
+                .map(String::valueOf)
+                .collect(Collectors.toList());
+        Assertions.assertEquals(expect, actual);
+    }
+    
+    @Test
+    void runsOnGivenPool() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Set<String> threads = ConcurrentHashMap.newKeySet();
+            Integer[] array = numbers(10_000).toArray(new Integer[0]);
+            int length = Seq.of(array).parallel(pool)
+                    .peek(v -> threads.add(Thread.currentThread().getName()))
+                    .length();
+            Assertions.assertEquals(10_000, length);
+            Assertions.assertTrue(threads.stream().allMatch(name -> name.startsWith("ForkJoinPool-")), threads::toString);
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    void terminals() {
+        List<Integer> list = numbers(50_000);
+        Assertions.assertEquals(new HashSet<>(list), Seq.of(list).parallel().toSet());
+        Assertions.assertEquals(
+                list.stream().collect(Collectors.toMap(v -> v % 100, Function.identity(), (a, b) -> b)),
+                Seq.of(list).parallel().toMap(v -> v % 100, Function.identity()));
+        Assertions.assertEquals(
+                list.stream().mapToLong(v -> v).sum(),
+                Seq.of(list).parallel().reduce(0L, (acc, v) -> acc + v, Long::sum));
+        Assertions.assertEquals(
+                Seq.of(list).toJoinString(""),
+                Seq.of(list).parallel().map(String::valueOf).reduce("", String::concat));
+    }
+    
+    @Test
+    void topKMergesPerWorkerHeaps() {
+        List<Integer> list = new Random(3).ints(200_000, 0, 10_000).boxed().collect(Collectors.toList());
+        Comparator<Integer> byBucket = Comparator.comparing(v -> v / 100);
+        Assertions.assertEquals(Seq.of(list).topK(500, byBucket), Seq.of(list).parallel().topK(500, byBucket));
+        Assertions.assertEquals(Seq.of(list).bottomK(500, byBucket), Seq.of(list).parallel().bottomK(500, byBucket));
+        Assertions.assertEquals(Seq.of(list).max(byBucket), Seq.of(list).parallel().max(byBucket));
+        Assertions.assertEquals(Optional.empty(), Seq.of(new Integer[0]).parallel().min(byBucket));
+    }
+    
+    @Test
+    void aggregatesByKeyInPartialTables() {
+        List<Integer> list = numbers(100_000);
+        Seq<Integer> seq = Seq.of(list);
+        Assertions.assertEquals(seq.groupBy(v -> v % 7), seq.parallel().groupBy(v -> v % 7));
+        Assertions.assertEquals(seq.countBy(v -> v % 13), seq.parallel().countBy(v -> v % 13));
+        Assertions.assertEquals(seq.sumBy(v -> v % 13, v -> v), seq.parallel().sumBy(v -> v % 13, v -> v));
+        Assertions.assertEquals(
+                seq.reduceByKey(v -> v % 5, String::valueOf, (a, b) -> a.length() > 40 ? a : a + b),
+                seq.parallel().reduceByKey(v -> v % 5, String::valueOf, (a, b) -> a.length() > 40 ? a : a + b));
+        Assertions.assertEquals(
+                seq.aggregateByKey(v -> v % 3, () -> 0L, (acc, v) -> acc + v, Long::sum),
+                seq.parallel().aggregateByKey(v -> v % 3, () -> 0L, (acc, v) -> acc + v, Long::sum));
+    }
+    
+    @Test
+    void linesSplitAtNewlines(@TempDir Path dir) throws IOException {
+        List<String> lines = numbers(200_000).stream().map(v -> "line-" + v).collect(Collectors.toList());
+        Path file = Files.write(dir.resolve("lines.txt"), lines);
+        Assertions.assertEquals(lines, Seq.lines(file).parallel().map(Line::toString).toList());
+        Assertions.assertEquals(lines.size() / 10, Seq.lines(file).parallel().filter(l -> l.charAt(l.length() - 1) == '7').length());
+    }
+    
+    @Test
+    void mergesSketchesAcrossChunks() {
+        List<Integer> list = numbers(100_000);
+        Assertions.assertEquals(Seq.of(list).toHyperLogLog(14), Seq.of(list).parallel().toHyperLogLog(14));
+        Assertions.assertEquals(Seq.of(list).countDistinctApprox(), Seq.of(list).parallel().countDistinctApprox());
+        BloomFilter filter = Seq.of(list).parallel().toBloomFilter(list.size(), 0.01);
+        Assertions.assertTrue(Seq.of(list).allMatch(filter::mightContain));
+        // 共用一个过滤器，误判率仍然接近 fpp
+        int falsePositives = Seq.of(numbers(200_000)).filter(v -> v >= list.size()).filter(filter::mightContain).length();
+        Assertions.assertTrue(falsePositives < 2_000, () -> "false positives: " + falsePositives);
+    }
+    
+    @Test
+    void expandsSubtreesInParallel() {
+        Function<Integer, Seq<Integer>> children = n -> n < 50_000 ? Seq.of(n * 2, n * 2 + 1) : null;
+        Seq<Integer> tree = Seq.traverseDepthFirst(1, children);
+        ForkJoinPool pool = new ForkJoinPool(8);
+        try {
+            Assertions.assertEquals(tree.toList(), tree.parallel(pool).toList());
+        } finally {
+            pool.shutdown();
+        }
+        Assertions.assertEquals(tree.length(), tree.parallel().length());
+        Assertions.assertEquals(new HashSet<>(tree.toList()), Seq.traverseDepthFirst(1, children, true).parallel().toSet());
+    }
+    
+    @Test
+    void anyMatchCancelsOtherTasks() {
+        List<Integer> list = numbers(1_000_000);
+        AtomicInteger visited = new AtomicInteger();
+        boolean found = Seq.of(list).parallel()
+                .peek(v -> visited.incrementAndGet())
+                .anyMatch(v -> v == 10);
+        Assertions.assertTrue(found);
+        Assertions.assertTrue(visited.get() < list.size());
+        Assertions.assertFalse(Seq.of(list).parallel().anyMatch(v -> v < 0));
+        Assertions.assertTrue(Seq.of(list).parallel().allMatch(v -> v >= 0));
+        Assertions.assertTrue(Seq.of(list).parallel().noneMatch(v -> v < 0));
+    }
+    
+    @Test
+    void notSplittableSourceRunsAsOneChunk() {
+        Seq<Integer> seq = c -> {
+            for (int i = 0; i < 100; i++) {
+                c.accept(i);
+            }
+        };
+        Assertions.assertEquals(numbers(100), seq.parallel().toList());
+        Assertions.assertEquals("[0, 1, 2]", Seq.of(numbers(10)).parallel().filter(v -> v < 3).sequential().toArrayString());
+        // sequential() 之后仍然按 tryConsume 协议提前终止
+        AtomicInteger visited = new AtomicInteger();
+        Assertions.assertEquals(Optional.of(0), Seq.of(numbers(10)).parallel().peek(v -> visited.incrementAndGet()).sequential().head());
+        Assertions.assertEquals(1, visited.get());
+    }
+}
@@ -0,0 +1,118 @@
+package io.whj.seq;
+
+import io.whj.seq.collections.IntBitmap;
+import io.whj.seq.seqs.DoubleSeq;
+import io.whj.seq.seqs.IntSeq;
+import io.whj.seq.seqs.LongSeq;
+import io.whj.seq.seqs.Seq;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class PrimitiveSeqTest {
+    
+    @Test
+    void range() {
+        Assertions.assertArrayEquals(new int[]{0, 1, 2, 3, 4}, IntSeq.range(0, 5).toArray());
+        Assertions.assertArrayEquals(new int[]{1, 2, 3}, IntSeq.rangeClosed(1, 3).toArray());
+        Assertions.assertArrayEquals(new int[0], IntSeq.range(3, 3).toArray());
+        Assertions.assertArrayEquals(new long[]{0, 1, 2}, LongSeq.range(0, 3).toArray());
+    }
+    
+    @Test
+    void arithmeticProgression() {
+        Assertions.assertArrayEquals(IntStream.range(0, 10).toArray(), IntSeq.arithmeticProgression(0, 1, 10).toArray());
+        Assertions.assertArrayEquals(new int[]{10, 7, 4, 1}, IntSeq.arithmeticProgression(10, -3, 0).toArray());
+        Assertions.assertArrayEquals(new int[]{Integer.MAX_VALUE - 1},
+                IntSeq.arithmeticProgression(Integer.MAX_VALUE - 1, 2, Integer.MAX_VALUE).toArray());
+        Assertions.assertArrayEquals(new long[]{Long.MAX_VALUE - 2},
+                LongSeq.arithmeticProgression(Long.MAX_VALUE - 2, 5, Long.MAX_VALUE).toArray());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> IntSeq.arithmeticProgression(0, 0, 10));
+    }
+    
+    @Test
+    void mapFilterTakeDrop() {
+        int[] actual = IntSeq.naturalNumbers()
+                .map(v -> v * 3)
+                .filter(v -> v % 2 == 0)
+                .drop(1)
+                .take(4)
+                .toArray();
+        Assertions.assertArrayEquals(new int[]{6, 12, 18, 24}, actual);
+        Assertions.assertEquals(0, IntSeq.naturalNumbers().take(0).length());
+    }
+    
+    @Test
+    void generators() {
+        Assertions.assertArrayEquals(new int[]{1, 3, 9, 27}, IntSeq.iterate(1, v -> v * 3).take(4).toArray());
+        Assertions.assertArrayEquals(new long[]{1, 3, 9, 27}, LongSeq.iterate(1, v -> v < 50, v -> v * 3).toArray());
+        Assertions.assertArrayEquals(new double[]{0.5, 0.5}, DoubleSeq.generate(() -> 0.5).take(2).toArray());
+        Assertions.assertEquals(OptionalInt.of(7), IntSeq.generate(() -> 7).take(1_000).max());
+    }
+    
+    @Test
+    void aggregates() {
+        IntSeq seq = IntSeq.of(4, -2, 9, 7);
+        Assertions.assertEquals(18, seq.sum());
+        Assertions.assertEquals(OptionalInt.of(-2), seq.min());
+        Assertions.assertEquals(OptionalInt.of(9), seq.max());
+        Assertions.assertEquals(OptionalDouble.of(4.5), seq.average());
+        Assertions.assertEquals(OptionalInt.empty(), IntSeq.empty().min());
+        Assertions.assertArrayEquals(new int[]{-1, 0, 1, 2, 2, 5}, IntSeq.mergeSorted(IntSeq.of(0, 2, 5), IntSeq.of(-1, 1, 2)).toArray());
+        
+        Assertions.assertEquals((long) Integer.MAX_VALUE * 2, IntSeq.of(Integer.MAX_VALUE, Integer.MAX_VALUE).sum());
+        Assertions.assertEquals(6.0, DoubleSeq.of(1.5, 2.5, 2.0).sum());
+        Assertions.assertEquals(OptionalDouble.of(1.5), DoubleSeq.of(1.5, 2.5, 2.0).min());
+    }
+    
+    @Test
+    void intBitmap() {
+        // 覆盖数组块、位图块和负数
+        int[] left = new Random(1).ints(20_000, -200_000, 200_000).toArray();
+        int[] right = new Random(2).ints(20_000, -200_000, 200_000).toArray();
+        IntBitmap a = IntSeq.of(left).toIntSet();
+        IntBitmap b = IntSeq.of(right).append(IntSeq.range(0, 70_000)).toIntSet();
+        Set<Integer> setA = IntStream.of(left).boxed().collect(Collectors.toCollection(TreeSet::new));
+        Set<Integer> setB = IntStream.concat(IntStream.of(right), IntStream.range(0, 70_000)).boxed().collect(Collectors.toCollection(TreeSet::new));
+        
+        Assertions.assertEquals(setA.size(), a.cardinality());
+        Assertions.assertArrayEquals(setA.stream().mapToInt(v -> v).toArray(), a.toArray());
+        Set<Integer> union = new TreeSet<>(setA);
+        union.addAll(setB);
+        Set<Integer> intersect = new TreeSet<>(setA);
+        intersect.retainAll(setB);
+        Set<Integer> difference = new TreeSet<>(setA);
+        difference.removeAll(setB);
+        Assertions.assertArrayEquals(union.stream().mapToInt(v -> v).toArray(), a.union(b).toArray());
+        Assertions.assertArrayEquals(intersect.stream().mapToInt(v -> v).toArray(), a.intersect(b).toArray());
+        Assertions.assertArrayEquals(difference.stream().mapToInt(v -> v).toArray(), a.difference(b).toArray());
+        Assertions.assertEquals(b, b.union(a.intersect(b)));
+        Assertions.assertTrue(a.union(b).containsAll(b));
+        Assertions.assertFalse(a.containsAll(b));
+        Assertions.assertTrue(a.contains(left[0]) && !a.difference(b).contains(70_000 - 1));
+        
+        Assertions.assertArrayEquals(new int[]{3, 1, 2}, IntSeq.of(3, 1, 3, 2, 1).distinct().toArray());
+        Assertions.assertArrayEquals(new int[]{3, 1}, IntSeq.of(3, 5, 1, 3).intersect(IntSeq.of(1, 3)).toArray());
+        Assertions.assertArrayEquals(new int[]{5, 7}, IntSeq.of(3, 5, 1, 5, 7).difference(IntSeq.of(1, 3)).toArray());
+        Assertions.assertArrayEquals(new int[]{1, 2, 3}, IntSeq.of(1, 2).union(IntSeq.of(2, 3)).toArray());
+        Assertions.assertTrue(IntSeq.range(0, 100).containsAll(IntSeq.of(5, 99)));
+        Assertions.assertArrayEquals(new int[]{-5, 0, 7}, IntSeq.of(IntBitmap.of(7, -5, 0)).toArray());
+        Assertions.assertEquals("[bb, a]", Seq.of("bb", "a", "cc", "b").distinctInt(String::length).toArrayString());
+        Assertions.assertEquals(IntBitmap.of(1, 2), Seq.of("a", "bb", "c").toIntSet(String::length));
+    }
+    
+    @Test
+    void bridges() {
+        Seq<String> seq = Seq.of("a", "bb", "ccc");
+        Assertions.assertEquals(6, seq.mapToInt(String::length).sum());
+        Assertions.assertEquals("[1, 2, 3]", seq.mapToInt(String::length).boxed().toArrayString());
+        Assertions.assertEquals("x,xx,xxx", IntSeq.rangeClosed(1, 3)
+                .mapToObj(i -> new String(new char[i]).replace('\0', 'x'))
+                .toJoinString(","));
+        Assertions.assertArrayEquals(new double[]{0.5, 1.0}, IntSeq.of(1, 2).mapToDouble(i -> i / 2.0).toArray());
+        Assertions.assertEquals(3L, LongSeq.of(1, 2).asDoubleSeq().mapToLong(d -> (long) d).sum());
+    }
+}
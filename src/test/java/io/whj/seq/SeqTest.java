@@ -1,13 +1,41 @@
 package io.whj.seq;
 
+import io.whj.seq.collections.BloomFilter;
+import io.whj.seq.collections.HyperLogLog;
+import io.whj.seq.collections.ObjLongMap;
+import io.whj.seq.codecs.Codec;
+import io.whj.seq.controls.More;
+import io.whj.seq.seqs.BiSeq;
+import io.whj.seq.seqs.Column;
+import io.whj.seq.seqs.Delimited;
+import io.whj.seq.seqs.IntSeq;
+import io.whj.seq.seqs.Line;
+import io.whj.seq.seqs.OctSeq;
 import io.whj.seq.seqs.Seq;
+import io.whj.seq.seqs.SeqIterator;
+import io.whj.seq.seqs.Spill;
+import io.whj.seq.seqs.TriSeq;
+import io.whj.seq.tuples.Tuple;
+import io.whj.seq.tuples.Tuple3;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 class SeqTest {
     
@@ -122,6 +150,181 @@ class SeqTest {
     
     @Test
     void drop() {
+        Seq<Integer> seq = Seq.of(1, 2, 3, 4).drop(2);
+        Assertions.assertEquals("[3, 4]", seq.toArrayString());
+        Assertions.assertEquals("[3, 4]", seq.toArrayString());
+    }
+    
+    static String pairsOf(BiSeq<?, ?> biSeq) {
+        StringJoiner joiner = new StringJoiner(", ");
+        biSeq.consume((k, v) -> joiner.add(k + "=" + v));
+        return joiner.toString();
+    }
+    
+    // 流水线只构建一次，缓存成静态常量
+    static final Seq<String> PLAN = Seq.of(listOf(5, 1, 4, 1, 5, 9, 2, 6, 5, 3, 5, 8))
+            .drop(1)
+            .distinct()
+            .take(6)
+            .filter(v -> v != 4)
+            .map(v -> "#" + v);
+    
+    @Test
+    void reusablePlan() {
+        Assertions.assertEquals("[#1, #5, #9, #2, #6]", PLAN.toArrayString());
+        Assertions.assertEquals("[#1, #5, #9, #2, #6]", PLAN.toArrayString());
+        
+        BiSeq<Integer, String> indexed = PLAN.mapWithIndex(v -> v);
+        Assertions.assertEquals("0=#1, 1=#5, 2=#9, 3=#2, 4=#6", pairsOf(indexed));
+        Assertions.assertEquals(pairsOf(indexed), pairsOf(indexed));
+        
+        BiSeq<String, Integer> zipped = PLAN.zipWithIndex();
+        Assertions.assertEquals("#1=0, #5=1, #9=2, #2=3, #6=4", pairsOf(zipped));
+        Assertions.assertEquals(pairsOf(zipped), pairsOf(zipped));
+        
+        Seq<More<Integer>> progression = Seq.arithmeticProgression(0, 3, 10);
+        Assertions.assertEquals("0,3,6,9", progression.filter(More::isSome).map(m -> m.getOrElse(null)).toJoinString(","));
+        Assertions.assertEquals(5, progression.length());
+        Assertions.assertTrue(progression.map(More::isNone).toList().get(4));
+    }
+    
+    @Test
+    void generators() {
+        int[] counter = {0};
+        Assertions.assertEquals("[1, 2, 3]", Seq.generate(() -> ++counter[0]).take(3).toArrayString());
+        Assertions.assertEquals("[1, 2, 4, 8]", Seq.iterate(1, v -> v * 2).take(4).toArrayString());
+        Assertions.assertEquals("[1, 2, 4, 8]", Seq.iterate(1, v -> v < 10, v -> v * 2).toArrayString());
+        Assertions.assertTrue(Seq.iterate(1, v -> v > 10, v -> v * 2).isEmpty());
+        
+        Seq<Long> fibonacci = Seq.unfold(() -> new long[]{0, 1}, (s, yield) -> {
+            yield.accept(s[0]);
+            long next = s[0] + s[1];
+            s[0] = s[1];
+            s[1] = next;
+            return true;
+        });
+        Assertions.assertEquals("[0, 1, 1, 2, 3, 5, 8]", fibonacci.take(7).toArrayString());
+        // 状态在每次遍历时重新创建
+        Assertions.assertEquals("[0, 1, 1, 2, 3, 5, 8]", fibonacci.take(7).toArrayString());
+        
+        // 有限生成器：一次推送多个元素，返回 false 结束
+        Seq<Integer> pairs = Seq.unfold(() -> new int[]{0}, (s, yield) -> {
+            if (s[0] >= 3) {
+                return false;
+            }
+            yield.accept(s[0]);
+            yield.accept(-s[0]);
+            s[0]++;
+            return true;
+        });
+        Assertions.assertEquals("[0, 0, 1, -1, 2, -2]", pairs.toArrayString());
+        Assertions.assertEquals("[0, 0, 1]", pairs.take(3).toArrayString());
+        Assertions.assertEquals("[1, -1, 2, -2]", pairs.drop(2).toArrayString());
+    }
+    
+    @Test
+    void sharedPlanConcurrently() throws Exception {
+        String expect = PLAN.toArrayString();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        if (!expect.equals(PLAN.toArrayString())) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                Assertions.assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    void cache() {
+        AtomicInteger computed = new AtomicInteger();
+        Seq<Integer> cached = Seq.of(1, 2, 3, 4, 5).map(v -> {
+            computed.incrementAndGet();
+            return v * 10;
+        }).filter(v -> v > 10).cache();
+        Assertions.assertEquals("[20, 30]", cached.take(2).toArrayString());
+        Assertions.assertEquals("[20, 30, 40, 50]", cached.toArrayString());
+        Assertions.assertEquals(4, cached.length());
+        // 第二次遍历用 drop(2) 跳过已经记录的前缀，filter 之前的 map 会重新计算
+        Assertions.assertEquals(8, computed.get());
+        
+        // 只能遍历一次的数据源第一次完整遍历之后可以反复遍历
+        Seq<Integer> once = Seq.of(Arrays.asList(1, 2, 3).iterator()).cache();
+        Assertions.assertEquals("[1, 2, 3]", once.toArrayString());
+        Assertions.assertEquals("[1, 2, 3]", once.toArrayString());
+        Assertions.assertEquals(Optional.of(1), once.head());
+        
+        // 第一次遍历被提前终止时从同一个游标继续拉取，不会跳过元素
+        Seq<Integer> partial = Seq.of(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7).iterator()).map(v -> v * 10).cache();
+        Assertions.assertEquals("[0, 10]", partial.take(2).toArrayString());
+        Assertions.assertEquals("[0, 10, 20]", partial.take(3).toArrayString());
+        Assertions.assertEquals("[0, 10, 20, 30, 40, 50, 60, 70]", partial.toArrayString());
+        Assertions.assertEquals("[0, 10, 20, 30, 40, 50, 60, 70]", partial.toArrayString());
+        // 放弃缓存之后一次性数据源无法重新执行
+        Seq<Integer> abandoned = Seq.of(Arrays.asList(1, 2, 3).iterator()).cache(2);
+        Assertions.assertEquals("[1, 2, 3]", abandoned.toArrayString());
+        Assertions.assertThrows(IllegalStateException.class, abandoned::toList);
+        Seq<Integer> reentrant = Seq.of(Arrays.asList(1, 2, 3).iterator()).cache();
+        Assertions.assertThrows(IllegalStateException.class, () -> reentrant.consume(v -> reentrant.toList()));
+        
+        Assertions.assertEquals("[0, 1, 2]", infinite().cache().take(3).toArrayString());
+        
+        // 上游在调用线程中执行，下游停止时不会预读
+        AtomicInteger pulled = new AtomicInteger();
+        Set<Thread> threads = new HashSet<>();
+        Seq<Integer> lazy = Seq.iterate(0, v -> v + 1).peek(v -> {
+            pulled.incrementAndGet();
+            threads.add(Thread.currentThread());
+        }).cache();
+        Assertions.assertEquals(Optional.of(0), lazy.head());
+        Assertions.assertEquals(1, pulled.get());
+        // 继续填充时 iterate 的前缀会重新计算一次
+        Assertions.assertEquals("[0, 1, 2]", lazy.take(3).toArrayString());
+        Assertions.assertEquals(4, pulled.get());
+        Assertions.assertEquals(Collections.singleton(Thread.currentThread()), threads);
+    }
+    
+    @Test
+    void cacheWithLimit() {
+        AtomicInteger computed = new AtomicInteger();
+        Seq<Integer> seq = Seq.of(1, 2, 3, 4, 5).peek(v -> computed.incrementAndGet());
+        Seq<Integer> capped = seq.cache(3);
+        Assertions.assertEquals("[1, 2]", capped.take(2).toArrayString());
+        Assertions.assertEquals("[1, 2, 3, 4, 5]", capped.toArrayString());
+        Assertions.assertEquals("[1, 2, 3, 4, 5]", capped.toArrayString());
+        Assertions.assertTrue(computed.get() > 5);
+        Assertions.assertEquals("[1, 2, 3, 4, 5]", seq.cache(100L, v -> 20).toArrayString());
+    }
+    
+    @Test
+    void cacheConcurrently() throws Exception {
+        AtomicInteger computed = new AtomicInteger();
+        Seq<Integer> cached = infinite().take(100_000).peek(v -> computed.incrementAndGet()).cache();
+        List<Integer> expect = infinite().take(100_000).toList();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Integer>>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(executor.submit(cached::toList));
+            }
+            for (Future<List<Integer>> future : futures) {
+                Assertions.assertEquals(expect, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertEquals(100_000, computed.get());
     }
     
     @Test
@@ -130,6 +333,42 @@ class SeqTest {
     
     @Test
     void zip() {
+        Seq<Integer> seq = Seq.of(1, 2, 3);
+        Assertions.assertEquals("[(1, a), (2, b)]", seq.zip(listOf("a", "b")).toArrayString());
+        Assertions.assertEquals("[(1, a)]", seq.zip(listOf("a", "b")).take(1).toArrayString());
+    }
+    
+    @Test
+    void iterator() {
+        Seq<Integer> lambda = c -> {
+            for (int i = 0; i < 1000; i++) {
+                c.accept(i);
+            }
+        };
+        List<Integer> actual = new ArrayList<>();
+        lambda.iterator().forEachRemaining(actual::add);
+        Assertions.assertEquals(lambda.toList(), actual);
+        Assertions.assertEquals(lambda.toList(), StreamSupport.stream(lambda.spliterator(), false).collect(Collectors.toList()));
+        Assertions.assertEquals(3, Seq.of(1, 2, 3).spliterator().getExactSizeIfKnown());
+        
+        try (SeqIterator<Integer> iterator = infinite().iterator()) {
+            Assertions.assertEquals(0, iterator.next());
+            Assertions.assertEquals(1, iterator.next());
+        }
+        Assertions.assertThrows(NoSuchElementException.class, () -> Seq.<Integer>of().iterator().next());
+    }
+    
+    @Test
+    void zipSeq() {
+        Seq<Integer> lambda = c -> {
+            c.accept(1);
+            c.accept(2);
+            c.accept(3);
+        };
+        Assertions.assertEquals("[(1, 0), (2, 1), (3, 2)]", lambda.zip(infinite()).toArrayString());
+        Assertions.assertEquals("[(0, 1), (1, 2), (2, 3)]", infinite().zip(lambda).toArrayString());
+        Assertions.assertEquals("[1a, 2b]", lambda.zip(Seq.of("a", "b"), (i, s) -> i + s).toArrayString());
+        Assertions.assertEquals(1_000, infinite().zip(infinite(), Integer::sum).take(1_000).length());
     }
     
     @Test
@@ -166,18 +405,38 @@ class SeqTest {
     
     @Test
     void length() {
+        Integer[] array = {1, 2, 3, 4, 5};
+        Assertions.assertEquals(5, Seq.of(array).length());
+        Assertions.assertEquals(2, Seq.of(array).drop(3).length());
+        Assertions.assertEquals(0, Seq.of(array).drop(10).length());
+        Assertions.assertEquals(5, Seq.of(array).map(String::valueOf).length());
+        Assertions.assertEquals(3, Seq.of(array).filter(v -> v % 2 == 1).length());
     }
     
     @Test
     void isEmpty() {
+        Assertions.assertTrue(Seq.of().isEmpty());
+        Assertions.assertFalse(Seq.of(1, 2).isEmpty());
+        // 遇到第一个元素就停止，不会遍历无限流
+        Assertions.assertFalse(infinite().isEmpty());
     }
     
     @Test
     void head() {
+        Assertions.assertEquals(Optional.of(1), Seq.of(1, 2, 3).head());
+        Assertions.assertEquals(Optional.empty(), Seq.of().head());
+        Assertions.assertEquals(Optional.of(0), infinite().head());
     }
     
     @Test
     void last() {
+        Assertions.assertEquals(Optional.of(3), Seq.of(1, 2, 3).last());
+        Assertions.assertEquals(Optional.of(3), Seq.of(listOf(1, 2, 3)).last());
+        Assertions.assertEquals(Optional.empty(), Seq.of().last());
+        Assertions.assertEquals("[4, 5]", Seq.of(1, 2, 3, 4, 5).last(2).toArrayString());
+        Assertions.assertEquals("[4, 5]", Seq.of(listOf(1, 2, 3, 4, 5)).last(2).toArrayString());
+        Assertions.assertEquals("[1, 2]", Seq.of(1, 2).last(5).toArrayString());
+        Assertions.assertEquals("[8, 9, 10]", infinite().take(11).last(3).toArrayString());
     }
     
     @Test
@@ -210,38 +469,257 @@ class SeqTest {
     
     @Test
     void findFirst() {
+        Assertions.assertEquals(Optional.of(4), Seq.of(1, 4, 5, 6).findFirst(v -> v % 2 == 0));
+        Assertions.assertEquals(Optional.of(1000), infinite().findFirst(v -> v >= 1000));
+        Assertions.assertEquals(Optional.empty(), Seq.of(1, 3).findFirst(v -> v % 2 == 0));
     }
     
     @Test
     void anyMatch() {
+        Assertions.assertTrue(infinite().anyMatch(v -> v == 10));
+        Assertions.assertFalse(Seq.of(1, 3).anyMatch(v -> v == 10));
+        Assertions.assertTrue(Seq.of(1, null).anyMatch(Objects::isNull));
     }
     
     @Test
     void allMatch() {
+        Assertions.assertTrue(Seq.of(2, 4).allMatch(v -> v % 2 == 0));
+        Assertions.assertFalse(infinite().allMatch(v -> v < 10));
     }
     
     @Test
     void noneMatch() {
+        Assertions.assertTrue(Seq.of(1, 3).noneMatch(v -> v % 2 == 0));
+        Assertions.assertFalse(Seq.of(1, 2).noneMatch(v -> v % 2 == 0));
+    }
+    
+    // 只实现了 consume 的无限流，依赖 tryConsume 的默认实现终止
+    static Seq<Integer> infinite() {
+        return c -> {
+            for (int i = 0; ; i++) {
+                c.accept(i);
+            }
+        };
+    }
+    
+    @Test
+    void tryConsume() {
+        List<Integer> pulled = new ArrayList<>();
+        List<Integer> taken = Seq.of(1, 2, 3, 4, 5).peek(pulled::add).take(2).toList();
+        Assertions.assertEquals(Arrays.asList(1, 2), taken);
+        // take 取够之后不再向上游多拉取元素
+        Assertions.assertEquals(Arrays.asList(1, 2), pulled);
+        
+        Assertions.assertTrue(Seq.of(1, 2).tryConsume(v -> true));
+        Assertions.assertFalse(Seq.of(1, 2).tryConsume(v -> v < 2));
+        Assertions.assertFalse(infinite().tryConsume(v -> v < 100));
+    }
+    
+    @Test
+    void nestedTake() {
+        // 内层 take 截断的流对外层是正常结束，外层 flatMap 继续处理下一个元素
+        Assertions.assertEquals("[0, 1, 0, 1, 0]",
+                Seq.of(1, 2, 3).flatMap(v -> infinite().take(2)).take(5).toArrayString());
+        // 外层 take 的终止信号必须穿过内层 take 传到数据源
+        Assertions.assertEquals("[0, 1, 2]",
+                infinite().flatMap(v -> infinite().map(i -> v * 10 + i).take(3)).take(3).toArrayString());
+        Assertions.assertEquals("[0, 1, 2, 10, 11, 12, 20]",
+                infinite().flatMap(v -> infinite().map(i -> v * 10 + i).take(3)).take(7).toArrayString());
+        
+        Assertions.assertEquals("[0, 1, 0, 1, 2]",
+                infinite().take(2).append(infinite().take(5)).take(5).toArrayString());
+        Assertions.assertEquals("[(0, a), (1, b)]",
+                infinite().take(5).zip(listOf("a", "b")).toArrayString());
+        Assertions.assertEquals("0_a,1_b",
+                Seq.of(listOf(1, 2)).flatMap(v -> infinite().zip(listOf("a", "b"))).take(2)
+                        .map(t -> t._1() + "_" + t._2()).toJoinString(","));
     }
     
     @Test
     void sort() {
+        Seq<Integer> seq = Seq.of(5, 3, 8, 1, 9, 2);
+        Assertions.assertEquals("[1, 2, 3, 5, 8, 9]", seq.sort(Comparator.naturalOrder()).toArrayString());
+        Assertions.assertEquals("[1, 2, 3]", seq.sort(Comparator.naturalOrder()).take(3).toArrayString());
+        Assertions.assertEquals("[9, 8]", seq.sort(Comparator.reverseOrder()).take(5).take(2).toArrayString());
+        Assertions.assertEquals("[2, 8]", seq.sort(Comparator.naturalOrder()).filter(v -> v % 2 == 0).toArrayString());
+        Assertions.assertEquals(Optional.of(1), seq.sort(Comparator.naturalOrder()).head());
+        Assertions.assertEquals(Optional.of(9), seq.sort(Comparator.naturalOrder()).last());
     }
     
     @Test
     void sortBy() {
+        // 稳定排序：长度相同的按原来的顺序
+        Seq<String> seq = Seq.of("ccc", "a", "bb", "b", "aa", "c");
+        Assertions.assertEquals("[a, b, c, bb, aa, ccc]", seq.sortBy(String::length).toArrayString());
+        Assertions.assertEquals("[a, b, c, bb]", seq.sortBy(String::length).take(4).toArrayString());
+        Assertions.assertEquals("[b, bb, c, ccc]", seq.sortBy(String::length).sortBy(s -> s.charAt(0)).drop(2).toArrayString());
+        Assertions.assertEquals("[A, B]", seq.sortBy(String::length).map(String::toUpperCase).take(2).toArrayString());
     }
     
     @Test
     void testSortBy() {
+        List<Integer> list = new Random(7).ints(10_000, 0, 100).boxed().collect(Collectors.toList());
+        for (int k : new int[]{0, 1, 10, 500, 20_000}) {
+            Assertions.assertEquals(
+                    list.stream().sorted(Comparator.comparing(v -> v % 10)).limit(k).collect(Collectors.toList()),
+                    Seq.of(list).sortBy(v -> v % 10).take(k).toList());
+        }
+    }
+    
+    @Test
+    void externalSort(@TempDir Path dir) throws IOException {
+        List<String> list = new Random(5).ints(10_000, 0, 1_000).mapToObj(v -> v + ":" + v % 7).collect(Collectors.toList());
+        Spill<String> spill = Spill.of(100, Codec.strings()).directory(dir);
+        Function<String, Integer> key = s -> Integer.parseInt(s.substring(s.indexOf(':') + 1));
+        // 100 个 run，超过一次归并的上限
+        Assertions.assertEquals(
+                list.stream().sorted(Comparator.comparing(key)).collect(Collectors.toList()),
+                Seq.of(list).sortBy(key, spill).toList());
+        Assertions.assertEquals(
+                list.stream().sorted().collect(Collectors.toList()),
+                Seq.of(list).sort(Comparator.naturalOrder(), spill).toList());
+        Assertions.assertEquals("[b, c]", Seq.of("c", "a", "b").sort(Comparator.naturalOrder(), spill).filter(v -> !v.equals("a")).toArrayString());
+        
+        int[] seen = {0};
+        Assertions.assertFalse(Seq.of(list).sort(Comparator.naturalOrder(), spill).tryConsume(v -> ++seen[0] < 10));
+        try (Stream<Path> files = Files.list(dir)) {
+            Assertions.assertEquals(0, files.count());
+        }
+    }
+    
+    @Test
+    void lines(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("lines.txt");
+        Files.write(file, "alpha\r\n\nβeta γ\nlast".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(Arrays.asList("alpha", "", "βeta γ", "last"), Seq.lines(file).map(Line::toString).toList());
+        Assertions.assertEquals(Arrays.asList(5, 0, 6, 4), Seq.lines(file).map(Line::length).toList());
+        Assertions.assertEquals('γ', (char) Seq.lines(file).drop(2).map(l -> l.charAt(5)).head().get());
+        // 视图被复用，保留下来的行需要 materialize
+        List<Line> kept = Seq.lines(file).filter(l -> l.length() > 4).map(Line::materialize).toList();
+        Assertions.assertEquals("[alpha, βeta γ]", kept.toString());
+        Assertions.assertEquals(kept.get(0), Seq.lines(file).map(Line::materialize).head().get());
+        Assertions.assertEquals(0, Seq.lines(Files.write(dir.resolve("empty.txt"), new byte[0])).length());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Seq.lines(file, StandardCharsets.UTF_16));
+    }
+    
+    @Test
+    void delimited(@TempDir Path dir) throws IOException {
+        Path file = Files.write(dir.resolve("people.csv"), Arrays.asList(
+                "name,age,score,id",
+                "\"Smith, J\",42,1.5,9000000000",
+                "",
+                "\"say \"\"hi\"\"\",-7,,1",
+                "z,x"));
+        Delimited csv = Delimited.of(file).skipHeader();
+        Assertions.assertEquals(
+                Arrays.asList(Tuple.of("Smith, J", 42, 1.5), Tuple.of("say \"hi\"", -7, null)),
+                csv.tuples(Column.stringAt(0), Column.intAt(1), Column.doubleAt(2)).take(2).toList());
+        Assertions.assertEquals(Arrays.asList(9000000000L, 1L, null), csv.values(Column.longAt(3)).toList());
+        // 第二列不是数字，但没有被引用就不会被解析
+        List<String> names = new ArrayList<>();
+        csv.consume(Column.stringAt(0), Column.stringAt(0), (a, b) -> names.add(a + "|" + b));
+        Assertions.assertEquals(Arrays.asList("Smith, J|Smith, J", "say \"hi\"|say \"hi\"", "z|z"), names);
+        Assertions.assertThrows(NumberFormatException.class, () -> csv.values(Column.intAt(1)).toList());
+        Assertions.assertEquals(Arrays.asList(0.1, 1e300, -0.0),
+                Delimited.of(Files.write(dir.resolve("d.tsv"), Arrays.asList("0.1", "1e300", "-0.0"))).delimiter('\t').values(Column.doubleAt(0)).toList());
+    }
+    
+    @Test
+    void writeToReadFrom(@TempDir Path dir) throws IOException {
+        List<String> list = IntStream.range(0, 50_000).mapToObj(i -> "value-" + i % 1000).collect(Collectors.toList());
+        Path plain = dir.resolve("plain.seq");
+        Path compressed = dir.resolve("compressed.seq");
+        Assertions.assertEquals(list.size(), Seq.of(list).writeTo(plain, Codec.strings()));
+        Seq.of(list).writeTo(compressed, Codec.strings(), true);
+        Assertions.assertTrue(Files.size(compressed) < Files.size(plain) / 2);
+        for (Path file : Arrays.asList(plain, compressed)) {
+            Seq<String> seq = Seq.readFrom(file, Codec.strings());
+            Assertions.assertEquals(list, seq.toList());
+            Assertions.assertEquals(list.size(), seq.length());
+            // drop 根据块索引定位
+            Assertions.assertEquals(list.subList(31_234, 31_240), seq.drop(31_234).take(6).toList());
+            Assertions.assertEquals(list.subList(49_990, 50_000), seq.map(String::trim).drop(49_990).toList());
+            Assertions.assertEquals(list, seq.parallel().toList());
+        }
+        
+        Codec<Tuple3<Integer, Double, String>> codec = Codec.tuple3(Codec.ints(), Codec.doubles(), Codec.strings().nullable());
+        Path tuples = dir.resolve("tuples.seq");
+        Seq.of(Tuple.of(1, 0.5, "a"), Tuple.of(2, -1.0, (String) null)).writeTo(tuples, codec, true);
+        Assertions.assertEquals("[(1, 0.5, a), (2, -1.0, null)]", Seq.readFrom(tuples, codec).toArrayString());
+        Assertions.assertEquals(0, Seq.<String>of().writeTo(plain, Codec.strings()));
+        Assertions.assertTrue(Seq.readFrom(plain, Codec.strings()).isEmpty());
+    }
+    
+    @Test
+    void naryZip() {
+        TriSeq<Integer, String, Double> rows = TriSeq.zip(Seq.of(1, 2, 3, 4), Seq.of("a", "b", "c"), Seq.of(0.5, 1.5, 2.5, 3.5));
+        Assertions.assertEquals("[1a0.5, 2b1.5, 3c2.5]", rows.map((i, s, d) -> i + s + d).toArrayString());
+        Assertions.assertEquals("[(2, b, 1.5)]", rows.filter((i, s, d) -> i % 2 == 0).toTuples().toArrayString());
+        Assertions.assertEquals("[(2, b, 1.5)]", rows.toTuples().drop(1).take(1).toArrayString());
+        Assertions.assertEquals(3, rows.map((i, s, d) -> i).length());
+        
+        List<Tuple3<Integer, String, Double>> tuples = rows.toTuples().toList();
+        Assertions.assertEquals(tuples, TriSeq.of(Seq.of(tuples)).toTuples().toList());
+        
+        Seq<Integer> ints = Seq.of(1, 2, 3);
+        int[] sum = {0};
+        OctSeq.zip(ints, ints, ints, ints, ints, ints, ints, ints.map(i -> i * 10))
+                .filter((a, b, c, d, e, f, g, h) -> a > 1)
+                .consume((a, b, c, d, e, f, g, h) -> sum[0] += a + b + c + d + e + f + g + h);
+        Assertions.assertEquals(2 * 7 + 20 + 3 * 7 + 30, sum[0]);
+        
+        // 数组之上的 map 直接按下标拉取，映射函数在调用方线程执行
+        Set<Thread> threads = new HashSet<>();
+        TriSeq.zip(ints, ints.map(i -> {
+            threads.add(Thread.currentThread());
+            return i;
+        }), ints).consume((a, b, c) -> {
+        });
+        Assertions.assertEquals(Collections.singleton(Thread.currentThread()), threads);
     }
     
     @Test
     void min() {
+        Seq<String> seq = Seq.of("bb", "a", "ccc", "b");
+        Assertions.assertEquals(Optional.of("a"), seq.min(String::length));
+        Assertions.assertEquals(Optional.of("a"), seq.min(Comparator.naturalOrder()));
+        Assertions.assertEquals(Optional.empty(), Seq.<String>of().min(String::length));
     }
     
     @Test
     void max() {
+        Seq<String> seq = Seq.of("bb", "a", "ccc", "b", "ddd");
+        Assertions.assertEquals(Optional.of("ccc"), seq.max(String::length));
+    }
+    
+    @Test
+    void topK() {
+        Seq<String> seq = Seq.of("bb", "a", "ccc", "b", "dd", "eee");
+        Assertions.assertEquals(Arrays.asList("ccc", "eee", "bb"), seq.topK(3, Comparator.comparing(String::length)));
+        Assertions.assertEquals(Arrays.asList("a", "b", "bb"), seq.bottomK(3, Comparator.comparing(String::length)));
+        Assertions.assertEquals(Collections.emptyList(), seq.topK(0, Comparator.naturalOrder()));
+        Assertions.assertEquals(6, seq.bottomK(100, Comparator.naturalOrder()).size());
+        
+        List<Integer> list = new Random(11).ints(100_000, 0, 1_000).boxed().collect(Collectors.toList());
+        Assertions.assertEquals(
+                list.stream().sorted(Comparator.reverseOrder()).limit(100).collect(Collectors.toList()),
+                Seq.of(list).topK(100, Comparator.naturalOrder()));
+        
+        BiSeq<String, Integer> pairs = seq.zipWithIndex();
+        Assertions.assertEquals("[(eee, 5), (dd, 4)]", pairs.topK(2, Comparator.naturalOrder()).toString());
+        Assertions.assertEquals("[(a, 1), (b, 3)]", pairs.bottomK(2, Comparator.naturalOrder()).toString());
+    }
+    
+    @Test
+    void explain() {
+        Integer[] array = new Integer[1000];
+        Arrays.fill(array, 1);
+        Assertions.assertEquals("TopK(k=3)\n  Map x2\n    Array[0, 1000)\n",
+                Seq.of(array).map(v -> v + 1).map(v -> v * 2).sort(Comparator.naturalOrder()).take(3).explain());
+        Assertions.assertEquals("Sort\n  Filter x2\n    Array[10, 1000)\n",
+                Seq.of(array).drop(10).sort(Comparator.naturalOrder()).filter(v -> v > 0).filter(v -> v < 5).explain());
+        Assertions.assertEquals("Map\n  Array[990, 1000)\n", Seq.of(array).map(String::valueOf).last(10).explain());
+        Assertions.assertEquals("Seq", infinite().explain());
     }
     
     @SafeVarargs
@@ -346,12 +824,344 @@ class SeqTest {
     void zipWith() {
         Seq<Integer> seq = Seq.of(1, 2, 3);
         
-        String joinString = seq.zipWith(Seq.of('a', 'b', 'c').toList()).toJoinString(",");
+        // 单参数的 toJoinString 按 (key, value) 输出，与 pairs() 的期望一致；key_value 格式需要显式指定分隔符
+        Assertions.assertEquals("(1, a),(2, b),(3, c)", seq.zipWith(Seq.of('a', 'b', 'c').toList()).toJoinString(","));
+        String joinString = seq.zipWith(Seq.of('a', 'b', 'c').toList()).toJoinString(",", "_");
         
         Assertions.assertEquals("1_a,2_b,3_c", joinString);
     }
     
     
+    @Test
+    void groupBy() {
+        Seq<String> seq = Seq.of("apple", "avocado", "banana", "blueberry", "cherry", null);
+        Map<Character, List<String>> groups = seq.filterNotNull().groupBy(s -> s.charAt(0));
+        Assertions.assertEquals(Arrays.asList("apple", "avocado"), groups.get('a'));
+        Assertions.assertEquals(3, groups.size());
+        Assertions.assertEquals("{a=[5, 7], b=[6, 9], c=[6]}", seq.filterNotNull().groupBy(s -> s.charAt(0), String::length).toString());
+        
+        ObjLongMap<Integer> counts = seq.countBy(s -> s == null ? null : s.length());
+        Assertions.assertEquals(2, counts.get(6));
+        Assertions.assertEquals(1, counts.get(null));
+        Assertions.assertEquals(0, counts.get(100));
+        Assertions.assertEquals(5, counts.size());
+        Assertions.assertEquals(20_000, infinite().take(20_000).countBy(v -> v).size());
+        Assertions.assertEquals(Long.valueOf(12), seq.filterNotNull().sumBy(s -> s.charAt(0), String::length).toMap().get('a'));
+    }
+    
+    @Test
+    void reduceByKey() {
+        Seq<Integer> seq = infinite().take(10);
+        Assertions.assertEquals("{0=20, 1=25}", seq.reduceByKey(v -> v % 2, v -> v, Integer::sum).toString());
+        Assertions.assertEquals("{0=0-2-4-6-8, 1=1-3-5-7-9}", seq.reduceByKey(v -> v % 2, String::valueOf, (a, b) -> a + "-" + b).toString());
+        Assertions.assertEquals("{0=[0, 3, 6, 9], 1=[1, 4, 7], 2=[2, 5, 8]}",
+                seq.aggregateByKey(v -> v % 3, ArrayList::new, (list, v) -> {
+                    list.add(v);
+                    return list;
+                }, (a, b) -> a).toString());
+        
+        BiSeq<String, Integer> pairs = Seq.of("a", "b", "a", "c", "a").zipWithIndex();
+        Assertions.assertEquals("{a=[0, 2, 4], b=[1], c=[3]}", pairs.groupByKey().toString());
+        Assertions.assertEquals(3, pairs.countByKey().get("a"));
+        Assertions.assertEquals(6, pairs.sumByKey(v -> v).get("a"));
+        Assertions.assertEquals("{a=4, b=1, c=3}", pairs.reduceByKey(Math::max).toString());
+        Assertions.assertEquals("{a=3, b=1, c=1}", pairs.aggregateByKey(() -> 0, (n, v) -> n + 1).toString());
+    }
+    
+    @Test
+    void join() {
+        Seq<String> orders = Seq.of("o1:alice", "o2:bob", "o3:alice", "o4:carol");
+        Seq<String> customers = Seq.of("alice=VIP", "bob=NEW", "alice=EU", "dave=NEW");
+        Function<String, String> orderKey = o -> o.split(":")[1];
+        Function<String, String> customerKey = c -> c.split("=")[0];
+        
+        List<String> inner = new ArrayList<>();
+        orders.innerJoin(customers, orderKey, customerKey).consume((o, c) -> inner.add(o + "|" + c));
+        Assertions.assertEquals(Arrays.asList("o1:alice|alice=VIP", "o1:alice|alice=EU", "o2:bob|bob=NEW",
+                "o3:alice|alice=VIP", "o3:alice|alice=EU"), inner);
+        
+        List<String> left = new ArrayList<>();
+        orders.leftJoin(customers, orderKey, customerKey).consume((o, c) -> left.add(o + "|" + c));
+        Assertions.assertEquals("o4:carol|null", left.get(left.size() - 1));
+        Assertions.assertEquals(6, left.size());
+        
+        Assertions.assertEquals("[o1:alice, o2:bob, o3:alice]", orders.semiJoin(customers, orderKey, customerKey).toArrayString());
+        Assertions.assertEquals("[o4:carol]", orders.antiJoin(customers, orderKey, customerKey).toArrayString());
+        Assertions.assertEquals("[0, 1]", infinite().semiJoin(Seq.of(1, 0), v -> v, v -> v).take(2).toArrayString());
+    }
+    
+    @Test
+    void joinSpill(@TempDir Path dir) throws IOException {
+        Seq<Integer> probe = infinite().take(5_000);
+        Seq<Integer> build = infinite().take(3_000).flatMap(v -> Seq.of(v * 2, v * 2));
+        Spill<Integer> spill = Spill.of(100, Codec.ints()).directory(dir).partitions(8);
+        
+        Set<String> inMemory = new HashSet<>();
+        probe.innerJoin(build, v -> v, v -> v).consume((a, b) -> inMemory.add(a + "-" + b));
+        List<String> spilled = new ArrayList<>();
+        probe.innerJoin(build, v -> v, v -> v, spill, Codec.ints()).consume((a, b) -> spilled.add(a + "-" + b));
+        Assertions.assertEquals(5_000, spilled.size());
+        Assertions.assertEquals(inMemory, new HashSet<>(spilled));
+        
+        Assertions.assertEquals(probe.antiJoin(build, v -> v, v -> v).toSet(),
+                probe.antiJoin(build, v -> v, v -> v, spill, Codec.ints()).toSet());
+        Assertions.assertEquals(2_500, probe.semiJoin(build, v -> v, v -> v, spill, Codec.ints()).length());
+        // 提前终止时也会删除临时文件
+        int[] seen = {0};
+        Assertions.assertFalse(probe.leftJoin(build, v -> v, v -> v, spill, Codec.ints()).tryConsume((a, b) -> ++seen[0] < 3));
+        try (Stream<Path> files = Files.list(dir)) {
+            Assertions.assertEquals(0, files.count());
+        }
+    }
+    
+    @Test
+    void windowed() {
+        Seq<Integer> seq = Seq.of(1, 2, 3, 4, 5);
+        Assertions.assertEquals("[[1, 2], [3, 4], [5]]", seq.chunked(2).toArrayString());
+        Assertions.assertEquals("[[1, 2, 3], [2, 3, 4], [3, 4, 5]]", seq.windowed(3, 1, false).toArrayString());
+        Assertions.assertEquals("[[1, 2, 3], [2, 3, 4], [3, 4, 5], [4, 5], [5]]", seq.windowed(3, 1, true).toArrayString());
+        Assertions.assertEquals("[[1, 2], [4, 5]]", seq.windowed(2, 3, true).toArrayString());
+        Assertions.assertEquals("[[1, 2], [4, 5], [7]]", infinite().take(8).drop(1).windowed(2, 3, true).toArrayString());
+        Assertions.assertEquals("[]", seq.windowed(6, 1, false).toArrayString());
+        Assertions.assertEquals("[[0, 1], [2, 3]]", infinite().chunked(2).take(2).toArrayString());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> seq.windowed(0, 1, false));
+        
+        // 视图模式：每个窗口是同一个对象，只能在回调中读取
+        List<List<Integer>> views = new ArrayList<>();
+        List<String> sums = new ArrayList<>();
+        infinite().take(10).windowed(4, 2, false, true).consume(w -> {
+            views.add(w);
+            sums.add(w.get(0) + ".." + w.get(w.size() - 1));
+        });
+        Assertions.assertEquals(Arrays.asList("0..3", "2..5", "4..7", "6..9"), sums);
+        Assertions.assertSame(views.get(0), views.get(3));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> views.get(0).clear());
+        Assertions.assertEquals("[3, 7, 5]", seq.chunked(2, true).map(w -> w.stream().mapToInt(v -> v).sum()).toArrayString());
+    }
+    
+    @Test
+    void zipWithMore() {
+        BiSeq<String, Integer> zipped = Seq.of("a", "b", "c").zipWith(Seq.naturalNumbers());
+        Assertions.assertEquals("a0,b1,c2", zipped.toJoinString(",", ""));
+        Assertions.assertEquals("a0,b1,c2", zipped.toJoinString(",", ""));
+        Assertions.assertEquals("a5,b7", Seq.of("a", "b", "c").zipWith(Seq.arithmeticProgression(5, 2, 9)).toJoinString(",", ""));
+    }
+    
+    @Test
+    void zipWithNext() {
+        Assertions.assertEquals("[1, 1, 1, 1]", Seq.of(1, 2, 3, 4, 5).zipWithNext((a, b) -> b - a).toArrayString());
+        Assertions.assertEquals("[]", Seq.of(1).zipWithNext((a, b) -> b - a).toArrayString());
+        Assertions.assertEquals("[null-1, 1-null]", Seq.of(null, 1, null).zipWithNext((a, b) -> a + "-" + b).toArrayString());
+    }
+    
+    @Test
+    void biSeq() {
+        Map<String, Integer> map = new LinkedHashMap<>();
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 3);
+        BiSeq<String, Integer> seq = BiSeq.of(map);
+        Assertions.assertEquals("(b, 2), (c, 3)", seq.filter((k, v) -> v > 1).toJoinString(", "));
+        Assertions.assertEquals("A=10,B=20,C=30", seq.mapKeys(String::toUpperCase).mapValues(v -> v * 10).toJoinString(",", "="));
+        Assertions.assertEquals("(b, 2)", seq.drop(1).take(1).toJoinString(","));
+        Assertions.assertEquals("[a, b, c]", seq.keys().toArrayString());
+        Assertions.assertEquals(6, seq.values().mapToInt(v -> v).sum());
+        Assertions.assertEquals(map, seq.toMap());
+        Assertions.assertEquals(3, seq.length());
+        Assertions.assertEquals(Collections.singletonMap("b", 20), seq.filter((k, v) -> k.equals("b")).mapValues(v -> v * 10).toMap());
+        Assertions.assertTrue(seq.filter((k, v) -> v > 3).isEmpty());
+        
+        int[] visited = {0};
+        Assertions.assertFalse(seq.tryConsume((k, v) -> ++visited[0] < 2));
+        Assertions.assertEquals(2, visited[0]);
+        Assertions.assertEquals("[(1, x), (2, y)]", BiSeq.zip(Seq.of(1, 2, 3), Seq.of("x", "y")).toTuples().toArrayString());
+        Assertions.assertEquals("1=x", BiSeq.of(Seq.of(Tuple.of(1, "x"))).toJoinString(",", "="));
+    }
+    
+    @Test
+    void distinctApprox() {
+        Seq<Integer> seq = IntSeq.range(0, 200_000).map(i -> i % 50_000).boxed();
+        long estimate = seq.countDistinctApprox();
+        Assertions.assertTrue(Math.abs(estimate - 50_000) < 50_000 * 0.03, () -> "estimate: " + estimate);
+        Assertions.assertEquals(3, Seq.of("a", "b", "a", "c").countDistinctApprox());
+        
+        HyperLogLog left = IntSeq.range(0, 30_000).boxed().toHyperLogLog(12);
+        HyperLogLog right = IntSeq.range(20_000, 50_000).boxed().toHyperLogLog(12);
+        Assertions.assertEquals(IntSeq.range(0, 50_000).boxed().toHyperLogLog(12), left.merge(right));
+        
+        List<Integer> distinct = seq.distinctApprox(50_000, 0.01).toList();
+        Assertions.assertTrue(distinct.size() <= 50_000 && distinct.size() > 50_000 * 0.98, () -> "size: " + distinct.size());
+        Assertions.assertEquals(new HashSet<>(distinct).size(), distinct.size());
+        Assertions.assertEquals("[apple, banana]", Seq.of("apple", "avocado", "banana").distinctByApprox(s -> s.charAt(0), 100, 0.01).toArrayString());
+        
+        BloomFilter filter = Seq.of("x", "y").toBloomFilter(100, 0.01).merge(Seq.of("z").toBloomFilter(100, 0.01));
+        Assertions.assertTrue(filter.mightContain("x") && filter.mightContain("z"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> filter.merge(new BloomFilter(1000, 0.01)));
+    }
+    
+    @Test
+    void setOperations() {
+        Seq<Integer> left = Seq.of(5, 1, 3, 1, 7, 9);
+        Seq<Integer> right = Seq.of(Arrays.asList(3, 4, 5, 5, 6, 8, 10, 11));
+        // 左侧较小时在左侧建表，结果仍然按左侧的顺序
+        Assertions.assertEquals("[5, 3]", left.intersect(right).toArrayString());
+        Assertions.assertEquals("[5, 3]", left.intersect(right.filter(v -> true)).toArrayString());
+        Assertions.assertEquals("[1, 7, 9]", left.except(right).toArrayString());
+        Assertions.assertEquals("[1, 7, 9]", left.except(right.filter(v -> true)).toArrayString());
+        Assertions.assertEquals("[5, 1, 3, 7, 9, 4, 6, 8, 10, 11]", left.unionDistinct(right).toArrayString());
+        Assertions.assertEquals("[apple, cherry]", Seq.of("apple", "avocado", "banana", "cherry")
+                .intersect(Seq.of("ant", "cat"), s -> s.charAt(0)).toArrayString());
+        
+        Seq<Integer> a = Seq.of(1, 1, 2, 4, 6, 6, 9);
+        Seq<Integer> b = Seq.of(1, 3, 4, 4, 6, 8);
+        Assertions.assertEquals("[1, 4, 6]", a.intersectSorted(b, Comparator.naturalOrder()).toArrayString());
+        Assertions.assertEquals("[2, 9]", a.exceptSorted(b, Comparator.naturalOrder()).toArrayString());
+        Assertions.assertEquals("[1, 2, 3, 4, 6, 8, 9]", a.unionSorted(b, Comparator.naturalOrder()).toArrayString());
+        Assertions.assertEquals("[1, 2]", a.unionSorted(b, Comparator.naturalOrder()).take(2).toArrayString());
+        Assertions.assertEquals("[a, ddd]", Seq.of("a", "b", "cc", "ddd").exceptSortedBy(Seq.of("yy"), String::length).toArrayString());
+        Assertions.assertEquals("[a, cc]", Seq.of("a", "cc").unionSortedBy(Seq.of("b"), String::length).toArrayString());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Seq.of(2, 1).intersectSorted(b, Comparator.naturalOrder()).toList());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> a.unionSorted(Seq.of(5, 3), Comparator.naturalOrder()).toList());
+    }
+    
+    @Test
+    void mergeSorted() {
+        List<Integer> shard = IntStream.range(0, 3000).map(i -> i * 3).boxed().collect(Collectors.toList());
+        Seq<Integer> merged = Seq.mergeSorted(Comparator.naturalOrder(),
+                Seq.of(shard), Seq.of(shard).map(v -> v + 1), Seq.of(new LinkedList<>(shard)).map(v -> v + 2), Seq.of(new Integer[0]));
+        Assertions.assertEquals(IntStream.range(0, 9000).boxed().collect(Collectors.toList()), merged.toList());
+        Assertions.assertEquals("[0, 1, 2]", merged.take(3).toArrayString());
+        // 相等时按输入的先后输出
+        Assertions.assertEquals("[a1, b1, a2, b3]", Seq.mergeSorted(Comparator.comparing((String s) -> s.charAt(1)),
+                Seq.of("a1", "a2"), Seq.of("b1", "b3")).toArrayString());
+        // 后面的输入打开失败或者比较器抛出异常时，已经打开的游标都会被关闭
+        boolean[] closed = {false};
+        Seq<Integer> tracked = new Seq<Integer>() {
+            @Override
+            public void consume(Consumer<Integer> consumer) {
+                consumer.accept(1);
+            }
+            
+            @Override
+            public SeqIterator<Integer> iterator() {
+                closed[0] = false;
+                Iterator<Integer> iterator = Collections.singletonList(1).iterator();
+                return new SeqIterator<Integer>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+                    
+                    @Override
+                    public Integer next() {
+                        return iterator.next();
+                    }
+                    
+                    @Override
+                    public void close() {
+                        closed[0] = true;
+                    }
+                };
+            }
+        };
+        Seq<Integer> broken = new Seq<Integer>() {
+            @Override
+            public void consume(Consumer<Integer> consumer) {
+            }
+            
+            @Override
+            public SeqIterator<Integer> iterator() {
+                throw new IllegalStateException("broken");
+            }
+        };
+        Assertions.assertThrows(IllegalStateException.class, () -> Seq.mergeSorted(Comparator.naturalOrder(), tracked, broken).toList());
+        Assertions.assertTrue(closed[0]);
+        Assertions.assertThrows(ArithmeticException.class, () -> Seq.mergeSorted((a, b) -> {
+            throw new ArithmeticException();
+        }, tracked, Seq.of(2)).toList());
+        Assertions.assertTrue(closed[0]);
+        Assertions.assertEquals("1=x,1=y,2=z", BiSeq.mergeSorted(Integer::compare,
+                BiSeq.zip(Seq.of(1, 2), Seq.of("x", "z")), BiSeq.zip(Seq.of(1), Seq.of("y"))).toJoinString(",", "="));
+    }
+    
+    @Test
+    void concat() {
+        Seq<Integer> seq = Seq.of();
+        for (int i = 0; i < 100_000; i++) {
+            seq = seq.append(i);
+        }
+        Assertions.assertEquals(100_000, seq.length());
+        Assertions.assertEquals(4_999_950_000L, seq.reduce(0L, (acc, v) -> acc + v, Long::sum));
+        Assertions.assertEquals("Concat(parts=100001)", seq.explain());
+        
+        // 在旧节点上 append 不影响已经得到的新节点
+        Seq<Integer> base = Seq.of(1, 2).append(3);
+        Seq<Integer> left = base.append(4);
+        Seq<Integer> right = base.append(Arrays.asList(5, 6));
+        Assertions.assertEquals("[1, 2, 3, 4]", left.toArrayString());
+        Assertions.assertEquals("[1, 2, 3, 5, 6]", right.toArrayString());
+        Assertions.assertEquals("[1, 2, 3]", base.toArrayString());
+        Assertions.assertEquals("[1, 2, 3, 4, 1, 2, 3, 5, 6]", Seq.concat(left, Seq.of(), right).toArrayString());
+        Assertions.assertEquals("[1, 2, 3, 4, 1]", Seq.concat(Arrays.asList(left, right)).take(5).toArrayString());
+        Assertions.assertTrue(Seq.concat(Seq.of(), Seq.of()).isEmpty());
+    }
+    
+    @Test
+    void concatConcurrently() throws Exception {
+        // 多个线程同时在同一个节点上 append，每个结果都只包含自己的片段
+        Seq<Integer> base = Seq.of(0).append(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                int n = i;
+                futures.add(executor.submit(() -> {
+                    Seq<Integer> seq = base;
+                    for (int k = 0; k < 100; k++) {
+                        seq = seq.append(n);
+                    }
+                    return seq.toList().toString();
+                }));
+            }
+            for (int i = 0; i < 64; i++) {
+                Assertions.assertEquals(Seq.of(0, 1).append(Collections.nCopies(100, i)).toArrayString(), futures.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    void traverse() {
+        // 1 的子节点是 2、3，n 的子节点是 2n、2n+1
+        Function<Integer, Seq<Integer>> children = n -> n < 8 ? Seq.of(n * 2, n * 2 + 1) : null;
+        Assertions.assertEquals("[1, 2, 4, 8, 9, 5, 10, 11, 3, 6, 12, 13, 7, 14, 15]", Seq.traverseDepthFirst(1, children).toArrayString());
+        Assertions.assertEquals("[1, 2, 3, 4, 5, 6, 7, 8]", Seq.traverseBreadthFirst(1, children).take(8).toArrayString());
+        
+        // 深度远超调用栈
+        Assertions.assertEquals(200_000, Seq.traverseDepthFirst(0, n -> n < 199_999 ? Seq.unit(n + 1) : null).length());
+        Assertions.assertEquals(200_000, Seq.traverseBreadthFirst(0, n -> n < 199_999 ? Seq.unit(n + 1) : null).length());
+        
+        // 有环的图
+        Function<Integer, Seq<Integer>> cycle = n -> Seq.of((n + 1) % 5, (n + 2) % 5);
+        Assertions.assertEquals("[0, 1, 2, 3, 4]", Seq.traverseDepthFirst(0, cycle, true).toArrayString());
+        Assertions.assertEquals("[0, 1, 2, 3, 4]", Seq.traverseBreadthFirst(0, cycle, true).toArrayString());
+        Assertions.assertEquals("[0, 1, 2, 3, 4]", Seq.traverseDepthFirst(0, cycle, true).parallel().sort(Integer::compare).toArrayString());
+        
+        // null 节点也只输出一次，并行时共享的并发集合同样接受 null
+        Function<Integer, Seq<Integer>> withNull = n -> n == null ? null : Seq.of(null, (n + 1) % 5, (n + 2) % 5);
+        Set<Integer> expect = new HashSet<>(Arrays.asList(null, 0, 1, 2, 3, 4));
+        List<Integer> sequential = Seq.traverseDepthFirst(0, withNull, true).toList();
+        Assertions.assertEquals(6, sequential.size());
+        Assertions.assertEquals(expect, new HashSet<>(sequential));
+        Assertions.assertEquals(6, Seq.traverseBreadthFirst(0, withNull, true).length());
+        for (int i = 0; i < 20; i++) {
+            List<Integer> parallel = Seq.traverseDepthFirst(0, withNull, true).parallel().toList();
+            Assertions.assertEquals(6, parallel.size());
+            Assertions.assertEquals(expect, new HashSet<>(parallel));
+        }
+    }
+    
     // 写个seq.pairs测试函数
     @Test
     void pairs() {